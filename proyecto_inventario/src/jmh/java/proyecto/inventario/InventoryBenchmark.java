@@ -0,0 +1,143 @@
+package proyecto.inventario;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de las operaciones básicas de {@link Inventory} y
+ * {@link Product} sobre catálogos de distinto tamaño.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  private Inventory inventory;
+  private String[] names;
+  private int cursor;
+  private PrintStream originalOut;
+
+  /** Llena el inventario y silencia la salida estándar de addProduct. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    names = new String[size];
+    for (int i = 0; i < size; i++) {
+      names[i] = "Product-" + i;
+    }
+    inventory = fill(names);
+  }
+
+  private static Inventory fill(String[] names) {
+    Inventory inventory = new Inventory();
+    for (int i = 0; i < names.length; i++) {
+      inventory.upsert(names[i], i % 1000, (i % 100000) / 100.0);
+    }
+    return inventory;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(originalOut);
+  }
+
+  /** Alta de un nombre existente: recorre el camino de fusión. */
+  @Benchmark
+  public void addProductExisting() {
+    String name = names[cursor];
+    cursor = cursor + 1 == size ? 0 : cursor + 1;
+    inventory.addProduct(name, 1, 9.99);
+  }
+
+  /**
+   * Catálogo propio de {@link #addProductNew}: cada alta lo hace crecer, así
+   * que se rehace en cada iteración para que todas midan sobre
+   * {@code size} productos y no sobre lo agregado por las anteriores.
+   */
+  @State(Scope.Benchmark)
+  public static class Growing {
+    Inventory inventory;
+    int inserted;
+
+    @Setup(Level.Iteration)
+    public void setUp(InventoryBenchmark benchmark) {
+      inventory = fill(benchmark.names);
+      inserted = 0;
+    }
+  }
+
+  /** Alta de un nombre nuevo sobre un catálogo de {@code size} productos. */
+  @Benchmark
+  public void addProductNew(Growing growing) {
+    growing.inventory.addProduct("New-" + growing.inserted++, 1, 9.99);
+  }
+
+  /** Recorrido completo de la lista que devuelve getProducts(). */
+  @Benchmark
+  public long getProducts() {
+    long units = 0;
+    List<Product> products = inventory.getProducts();
+    for (int i = 0; i < products.size(); i++) {
+      units += products.get(i).getQuantity();
+    }
+    return units;
+  }
+
+  /** Agregación completa (valor exacto, unidades, extremos) del catálogo. */
+  @Benchmark
+  public InventoryStats stats() {
+    return inventory.stats(10);
+  }
+
+  /** Existencia baja por el índice de cantidades; el primer uso lo construye. */
+  @Benchmark
+  public List<Product> findLowStock() {
+    return inventory.findLowStock(5);
+  }
+
+  /** Autocompletado por prefijo, primera página de 20; el primer uso construye el índice. */
+  @Benchmark
+  public SearchPage searchByPrefix() {
+    String prefix = names[cursor].substring(0, Math.min(names[cursor].length(), 11));
+    cursor = cursor + 1 == size ? 0 : cursor + 1;
+    return inventory.searchByPrefix(prefix, 20);
+  }
+
+  /** Búsqueda por subcadena con el índice de trigramas, primera página de 20. */
+  @Benchmark
+  public SearchPage searchBySubstring() {
+    String text = names[cursor].substring(names[cursor].length() - 4);
+    cursor = cursor + 1 == size ? 0 : cursor + 1;
+    return inventory.searchBySubstring(text, 20);
+  }
+
+  /** Construcción del texto de detalle de un producto. */
+  @Benchmark
+  public void getDetails(Blackhole blackhole) {
+    Product product = inventory.getProducts().get(cursor);
+    cursor = cursor + 1 == size ? 0 : cursor + 1;
+    blackhole.consume(product.getDetails());
+  }
+}
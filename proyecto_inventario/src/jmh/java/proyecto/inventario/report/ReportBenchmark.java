@@ -0,0 +1,93 @@
+package proyecto.inventario.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import proyecto.inventario.Product;
+
+/**
+ * Benchmarks de generación completa de reportes. Cada invocación escribe
+ * el catálogo entero, así que el resultado se expresa en milisegundos por
+ * reporte; las filas por segundo se obtienen dividiendo {@code size}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  private List<Product> products;
+  private Path csvFile;
+  private Path gzipFile;
+  private CsvInventoryReport csvReport;
+  private CsvInventoryReport gzipReport;
+  private CsvInventoryReport partitionedReport;
+  private ConsoleInventoryReport consoleReport;
+  private PrintStream originalOut;
+
+  /** Crea el catálogo y redirige la consola a un flujo nulo. */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      products.add(new Product("Product-" + i, i % 1000, (i % 100000) / 100.0));
+    }
+    csvFile = Files.createTempFile("inventory-bench", ".csv");
+    csvReport = new CsvInventoryReport(csvFile.toString());
+    gzipFile = Files.createTempFile("inventory-bench", ".csv.gz");
+    gzipReport = CsvInventoryReport.gzip(gzipFile.toString());
+    partitionedReport = CsvInventoryReport.partitioned(csvFile.toString());
+    consoleReport = new ConsoleInventoryReport();
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    System.setOut(originalOut);
+    Files.deleteIfExists(csvFile);
+    Files.deleteIfExists(gzipFile);
+  }
+
+  @Benchmark
+  public void csvReport() {
+    csvReport.generateReport(products);
+  }
+
+  @Benchmark
+  public void partitionedCsvReport() {
+    partitionedReport.generateReport(products);
+  }
+
+  @Benchmark
+  public void gzipCsvReport() {
+    gzipReport.generateReport(products);
+  }
+
+  @Benchmark
+  public void consoleReport() {
+    consoleReport.generateReport(products);
+  }
+}
@@ -2,15 +2,21 @@
 
 package proyecto.inventario;
 
+import javax.management.JMException;
+import proyecto.inventario.metrics.InventoryMetrics;
 import proyecto.inventario.report.ConsoleInventoryReport;
 import proyecto.inventario.report.CsvInventoryReport;
+import proyecto.inventario.report.FanOutInventoryReport;
 import proyecto.inventario.report.InventoryReport;
+import proyecto.inventario.report.MeteredInventoryReport;
 
 /**
  * Clase principal que ejecuta operaciones sobre el inventario
  * y genera reportes en consola y CSV.
  */
 public class App {
+  /** Único escucha de consola, para no registrarlo dos veces. */
+  private static final InventoryListener CONSOLE_LISTENER = new ConsoleInventoryListener();
 
   /**
    * Método principal que inicia la aplicación.
@@ -18,6 +24,15 @@ public class App {
    * @param args Argumentos de línea de comandos (no se utilizan)
    */
   public static void main(String[] args) {
+    // Las altas se informan por consola y las métricas se publican por JMX
+    Inventory.getInstance().addListener(CONSOLE_LISTENER);
+    InventoryMetrics metrics = Inventory.getInstance().getMetrics();
+    try {
+      metrics.registerMBean("default");
+    } catch (JMException e) {
+      e.printStackTrace();
+    }
+
     // Solo usamos las operaciones que necesitamos
     InventoryWriter writer = Inventory.getInstance();
     InventoryReader reader = Inventory.getInstance();
@@ -25,14 +40,12 @@ public class App {
     writer.addProduct("Laptop", 5, 999.99);
     writer.addProduct("Monitor", 10, 199.99);
 
-    // Imprimimos por consola
-    InventoryReport consoleReport = new ConsoleInventoryReport();
-    InventoryPrinter printer = new InventoryPrinter(consoleReport, reader);
-    printer.print();
-
-    // Generamos CSV sin modificar nada más
-    InventoryReport csvReport = new CsvInventoryReport("inventario.csv");
-    printer = new InventoryPrinter(csvReport, reader);
+    // Consola y CSV en un solo recorrido del inventario
+    InventoryReport reports = new FanOutInventoryReport(
+        new MeteredInventoryReport(new ConsoleInventoryReport(), metrics.report("console")),
+        new MeteredInventoryReport(new CsvInventoryReport("inventario.csv"),
+            metrics.report("csv")));
+    InventoryPrinter printer = new InventoryPrinter(reports, reader);
     printer.print();
   }
 }
@@ -0,0 +1,151 @@
+package proyecto.inventario;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega los eventos a otro {@link InventoryListener} desde un hilo
+ * propio, en el orden en que ocurrieron, para que un escucha lento (como
+ * uno que escribe en consola o en la red) no frene a los escritores.
+ *
+ * <p>La cola es acotada: si el escucha no da abasto, los escritores
+ * esperan a que haya lugar en vez de acumular memoria sin límite.
+ * {@link #close()} entrega lo pendiente y detiene el hilo.
+ */
+public class AsyncInventoryListener implements InventoryListener, AutoCloseable {
+  private static final Event END = new Event(Kind.UPDATED, null, 0, 0, null);
+
+  private final InventoryListener delegate;
+  private final BlockingQueue<Event> queue;
+  private final Thread dispatcher;
+  private volatile boolean closed;
+
+  /**
+   * Crea el escucha e inicia su hilo.
+   *
+   * @param delegate escucha que recibe los eventos
+   * @param capacity eventos que pueden esperar entrega
+   */
+  public AsyncInventoryListener(InventoryListener delegate, int capacity) {
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.dispatcher = new Thread(this::dispatch, "inventory-listener");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+  }
+
+  @Override
+  public void productAdded(String name, int quantity, double price) {
+    enqueue(new Event(Kind.ADDED, name, quantity, price, null));
+  }
+
+  /** Encola el lote como un solo evento. */
+  @Override
+  public void productsAdded(ProductBatch batch) {
+    enqueue(new Event(Kind.BATCH_ADDED, null, 0, 0, batch));
+  }
+
+  @Override
+  public void productUpdated(String name, int quantity, double price) {
+    enqueue(new Event(Kind.UPDATED, name, quantity, price, null));
+  }
+
+  @Override
+  public void productRemoved(String name, int quantity, double price) {
+    enqueue(new Event(Kind.REMOVED, name, quantity, price, null));
+  }
+
+  /**
+   * Entrega los eventos pendientes y detiene el hilo. Los eventos
+   * posteriores se descartan.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    boolean interrupted = false;
+    while (true) {
+      try {
+        queue.put(END);
+        dispatcher.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void enqueue(Event event) {
+    try {
+      // Con la cola llena se espera, revisando de a ratos si se cerró para
+      // no quedar bloqueado detrás del hilo ya detenido.
+      while (!closed) {
+        if (queue.offer(event, 10, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void dispatch() {
+    while (true) {
+      Event event;
+      try {
+        event = queue.take();
+      } catch (InterruptedException e) {
+        continue;
+      }
+      if (event == END) {
+        return;
+      }
+      try {
+        switch (event.kind) {
+          case ADDED:
+            delegate.productAdded(event.name, event.quantity, event.price);
+            break;
+          case BATCH_ADDED:
+            delegate.productsAdded(event.batch);
+            break;
+          case UPDATED:
+            delegate.productUpdated(event.name, event.quantity, event.price);
+            break;
+          default:
+            delegate.productRemoved(event.name, event.quantity, event.price);
+            break;
+        }
+      } catch (RuntimeException e) {
+        ListenerFailures.report(e);
+      }
+    }
+  }
+
+  /** Tipo de evento. */
+  private enum Kind {
+    ADDED, BATCH_ADDED, UPDATED, REMOVED
+  }
+
+  /** Evento pendiente de entrega. */
+  private static final class Event {
+    private final Kind kind;
+    private final String name;
+    private final int quantity;
+    private final double price;
+    private final ProductBatch batch;
+
+    private Event(Kind kind, String name, int quantity, double price, ProductBatch batch) {
+      this.kind = kind;
+      this.name = name;
+      this.quantity = quantity;
+      this.price = price;
+      this.batch = batch;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package proyecto.inventario;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registro de los productos agregados, modificados o quitados de un
+ * {@link Inventory} desde la última vez que se leyó (ver
+ * {@link Inventory#trackChanges()}). Sirve para exportar sólo lo que
+ * cambió: leerlo cuesta en proporción a los cambios, no al catálogo.
+ *
+ * <p>Cada cambio sólo anota el nombre del producto en un conjunto; varios
+ * cambios del mismo producto entre dos lecturas cuentan como uno.
+ * {@link #drain()} quita cada nombre <em>antes</em> de leer los valores
+ * vigentes del producto, de modo que un cambio concurrente o bien ya está
+ * en lo leído o bien vuelve a anotar el nombre para la próxima lectura:
+ * ninguno se pierde, aunque alguno puede entregarse dos veces. Por eso el
+ * registro no usa una versión global como marca de agua: una escritura que
+ * reserva su versión antes de la exportación pero se publica después
+ * quedaría fuera de ambas.
+ *
+ * <p>Cada consumidor abre su propio registro y lo cierra al terminar. Un
+ * registro recién abierto está vacío; la primera exportación completa se
+ * hace con {@link Inventory#getProducts()}.
+ */
+public final class ChangeTracker implements AutoCloseable {
+  private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+  private final Function<String, Product> lookup;
+  private final ChangeTrackers owner;
+
+  ChangeTracker(Function<String, Product> lookup, ChangeTrackers owner) {
+    this.lookup = lookup;
+    this.owner = owner;
+  }
+
+  /**
+   * Cantidad aproximada de productos con cambios pendientes.
+   *
+   * @return productos anotados
+   */
+  public int pending() {
+    return dirty.size();
+  }
+
+  /**
+   * Entrega y olvida los cambios pendientes, uno por producto, con los
+   * valores que tiene cada uno al leerlo o como baja si ya no existe.
+   *
+   * @return cambios pendientes, sin un orden particular
+   */
+  public List<ProductChange> drain() {
+    List<ProductChange> changes = new ArrayList<>();
+    for (Iterator<String> it = dirty.iterator(); it.hasNext();) {
+      String name = it.next();
+      it.remove();
+      Product product = lookup.apply(name);
+      changes.add(product == null
+          ? ProductChange.removed(name)
+          : ProductChange.present(product.frozenAt(Long.MAX_VALUE)));
+    }
+    return changes;
+  }
+
+  /**
+   * Vuelve a anotar cambios ya entregados, por ejemplo porque no se
+   * pudieron exportar. La próxima lectura los entrega con sus valores de
+   * ese momento.
+   *
+   * @param changes cambios devueltos por {@link #drain()}
+   */
+  public void restore(List<ProductChange> changes) {
+    for (ProductChange change : changes) {
+      dirty.add(change.getName());
+    }
+  }
+
+  /** Deja de registrar cambios. */
+  @Override
+  public void close() {
+    owner.remove(this);
+  }
+
+  void mark(String name) {
+    dirty.add(name);
+  }
+}
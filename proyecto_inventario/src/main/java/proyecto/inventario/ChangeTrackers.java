@@ -0,0 +1,43 @@
+package proyecto.inventario;
+
+import java.util.Arrays;
+
+/**
+ * Registros de cambios abiertos sobre un {@link Inventory}. Cada cambio de
+ * un producto se anota en todos ellos; sin registros abiertos cuesta sólo
+ * revisar un arreglo vacío.
+ */
+final class ChangeTrackers {
+  private final Object lock = new Object();
+  private volatile ChangeTracker[] trackers = new ChangeTracker[0];
+
+  void add(ChangeTracker tracker) {
+    synchronized (lock) {
+      ChangeTracker[] next = Arrays.copyOf(trackers, trackers.length + 1);
+      next[trackers.length] = tracker;
+      trackers = next;
+    }
+  }
+
+  void remove(ChangeTracker tracker) {
+    synchronized (lock) {
+      ChangeTracker[] current = trackers;
+      for (int i = 0; i < current.length; i++) {
+        if (current[i] == tracker) {
+          ChangeTracker[] next = new ChangeTracker[current.length - 1];
+          System.arraycopy(current, 0, next, 0, i);
+          System.arraycopy(current, i + 1, next, i, next.length - i);
+          trackers = next;
+          return;
+        }
+      }
+    }
+  }
+
+  /** Anota que el producto con ese nombre se agregó, cambió o se quitó. */
+  void changed(String name) {
+    for (ChangeTracker tracker : trackers) {
+      tracker.mark(name);
+    }
+  }
+}
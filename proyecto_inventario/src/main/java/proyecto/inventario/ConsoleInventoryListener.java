@@ -0,0 +1,18 @@
+package proyecto.inventario;
+
+/**
+ * Imprime {@code "Product added."} por consola en cada alta, como hacía
+ * {@link Inventory#addProduct} antes de tener escuchas, y una sola línea
+ * por cada alta en lote. No está registrado por defecto.
+ */
+public class ConsoleInventoryListener implements InventoryListener {
+  @Override
+  public void productAdded(String name, int quantity, double price) {
+    System.out.println("Product added.");
+  }
+
+  @Override
+  public void productsAdded(ProductBatch batch) {
+    System.out.println(batch.size() + " products added.");
+  }
+}
@@ -1,18 +1,52 @@
 package proyecto.inventario;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import proyecto.inventario.metrics.InventoryMetrics;
+import proyecto.inventario.metrics.InventoryMetrics.Operation;
+import proyecto.inventario.repository.ConcurrentInventoryRepository;
+import proyecto.inventario.repository.InventoryRepository;
 
 /**
  * Singleton que gestiona internamente los productos.
  * Implementa solo las operaciones de lectura y escritura.
+ *
+ * <p>Puede usarse desde varios hilos a la vez: las cantidades se actualizan
+ * con compare-and-set por producto y las lecturas no bloquean a los
+ * escritores (ver {@link ConcurrentInventoryRepository}).
+ *
+ * <p>El repositorio es siempre un {@link ConcurrentInventoryRepository}: las
+ * instantáneas, los totales, los registros de cambios y los índices
+ * necesitan que el repositorio guarde los mismos {@link Product} que recibe,
+ * con su estado versionado. Los repositorios columnar y fuera del heap
+ * entregan vistas sin ese estado; se usan como almacenes independientes,
+ * no como respaldo de un inventario.
  */
 public class Inventory implements InventoryReader, InventoryWriter {
-  private final List<Product> products = new ArrayList<>();
+  /** Bytes aproximados por producto, sin contar los caracteres del nombre. */
+  private static final long PRODUCT_OVERHEAD_BYTES = 200;
 
-  /** Constructor privado para Singleton. */
-  private Inventory() {
+  private final InventoryRepository repository = new ConcurrentInventoryRepository();
+  private final VersionClock clock = new VersionClock();
+  private final RunningTotals totals = new RunningTotals();
+  private final ChangeTrackers changes = new ChangeTrackers();
+  private final ProductIndexes indexes = new ProductIndexes(repository::findAll);
+  private final NameIndex names = new NameIndex(repository::findAll);
+  private final LongAdder nameChars = new LongAdder();
+  private final InventoryMetrics metrics =
+      new InventoryMetrics(totals::count, this::approximateHeapBytes);
+  private final Object listenersLock = new Object();
+  private volatile InventoryListener[] listeners = new InventoryListener[0];
+
+  /**
+   * Constructor de paquete: fuera de las pruebas se usa siempre
+   * {@link #getInstance()}.
+   */
+  Inventory() {
   }
 
   /**
@@ -24,7 +58,7 @@ public class Inventory implements InventoryReader, InventoryWriter {
 
   /**
    * Obtiene la instancia única del inventario.
-   * 
+   *
    * @return instancia singleton de Inventory
    */
   public static Inventory getInstance() {
@@ -32,25 +66,467 @@ public class Inventory implements InventoryReader, InventoryWriter {
   }
 
   /**
-   * Agrega un producto al inventario.
-   * 
+   * Agrega un producto al inventario. Si ya existe uno con el mismo
+   * nombre se suma la cantidad y se actualiza el precio.
+   *
    * @param name nombre del producto
    * @param quantity cantidad disponible
    * @param price precio unitario
    */
   @Override
   public void addProduct(String name, int quantity, double price) {
-    products.add(new Product(name, quantity, price));
-    System.out.println("Product added.");
+    long start = System.nanoTime();
+    try {
+      Product product = newProduct(name, quantity, price);
+      Product stored = repository.add(product);
+      if (stored == product) {
+        added(product, name, quantity, price);
+        names.added(product);
+      }
+      if (listeners.length > 0) {
+        fire(Event.ADDED, stored);
+      }
+    } finally {
+      metrics.record(Operation.ADD_PRODUCT, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Agrega todos los productos del lote con las reglas de
+   * {@link #addProduct}. El repositorio toma su candado y agranda su
+   * almacenamiento una vez por lote, y los escuchas reciben un único
+   * {@link InventoryListener#productsAdded} con el resultado.
+   *
+   * @param batch productos a agregar
+   */
+  @Override
+  public void addProducts(ProductBatch batch) {
+    long start = System.nanoTime();
+    try {
+      List<Product> products = new ArrayList<>(batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        products.add(newProduct(batch.getName(i), batch.getQuantity(i), batch.getPrice(i)));
+      }
+      List<Product> stored = repository.addAll(products);
+      List<Product> fresh = new ArrayList<>(products.size());
+      for (int i = 0; i < products.size(); i++) {
+        if (stored.get(i) == products.get(i)) {
+          added(products.get(i), batch.getName(i), batch.getQuantity(i), batch.getPrice(i));
+          fresh.add(products.get(i));
+        }
+      }
+      names.addedAll(fresh);
+      if (listeners.length > 0 && !stored.isEmpty()) {
+        fireBatch(ProductBatch.of(stored));
+      }
+    } finally {
+      metrics.record(Operation.ADD_PRODUCTS, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Inserta el producto o reemplaza su cantidad y precio si ya existe.
+   *
+   * @param name nombre del producto
+   * @param quantity cantidad disponible
+   * @param price precio unitario
+   * @return el producto almacenado
+   */
+  @Override
+  public Product upsert(String name, int quantity, double price) {
+    long start = System.nanoTime();
+    try {
+      Product product = newProduct(name, quantity, price);
+      Product stored = repository.upsert(product);
+      if (stored == product) {
+        added(product, name, quantity, price);
+        names.added(product);
+      }
+      if (listeners.length > 0) {
+        fire(stored == product ? Event.ADDED : Event.UPDATED, stored);
+      }
+      return stored;
+    } finally {
+      metrics.record(Operation.UPSERT, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Ajusta la cantidad de un producto existente.
+   *
+   * @param name nombre del producto
+   * @param delta variación de la cantidad
+   * @return la nueva cantidad
+   */
+  @Override
+  public int adjustQuantity(String name, int delta) {
+    long start = System.nanoTime();
+    try {
+      int quantity = repository.adjustQuantity(name, delta);
+      if (listeners.length > 0) {
+        repository.findByName(name).ifPresent(stored -> fire(Event.UPDATED, stored));
+      }
+      return quantity;
+    } finally {
+      metrics.record(Operation.ADJUST_QUANTITY, System.nanoTime() - start);
+    }
   }
 
   /**
-   * Obtiene la lista de productos de forma no modificable.
-   * 
+   * Quita un producto del inventario. Las listas e instantáneas ya
+   * entregadas lo siguen mostrando; cambios posteriores hechos sobre el
+   * objeto quitado ya no afectan al inventario.
+   *
+   * @param name nombre del producto
+   * @return {@code true} si el producto existía
+   */
+  @Override
+  public boolean removeProduct(String name) {
+    long start = System.nanoTime();
+    try {
+      Product removed = repository.remove(name);
+      if (removed == null) {
+        return false;
+      }
+      Product last = removed.detach();
+      names.removed(removed);
+      totals.removed(last.getQuantity(), last.getPrice());
+      nameChars.add(-name.length());
+      changes.changed(name);
+      if (listeners.length > 0) {
+        fire(Event.REMOVED, last);
+      }
+      return true;
+    } finally {
+      metrics.record(Operation.REMOVE_PRODUCT, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Abre un registro de los productos que se agreguen, modifiquen o quiten
+   * desde ahora, incluidos los cambios hechos directamente sobre un
+   * {@link Product} del inventario. Sirve para exportaciones incrementales
+   * como {@link proyecto.inventario.report.CsvInventoryReport#generateDelta}.
+   *
+   * @return registro que debe cerrarse cuando ya no se use
+   */
+  public ChangeTracker trackChanges() {
+    ChangeTracker tracker =
+        new ChangeTracker(name -> repository.findByName(name).orElse(null), changes);
+    changes.add(tracker);
+    return tracker;
+  }
+
+  /**
+   * Registra un escucha de cambios. Registrar dos veces el mismo objeto no
+   * tiene efecto. Sin escuchas, escribir no cuesta más que revisar un
+   * arreglo vacío.
+   *
+   * @param listener escucha a registrar
+   */
+  public void addListener(InventoryListener listener) {
+    synchronized (listenersLock) {
+      for (InventoryListener registered : listeners) {
+        if (registered == listener) {
+          return;
+        }
+      }
+      InventoryListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+      next[listeners.length] = listener;
+      listeners = next;
+    }
+  }
+
+  /**
+   * Quita un escucha registrado con {@link #addListener}.
+   *
+   * @param listener escucha a quitar
+   */
+  public void removeListener(InventoryListener listener) {
+    synchronized (listenersLock) {
+      InventoryListener[] current = listeners;
+      for (int i = 0; i < current.length; i++) {
+        if (current[i] == listener) {
+          InventoryListener[] next = new InventoryListener[current.length - 1];
+          System.arraycopy(current, 0, next, 0, i);
+          System.arraycopy(current, i + 1, next, i, next.length - i);
+          listeners = next;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Busca un producto por nombre en O(1).
+   *
+   * @param name nombre del producto
+   * @return el producto, si existe
+   */
+  @Override
+  public Optional<Product> findByName(String name) {
+    long start = System.nanoTime();
+    try {
+      return repository.findByName(name);
+    } finally {
+      metrics.record(Operation.FIND_BY_NAME, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Obtiene la lista de productos de forma no modificable. Se puede
+   * recorrer mientras otros hilos agregan productos.
+   *
    * @return lista inmutable de productos
    */
   @Override
   public List<Product> getProducts() {
-    return Collections.unmodifiableList(products);
+    long start = System.nanoTime();
+    try {
+      return repository.findAll();
+    } finally {
+      metrics.record(Operation.GET_PRODUCTS, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Productos con cantidad entre {@code min} y {@code max}, inclusive,
+   * ordenados por cantidad y nombre, en O(log n + k) con un índice ordenado.
+   * La primera consulta por rango construye los índices; desde entonces
+   * cada escritura los mantiene.
+   *
+   * @param min cantidad mínima
+   * @param max cantidad máxima
+   * @return productos en el rango
+   */
+  @Override
+  public List<Product> findByQuantity(int min, int max) {
+    long start = System.nanoTime();
+    try {
+      return indexes.byQuantity(min, max);
+    } finally {
+      metrics.record(Operation.FIND_BY_RANGE, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Productos con precio entre {@code min} y {@code max}, inclusive,
+   * ordenados por precio y nombre, en O(log n + k) con un índice ordenado.
+   *
+   * @param min precio mínimo
+   * @param max precio máximo
+   * @return productos en el rango
+   */
+  @Override
+  public List<Product> findByPrice(double min, double max) {
+    long start = System.nanoTime();
+    try {
+      return indexes.byPrice(min, max);
+    } finally {
+      metrics.record(Operation.FIND_BY_RANGE, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Productos cuyo nombre empieza con {@code prefix}, sin distinguir
+   * mayúsculas, en orden alfabético y de a {@code limit} por página. Pensado
+   * para autocompletar: cuesta O(log n + limit) sobre un índice ordenado que
+   * la primera búsqueda construye y cada alta o baja mantiene.
+   *
+   * @param prefix comienzo del nombre
+   * @param limit máximo de productos de la página
+   * @return primera página de resultados
+   */
+  public SearchPage searchByPrefix(String prefix, int limit) {
+    return searchByPrefix(prefix, limit, null);
+  }
+
+  /**
+   * Continúa una búsqueda por prefijo.
+   *
+   * @param prefix comienzo del nombre, el mismo de la página anterior
+   * @param limit máximo de productos de la página
+   * @param cursor {@link SearchPage#getNextCursor()} de la página anterior,
+   *     o {@code null} para empezar
+   * @return página de resultados
+   */
+  public SearchPage searchByPrefix(String prefix, int limit, String cursor) {
+    checkLimit(limit);
+    long start = System.nanoTime();
+    try {
+      return names.byPrefix(prefix, limit, cursor);
+    } finally {
+      metrics.record(Operation.SEARCH_NAME, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Productos cuyo nombre contiene {@code text}, sin distinguir mayúsculas,
+   * en orden de alta y de a {@code limit} por página. Con tres o más
+   * caracteres usa un índice de trigramas y sólo verifica los candidatos
+   * del trigrama menos frecuente; con menos recorre el catálogo hasta
+   * llenar la página.
+   *
+   * @param text parte del nombre
+   * @param limit máximo de productos de la página
+   * @return primera página de resultados
+   */
+  public SearchPage searchBySubstring(String text, int limit) {
+    return searchBySubstring(text, limit, null);
+  }
+
+  /**
+   * Continúa una búsqueda por subcadena.
+   *
+   * @param text parte del nombre, la misma de la página anterior
+   * @param limit máximo de productos de la página
+   * @param cursor {@link SearchPage#getNextCursor()} de la página anterior,
+   *     o {@code null} para empezar
+   * @return página de resultados
+   * @throws IllegalArgumentException si el cursor no salió de esta búsqueda
+   *     o vence porque el índice se reconstruyó dos veces desde entonces
+   */
+  public SearchPage searchBySubstring(String text, int limit, String cursor) {
+    checkLimit(limit);
+    long start = System.nanoTime();
+    try {
+      return names.bySubstring(text, limit, cursor);
+    } finally {
+      metrics.record(Operation.SEARCH_NAME, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Abre una instantánea consistente del inventario. Los escritores no se
+   * bloquean mientras está abierta y sólo los productos que cambien en ese
+   * lapso retienen su estado anterior.
+   *
+   * @return instantánea que debe cerrarse al terminar de leerla
+   */
+  @Override
+  public InventorySnapshot snapshot() {
+    // Primero la lista: todo producto publicado antes de fijar la versión
+    // tiene su estado inicial visible en ella.
+    long start = System.nanoTime();
+    List<Product> products = repository.findAll();
+    long version = clock.pin();
+    metrics.record(Operation.SNAPSHOT, System.nanoTime() - start);
+    return new InventorySnapshot(products, version, clock);
+  }
+
+  /**
+   * Métricas de este inventario: latencia de cada operación, reportes
+   * medidos con {@link proyecto.inventario.report.MeteredInventoryReport} y
+   * tamaño del catálogo.
+   *
+   * @return métricas del inventario
+   */
+  public InventoryMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Cantidad de productos, mantenida al agregarlos.
+   *
+   * @return productos en el inventario
+   */
+  @Override
+  public long productCount() {
+    return totals.count();
+  }
+
+  /**
+   * Total de unidades en O(1), mantenido en cada cambio de cantidad.
+   *
+   * @return unidades en existencia
+   */
+  @Override
+  public long totalUnits() {
+    return totals.units();
+  }
+
+  /**
+   * Valor total exacto en O(1), mantenido en cada cambio de cantidad o
+   * precio.
+   *
+   * @return suma de cantidad por precio
+   */
+  @Override
+  public BigDecimal totalValue() {
+    return totals.value();
+  }
+
+  /**
+   * Informa un cambio ya aplicado. Un escucha que falla no deshace la
+   * escritura ni impide avisar a los demás.
+   */
+  private void fire(Event event, Product product) {
+    String name = product.getName();
+    int quantity = product.getQuantity();
+    double price = product.getPrice();
+    for (InventoryListener listener : listeners) {
+      try {
+        if (event == Event.ADDED) {
+          listener.productAdded(name, quantity, price);
+        } else if (event == Event.UPDATED) {
+          listener.productUpdated(name, quantity, price);
+        } else {
+          listener.productRemoved(name, quantity, price);
+        }
+      } catch (RuntimeException e) {
+        ListenerFailures.report(e);
+      }
+    }
+  }
+
+  /**
+   * Informa un alta en lote ya aplicada, con el mismo aislamiento que
+   * {@link #fire}.
+   */
+  private void fireBatch(ProductBatch batch) {
+    for (InventoryListener listener : listeners) {
+      try {
+        listener.productsAdded(batch);
+      } catch (RuntimeException e) {
+        ListenerFailures.report(e);
+      }
+    }
+  }
+
+  /**
+   * Estimación de la memoria del catálogo: objetos del producto, su
+   * estado, su nombre y su entrada en el repositorio, más un byte por
+   * carácter del nombre (cadenas compactas Latin-1).
+   */
+  private long approximateHeapBytes() {
+    return totals.count() * PRODUCT_OVERHEAD_BYTES + nameChars.sum();
+  }
+
+  /**
+   * Suma a los totales un producto recién publicado, con sus valores
+   * iniciales, y lo anota en los registros de cambios y en los índices.
+   */
+  private void added(Product product, String name, int quantity, double price) {
+    totals.added(quantity, price);
+    nameChars.add(name.length());
+    changes.changed(name);
+    product.indexTo(indexes);
+  }
+
+  private static void checkLimit(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be >= 1");
+    }
+  }
+
+  private Product newProduct(String name, int quantity, double price) {
+    Product product = new Product(name, quantity, price);
+    product.attach(clock, totals, changes, indexes);
+    return product;
+  }
+
+  /** Tipo de cambio que se informa a los escuchas. */
+  private enum Event {
+    ADDED, UPDATED, REMOVED
   }
 }
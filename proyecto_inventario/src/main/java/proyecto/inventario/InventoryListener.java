@@ -0,0 +1,63 @@
+package proyecto.inventario;
+
+/**
+ * Recibe los cambios hechos a través de las operaciones de
+ * {@link InventoryWriter} y de {@link Inventory#removeProduct} de un
+ * {@link Inventory} (ver {@link Inventory#addListener}).
+ *
+ * <p>Se invoca en el hilo que escribe, después de aplicar el cambio, con
+ * los valores que quedaron en el producto; debe ser rápido y no bloquear.
+ * Para trabajo lento se envuelve en un {@link AsyncInventoryListener}.
+ * Los cambios hechos directamente sobre un {@link Product} no se informan.
+ *
+ * <p>Una excepción del escucha no afecta a la escritura ni a los demás
+ * escuchas; se entrega al {@link Thread.UncaughtExceptionHandler} del hilo
+ * que lo invocó.
+ */
+public interface InventoryListener {
+  /**
+   * Alta: {@code addProduct} creó el producto o sumó a su cantidad, o
+   * {@code upsert} lo creó.
+   *
+   * @param name nombre del producto
+   * @param quantity cantidad después del alta
+   * @param price precio después del alta
+   */
+  default void productAdded(String name, int quantity, double price) {
+  }
+
+  /**
+   * Alta en lote: {@code addProducts} agregó o fusionó todos los productos
+   * del lote. Se informa una vez por lote, con una fila por cada fila del
+   * lote original y los valores que quedaron en su producto. La
+   * implementación por defecto llama a {@link #productAdded} por cada fila.
+   *
+   * @param batch productos después del alta; no debe modificarse
+   */
+  default void productsAdded(ProductBatch batch) {
+    for (int i = 0; i < batch.size(); i++) {
+      productAdded(batch.getName(i), batch.getQuantity(i), batch.getPrice(i));
+    }
+  }
+
+  /**
+   * Modificación: {@code upsert} reemplazó un producto existente o
+   * {@code adjustQuantity} cambió su cantidad.
+   *
+   * @param name nombre del producto
+   * @param quantity cantidad después del cambio
+   * @param price precio después del cambio
+   */
+  default void productUpdated(String name, int quantity, double price) {
+  }
+
+  /**
+   * Baja: {@code removeProduct} quitó el producto.
+   *
+   * @param name nombre del producto
+   * @param quantity última cantidad del producto
+   * @param price último precio del producto
+   */
+  default void productRemoved(String name, int quantity, double price) {
+  }
+}
@@ -1,6 +1,11 @@
 package proyecto.inventario;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import proyecto.inventario.report.InventoryReport;
 
 /**
@@ -10,15 +15,99 @@ import proyecto.inventario.report.InventoryReport;
 public class InventoryPrinter {
   private final InventoryReport report;
   private final InventoryReader reader;
+  private final ReportExecutor executor;
 
   public InventoryPrinter(InventoryReport report, InventoryReader reader) {
+    this(report, reader, ReportExecutor.shared());
+  }
+
+  /**
+   * Crea una impresora cuyos reportes asíncronos corren en
+   * {@code executor}.
+   *
+   * @param report reporte a generar
+   * @param reader inventario a leer
+   * @param executor ejecutor que limita los reportes simultáneos
+   */
+  public InventoryPrinter(InventoryReport report, InventoryReader reader,
+      ReportExecutor executor) {
     this.report = report;
     this.reader = reader;
+    this.executor = executor;
   }
 
+  /**
+   * Genera el reporte sobre una instantánea del inventario, de modo que un
+   * reporte largo ve un estado consistente sin frenar a los escritores.
+   */
   public void print() {
-    List<Product> products = reader.getProducts();
-    report.generateReport(products);
+    try (InventorySnapshot snapshot = reader.snapshot()) {
+      report.generateReport(snapshot.getProducts());
+    }
     System.out.println("Generating inventory rt...");
   }
+
+  /**
+   * Genera el reporte en el ejecutor de la impresora, sin ocupar el hilo
+   * que lo pide. La instantánea se toma cuando el reporte empieza a correr.
+   *
+   * <p>Cancelar el futuro interrumpe el reporte: la lista que recibe deja
+   * de entregar productos y lanza {@link CancellationException}, así que
+   * también se detienen los reportes que no revisan la interrupción.
+   *
+   * @return futuro que se completa al terminar el reporte
+   */
+  public CompletableFuture<Void> printAsync() {
+    return executor.submit(() -> {
+      try (InventorySnapshot snapshot = reader.snapshot()) {
+        report.generateReport(new Interruptible(snapshot.getProducts()));
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new CancellationException("Report interrupted");
+      }
+      System.out.println("Generating inventory rt...");
+    });
+  }
+
+  /**
+   * Como {@link #printAsync()}, pero cancela el reporte si no termina en
+   * el plazo dado; el futuro se completa entonces con
+   * {@link java.util.concurrent.TimeoutException}.
+   *
+   * @param timeout plazo máximo, contado desde ahora
+   * @param unit unidad del plazo
+   * @return futuro que se completa al terminar el reporte
+   */
+  public CompletableFuture<Void> printAsync(long timeout, TimeUnit unit) {
+    return printAsync().orTimeout(timeout, unit);
+  }
+
+  /**
+   * Lista que deja de entregar productos cuando se interrumpe el hilo que
+   * genera el reporte.
+   */
+  private static final class Interruptible extends AbstractList<Product>
+      implements RandomAccess {
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final List<Product> products;
+    private int reads;
+
+    private Interruptible(List<Product> products) {
+      this.products = products;
+    }
+
+    @Override
+    public Product get(int index) {
+      if ((reads++ & (CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+        throw new CancellationException("Report interrupted");
+      }
+      return products.get(index);
+    }
+
+    @Override
+    public int size() {
+      return products.size();
+    }
+  }
 }
@@ -1,7 +1,121 @@
 package proyecto.inventario;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 public interface InventoryReader {
   List<Product> getProducts();
-}
\ No newline at end of file
+
+  /**
+   * Busca un producto por nombre. La implementación por defecto recorre
+   * {@link #getProducts()}; {@link Inventory} la resuelve con un índice hash.
+   *
+   * @param name nombre del producto
+   * @return el producto, si existe
+   */
+  default Optional<Product> findByName(String name) {
+    for (Product p : getProducts()) {
+      if (p.getName().equals(name)) {
+        return Optional.of(p);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Productos con cantidad entre {@code min} y {@code max}, inclusive,
+   * ordenados por cantidad y nombre. La implementación por defecto recorre
+   * {@link #getProducts()}; {@link Inventory} usa un índice ordenado.
+   *
+   * @param min cantidad mínima
+   * @param max cantidad máxima
+   * @return productos en el rango
+   */
+  default List<Product> findByQuantity(int min, int max) {
+    List<Product> result = new ArrayList<>();
+    for (Product p : getProducts()) {
+      if (p.getQuantity() >= min && p.getQuantity() <= max) {
+        result.add(p);
+      }
+    }
+    result.sort(Comparator.comparingInt(Product::getQuantity).thenComparing(Product::getName));
+    return result;
+  }
+
+  /**
+   * Productos con precio entre {@code min} y {@code max}, inclusive,
+   * ordenados por precio y nombre. La implementación por defecto recorre
+   * {@link #getProducts()}; {@link Inventory} usa un índice ordenado.
+   *
+   * @param min precio mínimo
+   * @param max precio máximo
+   * @return productos en el rango
+   */
+  default List<Product> findByPrice(double min, double max) {
+    List<Product> result = new ArrayList<>();
+    for (Product p : getProducts()) {
+      if (p.getPrice() >= min && p.getPrice() <= max) {
+        result.add(p);
+      }
+    }
+    result.sort(Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getName));
+    return result;
+  }
+
+  /**
+   * Productos con existencia baja: cantidad menor que {@code threshold},
+   * con el mismo criterio que {@link #stats(int)}, de menor a mayor.
+   *
+   * @param threshold cantidad a partir de la cual la existencia no es baja
+   * @return productos con existencia baja
+   */
+  default List<Product> findLowStock(int threshold) {
+    if (threshold == Integer.MIN_VALUE) {
+      return new ArrayList<>();
+    }
+    return findByQuantity(Integer.MIN_VALUE, threshold - 1);
+  }
+
+  /**
+   * Abre una vista de los productos en un punto fijo del tiempo. La
+   * implementación por defecto envuelve {@link #getProducts()} sin aislarla
+   * de escrituras posteriores.
+   *
+   * @return instantánea que debe cerrarse al terminar de leerla
+   */
+  default InventorySnapshot snapshot() {
+    return InventorySnapshot.of(getProducts());
+  }
+
+  /**
+   * Calcula en una pasada, en paralelo para catálogos grandes, todas las
+   * agregaciones del catálogo (ver {@link InventoryStats}).
+   *
+   * @param lowStockThreshold los productos con cantidad menor cuentan como
+   *     existencia baja
+   * @return agregaciones del catálogo
+   */
+  default InventoryStats stats(int lowStockThreshold) {
+    return InventoryStats.of(getProducts(), lowStockThreshold);
+  }
+
+  default long productCount() {
+    return getProducts().size();
+  }
+
+  default long totalUnits() {
+    return stats(0).getTotalUnits();
+  }
+
+  /**
+   * Suma exacta de cantidad por precio de todos los productos.
+   *
+   * @return valor total del catálogo
+   */
+  default BigDecimal totalValue() {
+    return stats(0).getTotalValue();
+  }
+}
@@ -0,0 +1,85 @@
+package proyecto.inventario;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vista de los productos en un punto fijo del tiempo.
+ *
+ * <p>La instantánea no copia el catálogo: comparte la lista de productos
+ * publicada al abrirse y, al leer cada posición, entrega una copia con los
+ * valores vigentes en su versión. Los escritores siguen trabajando sin
+ * esperar; sólo los productos modificados mientras está abierta conservan
+ * estados anteriores. Debe cerrarse para liberar esa historia.
+ */
+public class InventorySnapshot implements AutoCloseable {
+  private final List<Product> products;
+  private final long version;
+  private final VersionClock clock;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  InventorySnapshot(List<Product> products, long version, VersionClock clock) {
+    this.products = products;
+    this.version = version;
+    this.clock = clock;
+  }
+
+  /**
+   * Envuelve una lista sin control de versiones; cerrar no hace nada.
+   * Es la instantánea por defecto de los lectores que no versionan.
+   *
+   * @param products productos a exponer
+   * @return instantánea sobre la lista dada
+   */
+  public static InventorySnapshot of(List<Product> products) {
+    return new InventorySnapshot(products, 0, null);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Devuelve los productos tal como estaban al abrir la instantánea.
+   *
+   * @return lista inmutable de productos
+   */
+  public List<Product> getProducts() {
+    if (clock == null) {
+      return products;
+    }
+    return new FrozenProducts(products, version);
+  }
+
+  /** Libera la versión fijada; se puede llamar más de una vez. */
+  @Override
+  public void close() {
+    if (clock != null && closed.compareAndSet(false, true)) {
+      clock.unpin(version);
+    }
+  }
+
+  /** Lista que materializa cada producto con los valores de su versión. */
+  private static final class FrozenProducts extends AbstractList<Product>
+      implements RandomAccess {
+    private final List<Product> products;
+    private final long version;
+
+    private FrozenProducts(List<Product> products, long version) {
+      this.products = products;
+      this.version = version;
+    }
+
+    @Override
+    public Product get(int index) {
+      return products.get(index).frozenAt(version);
+    }
+
+    @Override
+    public int size() {
+      return products.size();
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package proyecto.inventario;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Resultado inmutable de las agregaciones de un catálogo: cantidad de
+ * productos, unidades, valor total, precio mínimo y máximo, y productos con
+ * existencia baja.
+ *
+ * <p>El valor total es exacto: cada precio cuenta como el decimal que
+ * representa (el más corto que lo identifica, {@code 25.5} y no
+ * {@code 25.499999...}) y la suma se hace sin redondeos. Los precios con
+ * centavos exactos, que son casi todos, se acumulan como {@code long} y
+ * sólo el resto pasa por {@link BigDecimal}.
+ */
+public final class InventoryStats {
+  /** A partir de este tamaño la agregación se reparte en el fork-join común. */
+  static final int PARALLEL_THRESHOLD = 10_000;
+  /**
+   * Cota de los centavos que se suman como {@code long}: 2^53, es decir
+   * precios de hasta 2^53 / 100. Por debajo, todo entero de centavos es un
+   * double exacto y cada uno tiene su propio double más cercano al dividir
+   * por 100; los precios mayores van por {@link BigDecimal}.
+   */
+  private static final long MAX_EXACT_CENTS = 1L << 53;
+  /**
+   * Marca de {@link #valueInCents} para los valores que no son centavos
+   * exactos.
+   */
+  static final long NOT_CENTS = Long.MIN_VALUE;
+
+  private final long count;
+  private final long totalUnits;
+  private final BigDecimal totalValue;
+  private final double minPrice;
+  private final double maxPrice;
+  private final int lowStockThreshold;
+  private final long lowStockCount;
+
+  private InventoryStats(Accumulator a) {
+    this.count = a.count;
+    this.totalUnits = a.units;
+    this.totalValue = BigDecimal.valueOf(a.cents, 2).add(a.rest);
+    this.minPrice = a.minPrice;
+    this.maxPrice = a.maxPrice;
+    this.lowStockThreshold = a.threshold;
+    this.lowStockCount = a.lowStock;
+  }
+
+  /**
+   * Agrega los productos de la lista en una sola pasada, en paralelo si la
+   * lista es grande. Cada producto se lee una vez; si otros hilos escriben
+   * mientras tanto, el resultado puede mezclar valores anteriores y
+   * posteriores. Para un resultado en un punto fijo del tiempo se puede
+   * pasar la lista de una {@link InventorySnapshot}.
+   *
+   * @param products productos a agregar
+   * @param lowStockThreshold los productos con cantidad menor cuentan como
+   *     existencia baja
+   * @return agregaciones de la lista
+   * @throws ArithmeticException si algún precio es infinito o NaN
+   */
+  public static InventoryStats of(List<Product> products, int lowStockThreshold) {
+    Stream<Product> stream = products.size() >= PARALLEL_THRESHOLD
+        ? products.parallelStream()
+        : products.stream();
+    return stream.collect(Collector.of(
+        () -> new Accumulator(lowStockThreshold),
+        Accumulator::accept,
+        Accumulator::combine,
+        InventoryStats::new));
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalUnits() {
+    return totalUnits;
+  }
+
+  /**
+   * Suma exacta de cantidad por precio.
+   *
+   * @return valor total del catálogo
+   */
+  public BigDecimal getTotalValue() {
+    return totalValue;
+  }
+
+  public OptionalDouble getMinPrice() {
+    return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(minPrice);
+  }
+
+  public OptionalDouble getMaxPrice() {
+    return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(maxPrice);
+  }
+
+  public int getLowStockThreshold() {
+    return lowStockThreshold;
+  }
+
+  /**
+   * Cantidad de productos con menos unidades que el umbral pedido.
+   *
+   * @return productos con existencia baja
+   */
+  public long getLowStockCount() {
+    return lowStockCount;
+  }
+
+  /**
+   * Valor de {@code quantity * price} en centavos, o {@link #NOT_CENTS} si
+   * el precio no es una cantidad exacta de centavos o el resultado no cabe
+   * en un {@code long}. En ese caso hay que usar {@link #value}.
+   */
+  static long valueInCents(int quantity, double price) {
+    double scaled = price * 100;
+    if (!(Math.abs(scaled) < MAX_EXACT_CENTS)) {
+      return NOT_CENTS;
+    }
+    long cents = Math.round(scaled);
+    if (cents / 100.0 != price) {
+      return NOT_CENTS;
+    }
+    long value = quantity * cents;
+    // El producto cabe en un long si la parte alta es sólo signo.
+    return Math.multiplyHigh(quantity, cents) == value >> 63 ? value : NOT_CENTS;
+  }
+
+  /**
+   * Valor decimal exacto de {@code quantity * price}.
+   *
+   * @throws ArithmeticException si el precio es infinito o NaN
+   */
+  static BigDecimal value(int quantity, double price) {
+    if (!Double.isFinite(price)) {
+      throw new ArithmeticException("Price is not a finite number: " + price);
+    }
+    return BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantity));
+  }
+
+  /** Acumulador mutable de un tramo de la lista. */
+  private static final class Accumulator {
+    private final int threshold;
+    private long count;
+    private long units;
+    private long cents;
+    private BigDecimal rest = BigDecimal.ZERO;
+    private double minPrice = Double.POSITIVE_INFINITY;
+    private double maxPrice = Double.NEGATIVE_INFINITY;
+    private long lowStock;
+
+    private Accumulator(int threshold) {
+      this.threshold = threshold;
+    }
+
+    private void accept(Product product) {
+      int quantity = product.getQuantity();
+      final double price = product.getPrice();
+      count++;
+      units += quantity;
+      if (quantity < threshold) {
+        lowStock++;
+      }
+      minPrice = Math.min(minPrice, price);
+      maxPrice = Math.max(maxPrice, price);
+      long value = valueInCents(quantity, price);
+      if (value != NOT_CENTS) {
+        long sum = cents + value;
+        if (((cents ^ sum) & (value ^ sum)) >= 0) {
+          cents = sum;
+          return;
+        }
+      }
+      rest = rest.add(value(quantity, price));
+    }
+
+    private Accumulator combine(Accumulator other) {
+      count += other.count;
+      units += other.units;
+      lowStock += other.lowStock;
+      minPrice = Math.min(minPrice, other.minPrice);
+      maxPrice = Math.max(maxPrice, other.maxPrice);
+      long sum = cents + other.cents;
+      if (((cents ^ sum) & (other.cents ^ sum)) >= 0) {
+        cents = sum;
+      } else {
+        rest = rest.add(BigDecimal.valueOf(other.cents, 2));
+      }
+      rest = rest.add(other.rest);
+      return this;
+    }
+  }
+}
@@ -1,5 +1,31 @@
 package proyecto.inventario;
 
 public interface InventoryWriter {
-  void addProduct(String name, int quantity, double price);    
+  void addProduct(String name, int quantity, double price);
+
+  /**
+   * Agrega todos los productos del lote, en orden, con las mismas reglas
+   * que {@link #addProduct}. La implementación por defecto llama a
+   * {@code addProduct} por cada uno; las que pueden repartir el costo fijo
+   * de una escritura entre todo el lote la redefinen.
+   *
+   * @param batch productos a agregar
+   */
+  default void addProducts(ProductBatch batch) {
+    for (int i = 0; i < batch.size(); i++) {
+      addProduct(batch.getName(i), batch.getQuantity(i), batch.getPrice(i));
+    }
+  }
+
+  Product upsert(String name, int quantity, double price);
+
+  int adjustQuantity(String name, int delta);
+
+  /**
+   * Quita un producto del inventario.
+   *
+   * @param name nombre del producto
+   * @return {@code true} si el producto existía
+   */
+  boolean removeProduct(String name);
 }
@@ -0,0 +1,19 @@
+package proyecto.inventario;
+
+/**
+ * Punto único donde se informan las excepciones de los
+ * {@link InventoryListener}. Un escucha que falla no interrumpe la
+ * escritura ni a los demás escuchas: su excepción se entrega al
+ * {@link Thread.UncaughtExceptionHandler} del hilo que lo invocó, que por
+ * defecto es el de {@link Thread#setDefaultUncaughtExceptionHandler} o, si
+ * no hay ninguno, el que la imprime en la salida de error.
+ */
+final class ListenerFailures {
+  private ListenerFailures() {
+  }
+
+  static void report(RuntimeException e) {
+    Thread thread = Thread.currentThread();
+    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+  }
+}
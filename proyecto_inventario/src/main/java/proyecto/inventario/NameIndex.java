@@ -0,0 +1,373 @@
+package proyecto.inventario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Índice de búsqueda por nombre de un {@link Inventory}, sin distinguir
+ * mayúsculas de minúsculas.
+ *
+ * <p>Los prefijos se resuelven en O(log n + k) sobre un
+ * {@link ConcurrentSkipListMap} ordenado por nombre. Las subcadenas de
+ * tres o más caracteres usan un índice de trigramas: cada producto recibe
+ * un ordinal y cada trigrama de su nombre guarda la lista creciente de
+ * ordinales que lo contienen; la búsqueda recorre la lista más corta de
+ * los trigramas pedidos y verifica cada candidato. Las subcadenas más
+ * cortas recorren los productos por ordinal hasta llenar la página.
+ *
+ * <p>El nombre de un producto no cambia, así que el índice sólo se
+ * actualiza en altas y bajas. Las altas se anotan bajo un candado (una
+ * vez por lote con {@link #addedAll}); las búsquedas no bloquean. El
+ * índice se construye con un recorrido la primera vez que se consulta.
+ *
+ * <p>Una baja sale del índice de prefijos pero deja su ordinal vacío en
+ * las listas de trigramas. Cuando los ordinales vacíos superan a los
+ * vivos (y son al menos {@link #MIN_DEAD}), el índice de subcadenas se
+ * reconstruye con los productos vivos en el mismo orden y se publica
+ * entero; las búsquedas en curso terminan sobre el anterior. Así la
+ * memoria y el costo de una búsqueda quedan en a lo sumo el doble de los
+ * de un índice recién construido, y cada baja paga la reconstrucción en
+ * O(1) amortizado, aunque la que la dispara retiene el candado de altas
+ * mientras dura. Un cursor de subcadena de la generación anterior se
+ * traduce al nuevo orden; uno más viejo se rechaza.
+ */
+final class NameIndex {
+  /** Ordinales vacíos por debajo de los cuales nunca se reconstruye. */
+  static final int MIN_DEAD = 4096;
+
+  private static final char SEPARATOR = '\0';
+
+  private final ConcurrentSkipListMap<String, Product> byName = new ConcurrentSkipListMap<>();
+  private final Supplier<List<Product>> products;
+  private final Object lock = new Object();
+  private volatile Generation current = new Generation(0, null);
+  private long serial;
+  private volatile boolean tracking;
+  private volatile boolean ready;
+
+  /**
+   * Crea el índice, todavía sin construir.
+   *
+   * @param products catálogo a recorrer al construirlo
+   */
+  NameIndex(Supplier<List<Product>> products) {
+    this.products = products;
+  }
+
+  /** Anota un producto recién publicado. */
+  void added(Product product) {
+    if (tracking) {
+      synchronized (lock) {
+        index(product);
+      }
+    }
+  }
+
+  /** Anota los productos recién publicados de un lote con una sola toma del candado. */
+  void addedAll(List<Product> added) {
+    if (tracking && !added.isEmpty()) {
+      synchronized (lock) {
+        for (Product product : added) {
+          index(product);
+        }
+      }
+    }
+  }
+
+  /** Quita un producto que salió del inventario. */
+  void removed(Product product) {
+    if (tracking) {
+      synchronized (lock) {
+        Generation generation = current;
+        Slot slot = generation.slots.get(product.getName());
+        if (slot != null && generation.byOrdinal[slot.ordinal] == product) {
+          byName.remove(slot.key, product);
+          generation.byOrdinal[slot.ordinal] = null;
+          generation.slots.remove(product.getName());
+          generation.dead++;
+          if (generation.dead >= MIN_DEAD && generation.dead > generation.count - generation.dead) {
+            current = compact(generation);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Productos cuyo nombre empieza con {@code prefix}, en orden alfabético.
+   * El cursor es la clave del último producto devuelto sin su número de
+   * alta, así que sigue valiendo aunque ese producto salga y vuelva.
+   *
+   * @param cursor cursor de la página anterior, o {@code null}
+   */
+  SearchPage byPrefix(String prefix, int limit, String cursor) {
+    build();
+    String from = lower(prefix);
+    ConcurrentNavigableMap<String, Product> tail = cursor == null
+        ? byName.tailMap(from, true)
+        : byName.tailMap(cursor + SEPARATOR + Character.MAX_VALUE, false);
+    List<Product> page = new ArrayList<>(Math.min(limit, 64));
+    String last = null;
+    for (Map.Entry<String, Product> entry : tail.entrySet()) {
+      if (!entry.getKey().startsWith(from)) {
+        break;
+      }
+      Product product = entry.getValue();
+      if (!product.isAttached()) {
+        byName.remove(entry.getKey(), product);
+        continue;
+      }
+      if (page.size() == limit) {
+        return new SearchPage(Collections.unmodifiableList(page), last);
+      }
+      page.add(product);
+      last = entry.getKey().substring(0, entry.getKey().lastIndexOf(SEPARATOR));
+    }
+    return new SearchPage(Collections.unmodifiableList(page), null);
+  }
+
+  /**
+   * Productos cuyo nombre contiene {@code text}, en orden de alta.
+   *
+   * @param cursor cursor de la página anterior, o {@code null}
+   * @throws IllegalArgumentException si el cursor no es válido o es de
+   *     antes de la última reconstrucción
+   */
+  SearchPage bySubstring(String text, int limit, String cursor) {
+    build();
+    String needle = lower(text);
+    Generation generation = current;
+    int after = cursor == null ? -1 : generation.resume(cursor);
+    List<Product> page = new ArrayList<>(Math.min(limit, 64));
+    if (needle.length() < 3) {
+      return scan(generation, needle, limit, after, page);
+    }
+    Postings shortest = null;
+    for (int i = 0; i + 3 <= needle.length(); i++) {
+      Postings postings = generation.trigrams.get(trigram(needle, i));
+      if (postings == null) {
+        return new SearchPage(Collections.emptyList(), null);
+      }
+      if (shortest == null || postings.size < shortest.size) {
+        shortest = postings;
+      }
+    }
+    int size = shortest.size;
+    int[] ids = shortest.ids;
+    Product[] all = generation.byOrdinal;
+    int start = Arrays.binarySearch(ids, 0, size, after + 1);
+    for (int i = start < 0 ? -start - 1 : start; i < size; i++) {
+      int id = ids[i];
+      Product product = all[id];
+      if (product != null && product.isAttached() && lower(product.getName()).contains(needle)) {
+        if (page.size() == limit) {
+          return new SearchPage(Collections.unmodifiableList(page), generation.cursor(id - 1));
+        }
+        page.add(product);
+      }
+    }
+    return new SearchPage(Collections.unmodifiableList(page), null);
+  }
+
+  /** Subcadenas cortas: recorre los productos por ordinal. */
+  private static SearchPage scan(Generation generation, String needle, int limit, int after,
+      List<Product> page) {
+    int total = generation.count;
+    Product[] all = generation.byOrdinal;
+    for (int id = after + 1; id < total; id++) {
+      Product product = all[id];
+      if (product != null && product.isAttached() && lower(product.getName()).contains(needle)) {
+        if (page.size() == limit) {
+          return new SearchPage(Collections.unmodifiableList(page), generation.cursor(id - 1));
+        }
+        page.add(product);
+      }
+    }
+    return new SearchPage(Collections.unmodifiableList(page), null);
+  }
+
+  /**
+   * Construye el índice la primera vez. Como en {@link ProductIndexes},
+   * las altas empiezan a anotarse antes del recorrido; las que se anotan
+   * dos veces se descartan en {@link #index}.
+   */
+  private void build() {
+    if (ready) {
+      return;
+    }
+    synchronized (lock) {
+      if (ready) {
+        return;
+      }
+      tracking = true;
+      for (Product product : products.get()) {
+        index(product);
+      }
+      ready = true;
+    }
+  }
+
+  /** Anota un producto; se llama con el candado tomado. */
+  private void index(Product product) {
+    String name = product.getName();
+    Generation generation = current;
+    Slot existing = generation.slots.get(name);
+    if (existing != null && generation.byOrdinal[existing.ordinal] == product
+        || !product.isAttached()) {
+      return;
+    }
+    if (existing != null) {
+      // El anterior con este nombre ya salió aunque su baja no llegó.
+      generation.byOrdinal[existing.ordinal] = null;
+      generation.dead++;
+    }
+    String key = key(name, serial++);
+    generation.append(product, key);
+    byName.put(key, product);
+  }
+
+  /**
+   * Reconstruye el índice de subcadenas con los productos vivos de
+   * {@code old}, en el mismo orden; se llama con el candado tomado.
+   */
+  private static Generation compact(Generation old) {
+    int[] previous = new int[old.count - old.dead];
+    int live = 0;
+    for (int ordinal = 0; ordinal < old.count; ordinal++) {
+      Product product = old.byOrdinal[ordinal];
+      if (product != null && product.isAttached()) {
+        previous[live++] = ordinal;
+      }
+    }
+    Generation next = new Generation(old.id + 1, Arrays.copyOf(previous, live));
+    for (int ordinal : next.previous) {
+      Product product = old.byOrdinal[ordinal];
+      next.append(product, old.slots.get(product.getName()).key);
+    }
+    return next;
+  }
+
+  /**
+   * Clave del índice de prefijos: ordena por nombre sin distinguir
+   * mayúsculas y lleva un número de alta, para que un alta atrasada de un
+   * producto ya quitado no pise a otro con el mismo nombre.
+   */
+  private static String key(String name, long serial) {
+    return lower(name) + SEPARATOR + name + SEPARATOR + serial;
+  }
+
+  private static String lower(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+
+  private static long trigram(String text, int index) {
+    return (long) text.charAt(index) << 32 | (long) text.charAt(index + 1) << 16
+        | text.charAt(index + 2);
+  }
+
+  /**
+   * Índice de subcadenas: los productos por ordinal y sus trigramas. Las
+   * altas lo extienden con el candado tomado; una reconstrucción arma otro
+   * y lo reemplaza.
+   */
+  private static final class Generation {
+    private final int id;
+    /** Ordinal en la generación anterior de cada ordinal heredado. */
+    private final int[] previous;
+    private final Map<Long, Postings> trigrams = new ConcurrentHashMap<>();
+    private final Map<String, Slot> slots = new HashMap<>();
+    private volatile Product[] byOrdinal = new Product[1024];
+    private volatile int count;
+    private int dead;
+
+    private Generation(int id, int[] previous) {
+      this.id = id;
+      this.previous = previous;
+    }
+
+    private void append(Product product, String key) {
+      int ordinal = count;
+      Product[] all = byOrdinal;
+      if (ordinal == all.length) {
+        all = Arrays.copyOf(all, all.length * 2);
+        byOrdinal = all;
+      }
+      all[ordinal] = product;
+      slots.put(product.getName(), new Slot(ordinal, key));
+      String lower = lower(product.getName());
+      for (int i = 0; i + 3 <= lower.length(); i++) {
+        trigrams.computeIfAbsent(trigram(lower, i), k -> new Postings()).add(ordinal);
+      }
+      count = ordinal + 1;
+    }
+
+    private String cursor(int after) {
+      return id + ":" + after;
+    }
+
+    /** Último ordinal ya devuelto según un cursor de esta generación o la anterior. */
+    private int resume(String cursor) {
+      int colon = cursor.indexOf(':');
+      int generation;
+      int after;
+      try {
+        generation = Integer.parseInt(cursor.substring(0, Math.max(colon, 0)));
+        after = Integer.parseInt(cursor.substring(colon + 1));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid search cursor: " + cursor, e);
+      }
+      if (generation == id) {
+        return after;
+      }
+      if (generation != id - 1 || previous == null) {
+        throw new IllegalArgumentException("Expired search cursor: " + cursor);
+      }
+      int found = Arrays.binarySearch(previous, after);
+      return found >= 0 ? found : -found - 2;
+    }
+  }
+
+  /** Ordinal de un producto y su clave en el índice de prefijos. */
+  private static final class Slot {
+    private final int ordinal;
+    private final String key;
+
+    private Slot(int ordinal, String key) {
+      this.ordinal = ordinal;
+      this.key = key;
+    }
+  }
+
+  /**
+   * Ordinales crecientes de los productos que contienen un trigrama. Se
+   * agregan con el candado del índice y se leen sin él: el arreglo se
+   * publica antes que el tamaño que lo cubre.
+   */
+  private static final class Postings {
+    private volatile int[] ids = new int[4];
+    private volatile int size;
+
+    private void add(int ordinal) {
+      int[] current = ids;
+      int n = size;
+      if (n > 0 && current[n - 1] == ordinal) {
+        return;
+      }
+      if (n == current.length) {
+        current = Arrays.copyOf(current, n * 2);
+        ids = current;
+      }
+      current[n] = ordinal;
+      size = n + 1;
+    }
+  }
+}
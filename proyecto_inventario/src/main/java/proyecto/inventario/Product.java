@@ -1,13 +1,39 @@
 package proyecto.inventario;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.UnaryOperator;
+
 /**
  * Representa un producto con nombre, cantidad y precio.
  * Esta clase sigue el principio de responsabilidad única (SRP).
+ *
+ * <p>Cantidad y precio viven en un estado inmutable que se reemplaza con
+ * compare-and-set, de modo que varios hilos pueden actualizar el mismo
+ * producto sin bloqueos y sin perder actualizaciones. Cuando el producto
+ * pertenece a un {@link Inventory} cada estado lleva una versión y, mientras
+ * haya instantáneas abiertas, enlaza los estados anteriores que éstas
+ * todavía pueden leer (ver {@link InventorySnapshot}); además cada cambio
+ * actualiza los totales del inventario, se anota en sus
+ * {@link ChangeTracker} y mantiene sus índices por cantidad y precio.
  */
 public class Product {
+  private static final VarHandle STATE;
+
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(Product.class, "state", State.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
   private final String name;
-  private int quantity;
-  private double price;
+  private volatile State state;
+  private volatile VersionClock clock;
+  private volatile RunningTotals totals;
+  private volatile ChangeTrackers changes;
+  private volatile ProductIndexes indexes;
 
   /**
    * Crea un producto con nombre, cantidad y precio.
@@ -17,8 +43,18 @@ public class Product {
    */
   public Product(String name, int quantity, double price) {
     this.name = name;
-    this.quantity = quantity;
-    this.price = price;
+    this.state = new State(quantity, price, 0, null, false);
+  }
+
+  /**
+   * Constructor para subclases que guardan nombre, cantidad y precio fuera
+   * del objeto, como las vistas de los repositorios columnares. Deben
+   * redefinir todos los getters, setters y {@link #getDetails()}. Estos
+   * productos no tienen estado versionado, así que no pueden pertenecer a
+   * un {@link Inventory}.
+   */
+  protected Product() {
+    this.name = null;
   }
 
   // Getters
@@ -27,24 +63,258 @@ public class Product {
   }
 
   public int getQuantity() {
-    return quantity;
+    return state.quantity;
   }
 
   public double getPrice() {
-    return price;
+    return state.price;
   }
 
   // Setters
+  /**
+   * Reemplaza la cantidad conservando el precio.
+   *
+   * @param quantity nueva cantidad
+   */
   public void setQuantity(int quantity) {
-    this.quantity = quantity;
+    write(current -> next(current, quantity, current.price));
   }
 
+  /**
+   * Reemplaza el precio conservando la cantidad.
+   *
+   * @param price nuevo precio
+   */
   public void setPrice(double price) {
-    this.price = price;
+    write(current -> next(current, current.quantity, price));
+  }
+
+  /**
+   * Reemplaza cantidad y precio en una sola operación atómica.
+   *
+   * @param quantity nueva cantidad
+   * @param price nuevo precio
+   */
+  public void update(int quantity, double price) {
+    write(current -> next(current, quantity, price));
+  }
+
+  /**
+   * Suma {@code delta} a la cantidad de forma atómica.
+   *
+   * @param delta variación de la cantidad (puede ser negativa)
+   * @return la nueva cantidad
+   * @throws ArithmeticException si la cantidad desborda un int
+   */
+  public int addQuantity(int delta) {
+    return write(current ->
+        next(current, Math.addExact(current.quantity, delta), current.price)).quantity;
+  }
+
+  /**
+   * Suma {@code delta} a la cantidad y fija un nuevo precio de forma atómica.
+   * Es la operación usada al fusionar altas repetidas del mismo producto.
+   *
+   * @param delta variación de la cantidad
+   * @param price nuevo precio
+   * @return la nueva cantidad
+   */
+  public int addQuantity(int delta, double price) {
+    return write(current -> next(current, Math.addExact(current.quantity, delta), price)).quantity;
   }
 
   // Mostrar detalles del producto
   public String getDetails() {
-    return "Product: " + name + ", Quantity: " + quantity + ", Price: $" + price;
+    State current = state;
+    return "Product: " + name + ", Quantity: " + current.quantity + ", Price: $" + current.price;
+  }
+
+  /**
+   * Asocia el producto al reloj de versiones, a los totales, a los
+   * registros de cambios y a los índices de su inventario. Se llama antes
+   * de publicarlo en el repositorio; el estado inicial toma una versión
+   * propia para que ningún estado de dos productos la comparta.
+   *
+   * @throws IllegalStateException si el producto es una vista sin estado
+   *     propio, creada con {@link #Product()}
+   */
+  void attach(VersionClock clock, RunningTotals totals, ChangeTrackers changes,
+      ProductIndexes indexes) {
+    State initial = state;
+    if (initial == null) {
+      throw new IllegalStateException("Repository views cannot join an Inventory: " + getName());
+    }
+    this.state = new State(initial.quantity, initial.price, clock.tick(), null, false);
+    this.clock = clock;
+    this.totals = totals;
+    this.changes = changes;
+    this.indexes = indexes;
+  }
+
+  /**
+   * Desliga el producto de los totales y de los registros de cambios al
+   * quitarlo del inventario, y devuelve una copia de sus valores vigentes.
+   * La marca se publica con compare-and-set sobre el estado: un cambio
+   * anterior a ella está en la copia y se informa; uno posterior parte de
+   * un estado marcado y ya no toca los totales.
+   */
+  Product detach() {
+    State current;
+    do {
+      current = state;
+      if (current.detached) {
+        break;
+      }
+    } while (!STATE.compareAndSet(this, current, new State(current.quantity, current.price,
+        current.version, current.previous, true)));
+    ProductIndexes ix = indexes;
+    if (ix != null) {
+      ix.removed(this, current.quantity, current.price, current.version);
+    }
+    return new Product(name, current.quantity, current.price);
+  }
+
+  /** Agrega el estado vigente a los índices, salvo que ya no pertenezca al inventario. */
+  void indexTo(ProductIndexes ix) {
+    State s = state;
+    if (!s.detached) {
+      ix.added(this, s.quantity, s.price, s.version);
+    }
+  }
+
+  /** Indica si el producto sigue en su inventario. */
+  boolean isAttached() {
+    return !state.detached;
+  }
+
+  /**
+   * Indica si el estado vigente es el de esa versión y el producto sigue
+   * en su inventario; sirve para descartar entradas viejas de un índice.
+   */
+  boolean isCurrent(long version) {
+    State s = state;
+    return s.version == version && !s.detached;
+  }
+
+  /**
+   * Devuelve una copia desligada con los valores que tenía el producto en
+   * la versión indicada.
+   */
+  Product frozenAt(long version) {
+    State s = state;
+    while (s.version > version) {
+      State previous = s.previous;
+      if (previous == null) {
+        break;
+      }
+      s = previous;
+    }
+    return new Product(name, s.quantity, s.price);
+  }
+
+  /** Cantidad de estados retenidos; sólo para diagnóstico y pruebas. */
+  int retainedStates() {
+    int count = 0;
+    for (State s = state; s != null; s = s.previous) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Reemplaza el estado con compare-and-set e informa el cambio. La
+   * escritura se anota en el reloj mientras tiene una versión sin publicar
+   * (ver {@link VersionClock#pin}).
+   */
+  private State write(UnaryOperator<State> update) {
+    VersionClock c = clock;
+    int turn = c == null ? 0 : c.enter();
+    State current;
+    State next;
+    try {
+      do {
+        current = state;
+        next = update.apply(current);
+      } while (!STATE.compareAndSet(this, current, next));
+    } finally {
+      if (c != null) {
+        c.exit(turn);
+      }
+    }
+    changed(current, next);
+    return next;
+  }
+
+  /**
+   * Informa a los totales, a los registros de cambios y a los índices un
+   * cambio ya publicado.
+   */
+  private void changed(State from, State to) {
+    if (from.detached) {
+      return;
+    }
+    RunningTotals t = totals;
+    if (t != null) {
+      t.changed(from.quantity, from.price, to.quantity, to.price);
+    }
+    ChangeTrackers c = changes;
+    if (c != null) {
+      c.changed(name);
+    }
+    ProductIndexes ix = indexes;
+    if (ix != null) {
+      ix.changed(this, from.quantity, from.price, from.version, to.quantity, to.price,
+          to.version);
+    }
+  }
+
+  /**
+   * Construye el estado que reemplazará a {@code current}, enlazando sólo
+   * la historia que alguna instantánea abierta todavía puede leer.
+   */
+  private State next(State current, int quantity, double price) {
+    VersionClock c = clock;
+    if (c == null) {
+      return new State(quantity, price, 0, null, false);
+    }
+    long version = c.tick();
+    if (c.isPinning()) {
+      return new State(quantity, price, version, current, current.detached);
+    }
+    long oldest = c.oldestPinned();
+    if (oldest == Long.MAX_VALUE) {
+      return new State(quantity, price, version, null, current.detached);
+    }
+    // Un estado posterior a la instantánea más nueva ya no lo lee nadie.
+    State previous = current.version <= c.newestPinned() ? current : current.previous;
+    // Basta con el estado más nuevo que no supera a la instantánea más vieja.
+    State s = previous;
+    while (s != null && s.version > oldest) {
+      s = s.previous;
+    }
+    if (s != null) {
+      s.previous = null;
+    }
+    return new State(quantity, price, version, previous, current.detached);
+  }
+
+  /**
+   * Par cantidad/precio inmutable que se publica de forma atómica, con la
+   * marca de producto quitado de su inventario.
+   */
+  private static final class State {
+    private final int quantity;
+    private final double price;
+    private final long version;
+    private final boolean detached;
+    private volatile State previous;
+
+    private State(int quantity, double price, long version, State previous, boolean detached) {
+      this.quantity = quantity;
+      this.price = price;
+      this.version = version;
+      this.detached = detached;
+      this.previous = previous;
+    }
   }
-}
\ No newline at end of file
+}
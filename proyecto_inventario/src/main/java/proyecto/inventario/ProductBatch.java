@@ -0,0 +1,101 @@
+package proyecto.inventario;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Lote de altas en columnas: nombres, cantidades y precios en arreglos
+ * paralelos, sin un objeto por producto. Se llena con {@link #add} y se
+ * entrega a {@link InventoryWriter#addProducts}; puede vaciarse con
+ * {@link #clear()} y reutilizarse para el lote siguiente.
+ *
+ * <p>No es seguro para varios hilos.
+ */
+public final class ProductBatch {
+  private String[] names;
+  private int[] quantities;
+  private double[] prices;
+  private int size;
+
+  /** Lote vacío con capacidad para 16 productos. */
+  public ProductBatch() {
+    this(16);
+  }
+
+  /**
+   * Lote vacío con capacidad inicial propia.
+   *
+   * @param capacity productos que caben sin agrandar los arreglos
+   */
+  public ProductBatch(int capacity) {
+    int initial = Math.max(capacity, 1);
+    names = new String[initial];
+    quantities = new int[initial];
+    prices = new double[initial];
+  }
+
+  /**
+   * Lote con los valores actuales de los productos dados.
+   *
+   * @param products productos a copiar
+   * @return lote nuevo
+   */
+  public static ProductBatch of(Collection<? extends Product> products) {
+    ProductBatch batch = new ProductBatch(products.size());
+    for (Product p : products) {
+      batch.add(p.getName(), p.getQuantity(), p.getPrice());
+    }
+    return batch;
+  }
+
+  /**
+   * Agrega un producto al lote.
+   *
+   * @param name nombre del producto
+   * @param quantity cantidad disponible
+   * @param price precio unitario
+   * @return este lote
+   */
+  public ProductBatch add(String name, int quantity, double price) {
+    if (size == names.length) {
+      int capacity = size * 2;
+      names = Arrays.copyOf(names, capacity);
+      quantities = Arrays.copyOf(quantities, capacity);
+      prices = Arrays.copyOf(prices, capacity);
+    }
+    names[size] = name;
+    quantities[size] = quantity;
+    prices[size] = price;
+    size++;
+    return this;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public String getName(int index) {
+    return names[check(index)];
+  }
+
+  public int getQuantity(int index) {
+    return quantities[check(index)];
+  }
+
+  public double getPrice(int index) {
+    return prices[check(index)];
+  }
+
+  /** Vacía el lote conservando su capacidad. */
+  public void clear() {
+    Arrays.fill(names, 0, size, null);
+    size = 0;
+  }
+
+  private int check(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return index;
+  }
+}
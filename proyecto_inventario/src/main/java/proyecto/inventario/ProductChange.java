@@ -0,0 +1,50 @@
+package proyecto.inventario;
+
+/**
+ * Cambio de un producto entregado por {@link ChangeTracker#drain()}: sus
+ * valores vigentes al leerlo o, si ya no está en el inventario, una marca
+ * de baja.
+ */
+public final class ProductChange {
+  private final String name;
+  private final int quantity;
+  private final double price;
+  private final boolean removed;
+
+  private ProductChange(String name, int quantity, double price, boolean removed) {
+    this.name = name;
+    this.quantity = quantity;
+    this.price = price;
+    this.removed = removed;
+  }
+
+  static ProductChange present(Product product) {
+    return new ProductChange(product.getName(), product.getQuantity(), product.getPrice(), false);
+  }
+
+  static ProductChange removed(String name) {
+    return new ProductChange(name, 0, 0, true);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Indica si el producto se quitó del inventario. En ese caso la cantidad
+   * y el precio no significan nada.
+   *
+   * @return {@code true} si es una baja
+   */
+  public boolean isRemoved() {
+    return removed;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public double getPrice() {
+    return price;
+  }
+}
@@ -0,0 +1,159 @@
+package proyecto.inventario;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * Índices ordenados por cantidad y por precio de los productos de un
+ * {@link Inventory}, para consultas por rango en O(log n + k).
+ *
+ * <p>Cada índice es un {@link ConcurrentSkipListSet} de entradas
+ * (valor, nombre, versión del estado). Cada cambio de un producto quita la
+ * entrada de su estado anterior y agrega la del nuevo; como las versiones
+ * no se repiten, dos cambios cuyos avisos llegan en desorden no pueden
+ * borrarse la entrada vigente. Una entrada que quedó de un estado ya
+ * reemplazado se reconoce comparando su versión con la del producto: las
+ * consultas la saltean y la quitan.
+ *
+ * <p>Los índices se construyen con un recorrido la primera vez que se
+ * consultan; hasta entonces mantenerlos no cuesta más que leer una marca.
+ * Como todo recorrido del catálogo, una consulta concurrente con
+ * escrituras puede reflejar sólo una parte de ellas.
+ */
+final class ProductIndexes {
+  private static final Comparator<Entry> ORDER = (a, b) -> {
+    int byKey = Double.compare(a.key, b.key);
+    if (byKey != 0) {
+      return byKey;
+    }
+    if (a.bound != 0 || b.bound != 0) {
+      return Integer.compare(a.bound, b.bound);
+    }
+    int byName = a.product.getName().compareTo(b.product.getName());
+    return byName != 0 ? byName : Long.compare(a.version, b.version);
+  };
+
+  private final NavigableSet<Entry> byQuantity = new ConcurrentSkipListSet<>(ORDER);
+  private final NavigableSet<Entry> byPrice = new ConcurrentSkipListSet<>(ORDER);
+  private final Supplier<List<Product>> products;
+  /** Las escrituras mantienen los índices. */
+  private volatile boolean tracking;
+  /** Los índices están completos y se pueden consultar. */
+  private volatile boolean ready;
+
+  /**
+   * Crea los índices, todavía sin construir.
+   *
+   * @param products catálogo a recorrer al construirlos
+   */
+  ProductIndexes(Supplier<List<Product>> products) {
+    this.products = products;
+  }
+
+  /** Agrega un producto recién publicado o leído al construir. */
+  void added(Product product, int quantity, double price, long version) {
+    if (tracking) {
+      byQuantity.add(new Entry(quantity, product, version, 0));
+      byPrice.add(new Entry(price, product, version, 0));
+    }
+  }
+
+  /** Reemplaza las entradas del estado anterior por las del nuevo. */
+  void changed(Product product, int oldQuantity, double oldPrice, long oldVersion,
+      int newQuantity, double newPrice, long newVersion) {
+    if (tracking) {
+      byQuantity.remove(new Entry(oldQuantity, product, oldVersion, 0));
+      byPrice.remove(new Entry(oldPrice, product, oldVersion, 0));
+      byQuantity.add(new Entry(newQuantity, product, newVersion, 0));
+      byPrice.add(new Entry(newPrice, product, newVersion, 0));
+    }
+  }
+
+  /** Quita las entradas de un producto que salió del inventario. */
+  void removed(Product product, int quantity, double price, long version) {
+    if (tracking) {
+      byQuantity.remove(new Entry(quantity, product, version, 0));
+      byPrice.remove(new Entry(price, product, version, 0));
+    }
+  }
+
+  /**
+   * Productos con cantidad entre {@code min} y {@code max}, inclusive,
+   * ordenados por cantidad y nombre.
+   */
+  List<Product> byQuantity(int min, int max) {
+    return range(byQuantity, min, max);
+  }
+
+  /**
+   * Productos con precio entre {@code min} y {@code max}, inclusive,
+   * ordenados por precio y nombre.
+   */
+  List<Product> byPrice(double min, double max) {
+    return range(byPrice, min, max);
+  }
+
+  private List<Product> range(NavigableSet<Entry> index, double min, double max) {
+    enable();
+    List<Product> result = new ArrayList<>();
+    if (!(min <= max)) {
+      return result;
+    }
+    NavigableSet<Entry> range =
+        index.subSet(new Entry(min, null, 0, -1), true, new Entry(max, null, 0, 1), true);
+    for (Entry entry : range) {
+      if (entry.product.isCurrent(entry.version)) {
+        result.add(entry.product);
+      } else {
+        index.remove(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Construye los índices la primera vez. La marca se publica antes de
+   * recorrer: una escritura que no la vio terminó su compare-and-set
+   * antes, así que el recorrido lee su resultado; las demás se anotan
+   * solas.
+   */
+  private void enable() {
+    if (ready) {
+      return;
+    }
+    synchronized (this) {
+      if (ready) {
+        return;
+      }
+      tracking = true;
+      for (Product product : products.get()) {
+        product.indexTo(this);
+      }
+      ready = true;
+    }
+  }
+
+  /**
+   * Entrada de un índice. Las cotas de una consulta no tienen producto y
+   * quedan antes ({@code bound} -1) o después (1) de toda entrada con su
+   * mismo valor.
+   */
+  private static final class Entry {
+    private final double key;
+    private final Product product;
+    private final long version;
+    private final int bound;
+
+    private Entry(double key, Product product, long version, int bound) {
+      // Suma 0.0 para que -0.0 y 0.0 sean la misma clave.
+      this.key = key + 0.0;
+      this.product = product;
+      this.version = version;
+      this.bound = bound;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package proyecto.inventario;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta reportes en segundo plano con un límite de reportes simultáneos.
+ *
+ * <p>Usa un conjunto fijo de hilos de baja prioridad y una cola acotada:
+ * una ráfaga de exportaciones espera su turno (o se rechaza si la cola está
+ * llena) en lugar de ocupar todos los núcleos que necesitan las escrituras.
+ * Cancelar el futuro devuelto, o que venza su plazo, interrumpe el reporte
+ * en curso o lo quita de la cola si todavía no empezó.
+ */
+public final class ReportExecutor implements AutoCloseable {
+  private static final AtomicInteger POOLS = new AtomicInteger();
+
+  private final ThreadPoolExecutor pool;
+
+  /**
+   * Crea un ejecutor propio.
+   *
+   * @param maxConcurrent cantidad máxima de reportes en ejecución
+   * @param maxQueued cantidad máxima de reportes esperando turno
+   */
+  public ReportExecutor(int maxConcurrent, int maxQueued) {
+    if (maxConcurrent < 1 || maxQueued < 0) {
+      throw new IllegalArgumentException("maxConcurrent must be >= 1 and maxQueued >= 0");
+    }
+    String prefix = "inventory-report-" + POOLS.incrementAndGet() + "-";
+    AtomicInteger threads = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 30, TimeUnit.SECONDS,
+        maxQueued == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(maxQueued),
+        runnable -> {
+          Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setPriority(Thread.MIN_PRIORITY);
+          return thread;
+        });
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Ejecutor compartido por las impresoras que no reciben uno propio: la
+   * mitad de los núcleos (al menos uno) y hasta 64 reportes en cola.
+   *
+   * @return ejecutor compartido
+   */
+  public static ReportExecutor shared() {
+    return Shared.INSTANCE;
+  }
+
+  /**
+   * Encola {@code report}.
+   *
+   * @param report tarea a ejecutar
+   * @return futuro que se completa al terminar, con la excepción del
+   *     reporte si falla o con {@link RejectedExecutionException} si no
+   *     hay lugar en la cola
+   */
+  public CompletableFuture<Void> submit(Runnable report) {
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    FutureTask<Void> task = new FutureTask<>(() -> {
+      try {
+        report.run();
+        result.complete(null);
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+      }
+    }, null);
+    try {
+      pool.execute(task);
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    // Cancelación o plazo vencido: se interrumpe el hilo o se descarta la
+    // tarea pendiente.
+    result.whenComplete((ignored, error) -> {
+      if (error != null) {
+        task.cancel(true);
+        pool.remove(task);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Reportes en ejecución en este momento.
+   *
+   * @return cantidad aproximada de reportes activos
+   */
+  public int getActiveCount() {
+    return pool.getActiveCount();
+  }
+
+  /**
+   * Deja de aceptar reportes; los encolados terminan igual.
+   */
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  /** Inicialización diferida del ejecutor compartido. */
+  private static final class Shared {
+    private static final ReportExecutor INSTANCE = new ReportExecutor(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64);
+  }
+}
@@ -0,0 +1,82 @@
+package proyecto.inventario;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de un {@link Inventory} mantenidos al vuelo: cada alta, baja y
+ * cambio de un producto suma su diferencia en O(1), así que leerlos no
+ * recorre el catálogo.
+ *
+ * <p>Los contadores son {@link LongAdder}, de modo que muchos hilos pueden
+ * actualizarlos sin competir. El valor se lleva en centavos exactos y sólo
+ * los precios que no son centavos exactos pasan por {@link BigDecimal}
+ * (con las mismas reglas que {@link InventoryStats}). Cuando no hay
+ * escrituras en curso los totales coinciden exactamente con recorrer el
+ * catálogo; durante una escritura pueden reflejar sólo una parte de ella.
+ */
+final class RunningTotals {
+  private final LongAdder count = new LongAdder();
+  private final LongAdder units = new LongAdder();
+  private final LongAdder cents = new LongAdder();
+  private final LongAdder nonFinitePrices = new LongAdder();
+  private final AtomicReference<BigDecimal> rest = new AtomicReference<>(BigDecimal.ZERO);
+
+  /** Registra un producto nuevo con sus valores iniciales. */
+  void added(int quantity, double price) {
+    count.increment();
+    units.add(quantity);
+    addValue(quantity, price, 1);
+  }
+
+  /** Registra la baja de un producto con sus últimos valores. */
+  void removed(int quantity, double price) {
+    count.decrement();
+    units.add(-quantity);
+    addValue(quantity, price, -1);
+  }
+
+  /** Registra el paso de un producto de un estado a otro. */
+  void changed(int oldQuantity, double oldPrice, int newQuantity, double newPrice) {
+    units.add((long) newQuantity - oldQuantity);
+    if (oldPrice != newPrice || oldQuantity != newQuantity) {
+      addValue(newQuantity, newPrice, 1);
+      addValue(oldQuantity, oldPrice, -1);
+    }
+  }
+
+  long count() {
+    return count.sum();
+  }
+
+  long units() {
+    return units.sum();
+  }
+
+  /**
+   * Suma exacta de cantidad por precio.
+   *
+   * @throws ArithmeticException si algún producto tiene un precio infinito o NaN
+   */
+  BigDecimal value() {
+    if (nonFinitePrices.sum() > 0) {
+      throw new ArithmeticException("Inventory has prices that are not finite numbers");
+    }
+    return BigDecimal.valueOf(cents.sum(), 2).add(rest.get());
+  }
+
+  private void addValue(int quantity, double price, int sign) {
+    if (!Double.isFinite(price)) {
+      nonFinitePrices.add(sign);
+      return;
+    }
+    long value = InventoryStats.valueInCents(quantity, price);
+    if (value != InventoryStats.NOT_CENTS) {
+      cents.add(sign * value);
+    } else {
+      BigDecimal exact = InventoryStats.value(quantity, price);
+      rest.accumulateAndGet(sign < 0 ? exact.negate() : exact, BigDecimal::add);
+    }
+  }
+}
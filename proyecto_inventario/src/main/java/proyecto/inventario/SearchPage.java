@@ -0,0 +1,41 @@
+package proyecto.inventario;
+
+import java.util.List;
+
+/**
+ * Una página de resultados de {@link Inventory#searchByPrefix} o
+ * {@link Inventory#searchBySubstring}. La página siguiente se pide pasando
+ * {@link #getNextCursor()} a la misma búsqueda.
+ */
+public final class SearchPage {
+  private final List<Product> products;
+  private final String nextCursor;
+
+  SearchPage(List<Product> products, String nextCursor) {
+    this.products = products;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Productos de esta página.
+   *
+   * @return lista inmutable de productos
+   */
+  public List<Product> getProducts() {
+    return products;
+  }
+
+  /**
+   * Posición desde la que sigue la búsqueda, o {@code null} si no hay más
+   * resultados. Su contenido no está especificado.
+   *
+   * @return cursor de la página siguiente
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean hasMore() {
+    return nextCursor != null;
+  }
+}
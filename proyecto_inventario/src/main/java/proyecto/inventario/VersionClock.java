@@ -0,0 +1,143 @@
+package proyecto.inventario;
+
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reloj de versiones compartido por los productos de un {@link Inventory}.
+ *
+ * <p>Cada escritura sobre un producto toma una versión nueva. Las
+ * instantáneas fijan ("pin") la versión vigente al abrirse y la liberan al
+ * cerrarse; mientras haya alguna abierta, los productos conservan sólo los
+ * estados anteriores que esas instantáneas todavía pueden necesitar.
+ *
+ * <p>Una escritura toma su versión antes de publicar su estado. Para que
+ * una instantánea no vea un estado de su versión aparecer después de
+ * abrirse, cada escritura se anota entre {@link #enter} y {@link #exit} en
+ * el contador de su turno, y {@link #pin} cambia de turno y espera a que
+ * terminen las del turno anterior: ésas son las únicas que pueden tener
+ * una versión fijada sin haberla publicado. La espera dura lo que un
+ * compare-and-set, no lo que una instantánea.
+ */
+final class VersionClock {
+  /** Separación entre los dos contadores de turno, para no compartir línea de caché. */
+  private static final int PAD = 16;
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLongArray writers = new AtomicLongArray(2 * PAD);
+  private volatile int turn;
+  private final AtomicInteger pinning = new AtomicInteger();
+  private final TreeMap<Long, Integer> pinned = new TreeMap<>();
+  private volatile long oldest = Long.MAX_VALUE;
+  private volatile long newest = Long.MIN_VALUE;
+
+  /** Reserva la versión de una escritura nueva. */
+  long tick() {
+    return clock.incrementAndGet();
+  }
+
+  /**
+   * Anota una escritura en curso, antes de tomar su versión.
+   *
+   * @return turno a pasar a {@link #exit}
+   */
+  int enter() {
+    while (true) {
+      int current = turn;
+      writers.getAndIncrement(slot(current));
+      // Si el turno cambió entre la lectura y el alta, un pin pudo no verla.
+      if (turn == current) {
+        return current;
+      }
+      writers.getAndDecrement(slot(current));
+    }
+  }
+
+  /**
+   * Termina una escritura anotada con {@link #enter}, ya publicada o
+   * descartada.
+   */
+  void exit(int turn) {
+    writers.getAndDecrement(slot(turn));
+  }
+
+  /**
+   * Indica si hay una instantánea abriéndose. Quien escribe en ese momento
+   * debe conservar toda la historia porque aún no se conoce su versión.
+   */
+  boolean isPinning() {
+    return pinning.get() > 0;
+  }
+
+  /**
+   * Versión más antigua fijada, o {@code Long.MAX_VALUE} si no hay ninguna.
+   */
+  long oldestPinned() {
+    return oldest;
+  }
+
+  /**
+   * Versión más reciente fijada, o {@code Long.MIN_VALUE} si no hay ninguna.
+   */
+  long newestPinned() {
+    return newest;
+  }
+
+  /**
+   * Fija la versión actual para una instantánea.
+   *
+   * @return la versión fijada
+   */
+  synchronized long pin() {
+    pinning.incrementAndGet();
+    try {
+      long version = clock.get();
+      // Toda escritura con versión <= version se anotó antes en este turno.
+      int previous = turn;
+      turn = previous + 1;
+      while (writers.get(slot(previous)) != 0) {
+        LockSupport.parkNanos(1_000);
+      }
+      pinned.merge(version, 1, Integer::sum);
+      refreshBounds();
+      return version;
+    } finally {
+      pinning.decrementAndGet();
+    }
+  }
+
+  /**
+   * Libera una versión fijada con {@link #pin()}.
+   *
+   * @param version versión a liberar
+   */
+  synchronized void unpin(long version) {
+    Integer count = pinned.get(version);
+    if (count == null) {
+      return;
+    }
+    if (count == 1) {
+      pinned.remove(version);
+    } else {
+      pinned.put(version, count - 1);
+    }
+    refreshBounds();
+  }
+
+  private static int slot(int turn) {
+    return (turn & 1) * PAD;
+  }
+
+  private void refreshBounds() {
+    if (pinned.isEmpty()) {
+      oldest = Long.MAX_VALUE;
+      newest = Long.MIN_VALUE;
+    } else {
+      oldest = pinned.firstKey();
+      newest = pinned.lastKey();
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package proyecto.inventario.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.repository.InventoryRepository;
+
+/**
+ * Carga masiva del CSV {@code Name,Quantity,Price} que genera
+ * {@code CsvInventoryReport}.
+ *
+ * <p>El archivo se divide en tramos que se analizan en paralelo, uno por
+ * núcleo, cada uno sobre su propia región mapeada con
+ * {@link FileChannel#map}: los bytes no pasan por el heap y sólo se crean
+ * los nombres que se van a guardar. Los cortes se ajustan al comienzo de
+ * una fila contando comillas, de modo que un nombre entrecomillado con
+ * saltos de línea nunca queda partido. Los tramos se aplican en el orden del
+ * archivo, así que una fila repetida deja el valor de su última aparición.
+ *
+ * <p>Para recorrer el archivo sin cargarlo en un inventario se puede usar
+ * {@link MappedCsvReader}.
+ */
+public class CsvInventoryLoader {
+  static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int ESTIMATED_ROW_BYTES = 32;
+  private static final byte[] HEADER =
+      "Name,Quantity,Price".getBytes(StandardCharsets.US_ASCII);
+
+  private final Path path;
+  private final int parallelism;
+  private final int chunkSize;
+
+  public CsvInventoryLoader(String path) {
+    this(path, Runtime.getRuntime().availableProcessors());
+  }
+
+  public CsvInventoryLoader(String path, int parallelism) {
+    this(path, parallelism, DEFAULT_CHUNK_SIZE);
+  }
+
+  CsvInventoryLoader(String path, int parallelism, int chunkSize) {
+    if (parallelism < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException("parallelism and chunkSize must be positive");
+    }
+    this.path = Paths.get(path);
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Carga el archivo con {@link InventoryWriter#upsert}.
+   *
+   * @param writer inventario destino
+   * @return cantidad de filas leídas
+   * @throws IOException si el archivo no se puede leer o tiene filas inválidas
+   */
+  public long load(InventoryWriter writer) throws IOException {
+    return load(rows -> {
+      for (int i = 0; i < rows.size(); i++) {
+        writer.upsert(rows.name(i), rows.quantity(i), rows.price(i));
+      }
+    });
+  }
+
+  /**
+   * Carga el archivo con {@link InventoryRepository#upsert}.
+   *
+   * @param repository repositorio destino
+   * @return cantidad de filas leídas
+   * @throws IOException si el archivo no se puede leer o tiene filas inválidas
+   */
+  public long load(InventoryRepository repository) throws IOException {
+    return load(rows -> {
+      for (int i = 0; i < rows.size(); i++) {
+        repository.upsert(new Product(rows.name(i), rows.quantity(i), rows.price(i)));
+      }
+    });
+  }
+
+  private long load(Consumer<ParsedRows> sink) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long dataStart = headerLength(channel);
+      long[] bounds = rowBoundaries(channel, dataStart, size, pool);
+
+      // Se analizan como mucho 2 * parallelism tramos por delante del que
+      // se está aplicando, para no retener el archivo entero en memoria.
+      Deque<CompletableFuture<ParsedRows>> pending = new ArrayDeque<>();
+      long rows = 0;
+      int next = 0;
+      int chunks = bounds.length - 1;
+      while (next < chunks || !pending.isEmpty()) {
+        while (next < chunks && pending.size() < 2 * parallelism) {
+          long from = bounds[next];
+          long to = bounds[next + 1];
+          pending.add(CompletableFuture.supplyAsync(() -> parseRange(channel, from, to), pool));
+          next++;
+        }
+        ParsedRows parsed = join(pending.poll());
+        sink.accept(parsed);
+        rows += parsed.size();
+      }
+      return rows;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** Longitud del encabezado (incluido el salto de línea), o 0 si no hay. */
+  static long headerLength(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER.length + 2);
+    channel.read(buffer, 0);
+    buffer.flip();
+    if (buffer.remaining() < HEADER.length) {
+      return 0;
+    }
+    for (int i = 0; i < HEADER.length; i++) {
+      if (buffer.get(i) != HEADER[i]) {
+        return 0;
+      }
+    }
+    int end = HEADER.length;
+    if (end < buffer.limit() && buffer.get(end) == '\r') {
+      end++;
+    }
+    if (end < buffer.limit() && buffer.get(end) == '\n') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Calcula los límites de los tramos: posiciones de comienzo de fila a
+   * partir de cortes de tamaño fijo. La paridad de comillas antes de cada
+   * corte indica si cae dentro de un nombre entrecomillado.
+   */
+  private long[] rowBoundaries(FileChannel channel, long start, long end, ExecutorService pool)
+      throws IOException {
+    int chunks = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 1, (end - start) / chunkSize));
+    long[] nominal = new long[chunks + 1];
+    for (int i = 0; i < chunks; i++) {
+      nominal[i] = start + (end - start) / chunks * i;
+    }
+    nominal[chunks] = end;
+
+    List<CompletableFuture<Long>> quoteCounts = new ArrayList<>(chunks);
+    for (int i = 0; i < chunks; i++) {
+      long from = nominal[i];
+      long to = nominal[i + 1];
+      quoteCounts.add(CompletableFuture.supplyAsync(() -> countQuotes(channel, from, to), pool));
+    }
+
+    long[] bounds = new long[chunks + 1];
+    bounds[0] = start;
+    bounds[chunks] = end;
+    long quotes = 0;
+    for (int i = 1; i < chunks; i++) {
+      quotes += join(quoteCounts.get(i - 1));
+      long boundary = nextRowStart(channel, nominal[i], end, (quotes & 1) == 1);
+      bounds[i] = Math.max(boundary, bounds[i - 1]);
+    }
+    return bounds;
+  }
+
+  private static long countQuotes(FileChannel channel, long from, long to) {
+    MappedByteBuffer region = map(channel, from, to);
+    long count = 0;
+    for (int i = 0; i < region.limit(); i++) {
+      if (region.get(i) == '"') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static long nextRowStart(FileChannel channel, long from, long end, boolean inQuotes)
+      throws IOException {
+    if (from > 0) {
+      ByteBuffer previous = ByteBuffer.allocate(1);
+      channel.read(previous, from - 1);
+      if (!inQuotes && previous.get(0) == '\n') {
+        return from;
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    boolean quoted = inQuotes;
+    long position = from;
+    while (position < end) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), end - position));
+      int read = channel.read(buffer, position);
+      for (int i = 0; i < read; i++) {
+        byte b = buffer.get(i);
+        if (b == '"') {
+          quoted = !quoted;
+        } else if (b == '\n' && !quoted) {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return end;
+  }
+
+  /**
+   * Analiza las filas de {@code [from, to)}, que empieza y termina en fila,
+   * directamente sobre la región mapeada del archivo.
+   */
+  private static ParsedRows parseRange(FileChannel channel, long from, long to) {
+    ParsedRows rows = new ParsedRows((int) Math.min(1 << 20, (to - from) / ESTIMATED_ROW_BYTES));
+    try {
+      MappedByteBuffer region = map(channel, from, to);
+      new CsvRowParser().parse(region, 0, region.limit(), true, rows, from);
+      return rows;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+    if (to - from > Integer.MAX_VALUE) {
+      throw new UncheckedIOException(
+          new IOException("CSV row range too large to map at byte " + from));
+    }
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+  }
+}
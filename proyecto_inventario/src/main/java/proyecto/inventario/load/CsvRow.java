@@ -0,0 +1,27 @@
+package proyecto.inventario.load;
+
+import proyecto.inventario.Product;
+
+/**
+ * Fila del CSV de inventario vista sin copiarla. Cantidad y precio ya están
+ * interpretados; el nombre se decodifica sólo cuando se pide.
+ *
+ * <p>Las instancias se reutilizan de una fila a la siguiente, así que no
+ * deben guardarse fuera del recorrido que las entrega.
+ */
+public interface CsvRow {
+  String name();
+
+  int quantity();
+
+  double price();
+
+  /**
+   * Materializa la fila como un {@link Product} independiente.
+   *
+   * @return producto con los valores de la fila
+   */
+  default Product toProduct() {
+    return new Product(name(), quantity(), price());
+  }
+}
@@ -0,0 +1,279 @@
+package proyecto.inventario.load;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interpreta filas {@code Name,Quantity,Price} directamente desde bytes
+ * UTF-8, en el formato que escribe {@code CsvInventoryReport}: nombres
+ * opcionalmente entre comillas (con comillas internas duplicadas), cantidad
+ * entera y precio decimal con punto.
+ *
+ * <p>Funciona como cursor: {@link #next} avanza a la siguiente fila y deja
+ * cantidad y precio interpretados, pero del nombre sólo recuerda dónde
+ * está; se decodifica si alguien llama a {@link #name()}. Así se puede
+ * recorrer una región mapeada en memoria sin crear objetos por fila.
+ */
+final class CsvRowParser implements CsvRow {
+  /** Mayor mantisa que convierte exactamente un double. */
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private byte[] scratch = new byte[256];
+  private ByteBuffer data;
+  private long offset;
+  private int position;
+  private int nameStart;
+  private int nameEnd;
+  private int nameEscapes;
+  private int quantity;
+  private double price;
+
+  /**
+   * Prepara el cursor sobre {@code data} a partir de {@code from}, que debe
+   * ser el comienzo de una fila.
+   *
+   * @param data bytes a analizar (se accede por posición absoluta)
+   * @param from primera posición
+   * @param offset posición en el archivo de {@code data[0]}, para los errores
+   */
+  void reset(ByteBuffer data, int from, long offset) {
+    this.data = data;
+    this.position = from;
+    this.offset = offset;
+  }
+
+  /** Primera posición todavía no consumida. */
+  int position() {
+    return position;
+  }
+
+  /**
+   * Avanza a la siguiente fila completa antes de {@code to}.
+   *
+   * @param to posición final exclusiva
+   * @param last si {@code to} es el fin real de los datos; si no, una fila
+   *     incompleta al final queda sin consumir
+   * @return {@code false} si no quedan filas completas
+   * @throws IOException si una fila no tiene el formato esperado
+   */
+  boolean next(int to, boolean last) throws IOException {
+    while (position < to && (data.get(position) == '\n' || data.get(position) == '\r')) {
+      position++;
+    }
+    if (position >= to) {
+      return false;
+    }
+    int end = parseRow(position, to, last);
+    if (end < 0) {
+      return false;
+    }
+    position = end;
+    return true;
+  }
+
+  /**
+   * Analiza todas las filas completas de {@code [from, to)} y las agrega a
+   * {@code out} con el nombre ya decodificado.
+   *
+   * @return posición de la primera fila no consumida
+   */
+  int parse(ByteBuffer data, int from, int to, boolean last, ParsedRows out, long offset)
+      throws IOException {
+    reset(data, from, offset);
+    while (next(to, last)) {
+      out.add(name(), quantity, price);
+    }
+    return position;
+  }
+
+  @Override
+  public String name() {
+    return decode(nameStart, nameEnd, nameEscapes);
+  }
+
+  @Override
+  public int quantity() {
+    return quantity;
+  }
+
+  @Override
+  public double price() {
+    return price;
+  }
+
+  /**
+   * Analiza una fila que empieza en {@code start}.
+   *
+   * @return posición siguiente al fin de la fila, o -1 si está incompleta
+   */
+  private int parseRow(int start, int to, boolean last) throws IOException {
+    int i;
+    if (data.get(start) == '"') {
+      int escapes = 0;
+      i = start + 1;
+      while (true) {
+        if (i >= to) {
+          return incomplete(last, start);
+        }
+        if (data.get(i) == '"') {
+          if (i + 1 < to && data.get(i + 1) == '"') {
+            escapes++;
+            i += 2;
+            continue;
+          }
+          if (i + 1 >= to && !last) {
+            return -1;
+          }
+          break;
+        }
+        i++;
+      }
+      nameStart = start + 1;
+      nameEnd = i;
+      nameEscapes = escapes;
+      i++;
+    } else {
+      i = start;
+      while (i < to && data.get(i) != ',' && data.get(i) != '\n') {
+        i++;
+      }
+      nameStart = start;
+      nameEnd = i;
+      nameEscapes = 0;
+    }
+    if (i >= to) {
+      return incomplete(last, start);
+    }
+    if (data.get(i) != ',') {
+      throw malformed(start);
+    }
+    i++;
+
+    final int quantityStart = i;
+    while (i < to && data.get(i) != ',' && data.get(i) != '\n') {
+      i++;
+    }
+    if (i >= to) {
+      return incomplete(last, start);
+    }
+    if (data.get(i) != ',') {
+      throw malformed(start);
+    }
+    quantity = parseInt(quantityStart, i, start);
+    i++;
+
+    int priceStart = i;
+    while (i < to && data.get(i) != '\n') {
+      i++;
+    }
+    if (i >= to && !last) {
+      return -1;
+    }
+    int priceEnd = i;
+    if (priceEnd > priceStart && data.get(priceEnd - 1) == '\r') {
+      priceEnd--;
+    }
+    price = parseDouble(priceStart, priceEnd, start);
+    return i < to ? i + 1 : i;
+  }
+
+  private int incomplete(boolean last, int start) throws IOException {
+    if (last) {
+      throw malformed(start);
+    }
+    return -1;
+  }
+
+  private String decode(int from, int to, int escapes) {
+    int length = to - from;
+    if (escapes == 0 && data.hasArray()) {
+      return new String(data.array(), data.arrayOffset() + from, length, StandardCharsets.UTF_8);
+    }
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    int n = 0;
+    for (int i = from; i < to; i++) {
+      byte b = data.get(i);
+      scratch[n++] = b;
+      if (b == '"' && escapes > 0) {
+        i++;
+      }
+    }
+    return new String(scratch, 0, n, StandardCharsets.UTF_8);
+  }
+
+  private int parseInt(int from, int to, int row) throws IOException {
+    int i = from;
+    boolean negative = i < to && data.get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    if (i == to) {
+      throw malformed(row);
+    }
+    long value = 0;
+    for (; i < to; i++) {
+      int digit = data.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw malformed(row);
+      }
+      value = value * 10 + digit;
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        throw malformed(row);
+      }
+    }
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw malformed(row);
+    }
+    return (int) value;
+  }
+
+  private double parseDouble(int from, int to, int row) throws IOException {
+    int i = from;
+    boolean negative = i < to && data.get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int decimals = -1;
+    for (; i < to; i++) {
+      byte b = data.get(i);
+      if (b == '.' && decimals < 0) {
+        decimals = 0;
+      } else if (b >= '0' && b <= '9' && digits < 18) {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (decimals >= 0) {
+          decimals++;
+        }
+      } else {
+        return parseDoubleSlow(from, to, row);
+      }
+    }
+    if (digits == 0 || mantissa >= MAX_EXACT_MANTISSA) {
+      return parseDoubleSlow(from, to, row);
+    }
+    // Mantisa y potencia exactas: una sola división da el double correcto.
+    double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+    return negative ? -value : value;
+  }
+
+  private double parseDoubleSlow(int from, int to, int row) throws IOException {
+    try {
+      return Double.parseDouble(decode(from, to, 0));
+    } catch (NumberFormatException e) {
+      throw malformed(row);
+    }
+  }
+
+  private IOException malformed(int row) {
+    return new IOException("Malformed CSV row at byte " + (offset + row));
+  }
+}
@@ -0,0 +1,83 @@
+package proyecto.inventario.load;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Recorre un CSV de inventario de cualquier tamaño mapeándolo en memoria
+ * por ventanas, sin crear un {@code String} por línea.
+ *
+ * <p>Cada fila se entrega como un {@link CsvRow} reutilizado que apunta a
+ * la región mapeada: cantidad y precio ya están interpretados y el nombre
+ * sólo se decodifica si se pide (por ejemplo al llamar a
+ * {@link CsvRow#toProduct()}). Un recorrido que sólo suma cantidades no
+ * reserva memoria por fila, sea cual sea el tamaño del archivo.
+ */
+public class MappedCsvReader implements AutoCloseable {
+  static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final int windowSize;
+
+  /**
+   * Abre el archivo para lectura.
+   *
+   * @param path ruta del CSV
+   * @throws IOException si no se puede abrir
+   */
+  public MappedCsvReader(String path) throws IOException {
+    this(path, DEFAULT_WINDOW_SIZE);
+  }
+
+  MappedCsvReader(String path, int windowSize) throws IOException {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be positive");
+    }
+    this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Entrega cada fila, en orden, a {@code action}. El encabezado
+   * {@code Name,Quantity,Price}, si está, se omite.
+   *
+   * @param action acción a aplicar; no debe guardar la fila recibida
+   * @return cantidad de filas recorridas
+   * @throws IOException si el archivo no se puede leer o tiene filas inválidas
+   */
+  public long forEach(Consumer<? super CsvRow> action) throws IOException {
+    long size = channel.size();
+    long position = CsvInventoryLoader.headerLength(channel);
+    CsvRowParser cursor = new CsvRowParser();
+    long rows = 0;
+    int window = windowSize;
+    while (position < size) {
+      long end = Math.min(size, position + window);
+      boolean last = end == size;
+      MappedByteBuffer region =
+          channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+      cursor.reset(region, 0, position);
+      while (cursor.next(region.limit(), last)) {
+        action.accept(cursor);
+        rows++;
+      }
+      if (cursor.position() == 0 && !last) {
+        // Una sola fila no entra en la ventana: se agranda y se reintenta.
+        window = (int) Math.min(Integer.MAX_VALUE, (long) window * 2);
+        continue;
+      }
+      position += cursor.position();
+      window = windowSize;
+    }
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,50 @@
+package proyecto.inventario.load;
+
+import java.util.Arrays;
+
+/**
+ * Filas ya interpretadas de un tramo del CSV, guardadas por columnas para
+ * no crear un objeto por fila mientras se analiza en paralelo.
+ */
+final class ParsedRows {
+  private String[] names;
+  private int[] quantities;
+  private double[] prices;
+  private int size;
+
+  ParsedRows(int expectedRows) {
+    int capacity = Math.max(expectedRows, 16);
+    names = new String[capacity];
+    quantities = new int[capacity];
+    prices = new double[capacity];
+  }
+
+  void add(String name, int quantity, double price) {
+    if (size == names.length) {
+      int capacity = size * 2;
+      names = Arrays.copyOf(names, capacity);
+      quantities = Arrays.copyOf(quantities, capacity);
+      prices = Arrays.copyOf(prices, capacity);
+    }
+    names[size] = name;
+    quantities[size] = quantity;
+    prices[size] = price;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  String name(int index) {
+    return names[index];
+  }
+
+  int quantity(int index) {
+    return quantities[index];
+  }
+
+  double price(int index) {
+    return prices[index];
+  }
+}
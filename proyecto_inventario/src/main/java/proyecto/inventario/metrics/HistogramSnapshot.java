@@ -0,0 +1,76 @@
+package proyecto.inventario.metrics;
+
+/**
+ * Copia inmutable de un {@link LatencyHistogram}. Los percentiles devuelven
+ * el límite superior de la cubeta, acotado por el máximo observado.
+ */
+public final class HistogramSnapshot {
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  HistogramSnapshot(long[] counts, long sum, long max) {
+    this.counts = counts;
+    long total = 0;
+    for (long c : counts) {
+      total += c;
+    }
+    this.count = total;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return sum;
+  }
+
+  public long getMaxNanos() {
+    return max;
+  }
+
+  public double getMeanNanos() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  public long getP50Nanos() {
+    return percentile(0.5);
+  }
+
+  public long getP90Nanos() {
+    return percentile(0.9);
+  }
+
+  public long getP99Nanos() {
+    return percentile(0.99);
+  }
+
+  public long getP999Nanos() {
+    return percentile(0.999);
+  }
+
+  /**
+   * Valor bajo el cual cae la fracción {@code quantile} de las mediciones.
+   *
+   * @param quantile entre 0 y 1
+   * @return percentil en nanosegundos, o 0 si no hay mediciones
+   */
+  public long percentile(double quantile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(LatencyHistogram.upperBound(i), max);
+      }
+    }
+    return max;
+  }
+}
@@ -0,0 +1,125 @@
+package proyecto.inventario.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de un inventario: latencia y cantidad de cada operación, de
+ * cada reporte, y el tamaño actual del catálogo.
+ *
+ * <p>Registrar una medición sólo toca contadores sin bloqueo
+ * ({@link LatencyHistogram}); los totales se arman al pedir un
+ * {@link #snapshot()} o al leerlos por JMX ({@link #registerMBean}).
+ */
+public final class InventoryMetrics implements InventoryMetricsMxBean {
+  /** Operaciones medidas del inventario. */
+  public enum Operation {
+    ADD_PRODUCT, ADD_PRODUCTS, UPSERT, ADJUST_QUANTITY, REMOVE_PRODUCT, FIND_BY_NAME,
+    FIND_BY_RANGE, SEARCH_NAME, GET_PRODUCTS, SNAPSHOT
+  }
+
+  private final Map<Operation, LatencyHistogram> operations = new EnumMap<>(Operation.class);
+  private final Map<String, ReportMetrics> reports = new ConcurrentHashMap<>();
+  private final LongSupplier productCount;
+  private final LongSupplier approximateHeapBytes;
+
+  /**
+   * Crea las métricas de un inventario.
+   *
+   * @param productCount cantidad actual de productos
+   * @param approximateHeapBytes memoria aproximada que ocupa el catálogo
+   */
+  public InventoryMetrics(LongSupplier productCount, LongSupplier approximateHeapBytes) {
+    for (Operation operation : Operation.values()) {
+      operations.put(operation, new LatencyHistogram());
+    }
+    this.productCount = productCount;
+    this.approximateHeapBytes = approximateHeapBytes;
+  }
+
+  /**
+   * Registra una operación terminada.
+   *
+   * @param operation operación medida
+   * @param nanos duración en nanosegundos
+   */
+  public void record(Operation operation, long nanos) {
+    operations.get(operation).record(nanos);
+  }
+
+  /**
+   * Métricas del reporte llamado {@code name}, creadas al primer uso.
+   *
+   * @param name nombre del reporte
+   * @return métricas del reporte
+   */
+  public ReportMetrics report(String name) {
+    return reports.computeIfAbsent(name, ReportMetrics::new);
+  }
+
+  /**
+   * Copia el estado actual de todas las métricas.
+   *
+   * @return métricas en este momento
+   */
+  public MetricsSnapshot snapshot() {
+    return new MetricsSnapshot(getProductCount(), getApproximateHeapBytes(), getOperations(),
+        getReports());
+  }
+
+  @Override
+  public long getProductCount() {
+    return productCount.getAsLong();
+  }
+
+  @Override
+  public long getApproximateHeapBytes() {
+    return approximateHeapBytes.getAsLong();
+  }
+
+  @Override
+  public Map<String, HistogramSnapshot> getOperations() {
+    Map<String, HistogramSnapshot> result = new HashMap<>();
+    for (Map.Entry<Operation, LatencyHistogram> entry : operations.entrySet()) {
+      result.put(entry.getKey().name(), entry.getValue().snapshot());
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, ReportStats> getReports() {
+    Map<String, ReportStats> result = new HashMap<>();
+    for (Map.Entry<String, ReportMetrics> entry : reports.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    return result;
+  }
+
+  /**
+   * Publica las métricas en el servidor JMX de la plataforma como
+   * {@code proyecto.inventario:type=InventoryMetrics,name=<name>}. Si ya hay
+   * un bean con ese nombre no se registra otro.
+   *
+   * @param name nombre del inventario
+   * @return nombre JMX del bean
+   * @throws JMException si el bean no se puede registrar
+   */
+  public ObjectName registerMBean(String name) throws JMException {
+    ObjectName objectName = new ObjectName("proyecto.inventario:type=InventoryMetrics,name="
+        + ObjectName.quote(name));
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    synchronized (InventoryMetrics.class) {
+      if (!server.isRegistered(objectName)) {
+        server.registerMBean(this, objectName);
+      }
+    }
+    return objectName;
+  }
+}
@@ -0,0 +1,18 @@
+package proyecto.inventario.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+/**
+ * Vista JMX de {@link InventoryMetrics}.
+ */
+@MXBean
+public interface InventoryMetricsMxBean {
+  long getProductCount();
+
+  long getApproximateHeapBytes();
+
+  Map<String, HistogramSnapshot> getOperations();
+
+  Map<String, ReportStats> getReports();
+}
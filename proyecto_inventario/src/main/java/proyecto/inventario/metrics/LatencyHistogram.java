@@ -0,0 +1,72 @@
+package proyecto.inventario.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos, para registrar desde el camino
+ * caliente.
+ *
+ * <p>Los valores se agrupan en cubetas logarítmicas con 8 subdivisiones por
+ * potencia de dos (error relativo menor al 12,5 %), en un arreglo fijo de
+ * contadores atómicos: registrar es calcular un índice con operaciones de
+ * bits y un incremento, sin reservar memoria.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Registra una medición; los valores negativos cuentan como cero.
+   *
+   * @param nanos duración en nanosegundos
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(index(value));
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Copia el estado actual. Con registros concurrentes la copia puede
+   * incluir sólo parte de ellos, pero siempre es coherente consigo misma.
+   *
+   * @return copia inmutable del histograma
+   */
+  public HistogramSnapshot snapshot() {
+    long[] copy = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+    }
+    return new HistogramSnapshot(copy, sum.sum(), max.get());
+  }
+
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * Mayor valor que cae en la cubeta {@code index}.
+   */
+  static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) * width;
+    return lower + width - 1;
+  }
+}
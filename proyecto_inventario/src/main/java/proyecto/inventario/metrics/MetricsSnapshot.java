@@ -0,0 +1,48 @@
+package proyecto.inventario.metrics;
+
+import java.util.Map;
+
+/**
+ * Copia inmutable de las {@link InventoryMetrics} de un inventario.
+ */
+public final class MetricsSnapshot {
+  private final long productCount;
+  private final long approximateHeapBytes;
+  private final Map<String, HistogramSnapshot> operations;
+  private final Map<String, ReportStats> reports;
+
+  MetricsSnapshot(long productCount, long approximateHeapBytes,
+      Map<String, HistogramSnapshot> operations, Map<String, ReportStats> reports) {
+    this.productCount = productCount;
+    this.approximateHeapBytes = approximateHeapBytes;
+    this.operations = Map.copyOf(operations);
+    this.reports = Map.copyOf(reports);
+  }
+
+  public long getProductCount() {
+    return productCount;
+  }
+
+  public long getApproximateHeapBytes() {
+    return approximateHeapBytes;
+  }
+
+  /**
+   * Latencias por operación, con el nombre de
+   * {@link InventoryMetrics.Operation} como clave.
+   *
+   * @return histograma de cada operación
+   */
+  public Map<String, HistogramSnapshot> getOperations() {
+    return operations;
+  }
+
+  /**
+   * Métricas de cada reporte, por nombre.
+   *
+   * @return métricas de cada reporte
+   */
+  public Map<String, ReportStats> getReports() {
+    return reports;
+  }
+}
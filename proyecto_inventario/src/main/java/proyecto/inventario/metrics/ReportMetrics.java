@@ -0,0 +1,45 @@
+package proyecto.inventario.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas acumuladas de un reporte: ejecuciones, filas, bytes escritos y
+ * duración de cada ejecución.
+ */
+public final class ReportMetrics {
+  private final String name;
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LatencyHistogram durations = new LatencyHistogram();
+
+  ReportMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Registra una ejecución terminada.
+   *
+   * @param rowCount filas entregadas al reporte
+   * @param byteCount bytes que escribió, o 0 si no los informa
+   * @param nanos duración de la ejecución
+   * @param failed si terminó con error
+   */
+  public void recordRun(long rowCount, long byteCount, long nanos, boolean failed) {
+    rows.add(rowCount);
+    bytes.add(byteCount);
+    durations.record(nanos);
+    if (failed) {
+      failures.increment();
+    }
+  }
+
+  /**
+   * Copia el estado actual.
+   *
+   * @return métricas del reporte en este momento
+   */
+  public ReportStats snapshot() {
+    return new ReportStats(name, failures.sum(), rows.sum(), bytes.sum(), durations.snapshot());
+  }
+}
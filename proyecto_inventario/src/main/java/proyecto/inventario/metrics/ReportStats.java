@@ -0,0 +1,54 @@
+package proyecto.inventario.metrics;
+
+/**
+ * Copia inmutable de las {@link ReportMetrics} de un reporte.
+ */
+public final class ReportStats {
+  private final String name;
+  private final long failures;
+  private final long rows;
+  private final long bytes;
+  private final HistogramSnapshot duration;
+
+  ReportStats(String name, long failures, long rows, long bytes, HistogramSnapshot duration) {
+    this.name = name;
+    this.failures = failures;
+    this.rows = rows;
+    this.bytes = bytes;
+    this.duration = duration;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getRuns() {
+    return duration.getCount();
+  }
+
+  public long getFailures() {
+    return failures;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getBytesWritten() {
+    return bytes;
+  }
+
+  public HistogramSnapshot getDuration() {
+    return duration;
+  }
+
+  /**
+   * Filas por segundo sobre el tiempo total de todas las ejecuciones.
+   *
+   * @return filas por segundo, o 0 si todavía no hubo ejecuciones
+   */
+  public double getRowsPerSecond() {
+    long nanos = duration.getTotalNanos();
+    return nanos == 0 ? 0 : rows * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,48 @@
+package proyecto.inventario.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Reemplazo atómico y durable de un archivo por otro ya sincronizado.
+ */
+final class AtomicFiles {
+  private static final boolean WINDOWS =
+      System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+  private AtomicFiles() {
+  }
+
+  /**
+   * Renombra {@code source} sobre {@code target} de forma atómica y
+   * sincroniza el directorio, para que el renombre también sobreviva a un
+   * corte de energía. {@code source} ya debe estar sincronizado.
+   *
+   * @param source archivo nuevo, en el mismo directorio que {@code target}
+   * @param target archivo a reemplazar
+   * @throws IOException si no se puede renombrar o sincronizar
+   */
+  static void replace(Path source, Path target) throws IOException {
+    Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    forceDirectory(target.toAbsolutePath().getParent());
+  }
+
+  /**
+   * Sincroniza las entradas de un directorio. Windows no permite abrir un
+   * directorio como canal; allí NTFS ya registra el renombre en su diario.
+   */
+  private static void forceDirectory(Path directory) throws IOException {
+    if (WINDOWS || directory == null) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+}
@@ -0,0 +1,376 @@
+package proyecto.inventario.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import proyecto.inventario.Inventory;
+import proyecto.inventario.InventoryReader;
+import proyecto.inventario.InventorySnapshot;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.ProductBatch;
+
+/**
+ * {@link InventoryWriter} que registra cada escritura en un
+ * {@link WriteAheadLog}: cuando un método vuelve sin error, la operación
+ * ya está en disco y sobrevive a un reinicio.
+ *
+ * <p>Cada operación se aplica al inventario y se anexa al registro bajo un
+ * candado por nombre, de modo que para un mismo producto el orden del
+ * registro es el orden en que se aplicó; productos distintos no compiten.
+ * La espera del fsync ocurre fuera del candado y se comparte con todos los
+ * escritores del mismo lote, así que los lectores del inventario pueden
+ * ver una escritura antes de que termine su fsync. Las operaciones que
+ * fallan (por ejemplo ajustar un producto inexistente) no se registran.
+ *
+ * <p>Si el registro ya falló, la escritura se rechaza sin tocar el
+ * inventario. Si el anexo falla después de aplicarla, se deshace
+ * devolviendo el producto a su cantidad y precio anteriores (los escuchas
+ * ven también esa escritura) y se lanza el error. Si lo que falla es el
+ * fsync, el método lanza la excepción pero el cambio ya se vio y puede no
+ * estar en disco: el registro queda inutilizable, toda escritura posterior
+ * se rechaza antes de aplicarse, y el inventario se recupera reabriendo el
+ * registro con {@link #open}.
+ */
+public class DurableInventoryWriter implements InventoryWriter, AutoCloseable {
+  private static final int STRIPES = 64;
+
+  private final InventoryWriter writer;
+  private final InventoryReader reader;
+  private final WriteAheadLog log;
+  private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+  /**
+   * Envuelve un inventario ya reconstruido con su registro.
+   *
+   * @param writer inventario donde se aplican las escrituras
+   * @param reader el mismo inventario, para compactar y para deshacer una
+   *     escritura que no se pudo registrar
+   * @param log registro abierto sobre el que se anexa
+   */
+  public DurableInventoryWriter(InventoryWriter writer, InventoryReader reader,
+      WriteAheadLog log) {
+    this.writer = writer;
+    this.reader = reader;
+    this.log = log;
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Abre el registro en {@code path}, lo reproduce en {@code inventory} y
+   * devuelve el escritor listo para usar.
+   *
+   * @param path ruta del registro
+   * @param inventory inventario a reconstruir
+   * @return escritor durable sobre el inventario
+   * @throws IOException si el registro no se puede abrir o leer
+   */
+  public static DurableInventoryWriter open(String path, Inventory inventory)
+      throws IOException {
+    WriteAheadLog log = new WriteAheadLog(path);
+    try {
+      log.replay(inventory);
+    } catch (IOException | RuntimeException e) {
+      log.close();
+      throw e;
+    }
+    return new DurableInventoryWriter(inventory, inventory, log);
+  }
+
+  /**
+   * Como {@link #open(String, Inventory)}, pero arranca desde el punto de
+   * control en {@code checkpoint}, si existe, y reproduce sólo las
+   * operaciones del registro posteriores a él. Un punto de control anterior
+   * a la última compactación del registro se ignora: el registro solo ya
+   * reconstruye el inventario.
+   *
+   * @param path ruta del registro
+   * @param checkpoint ruta del punto de control escrito con {@link #checkpoint}
+   * @param inventory inventario vacío a reconstruir
+   * @return escritor durable sobre el inventario
+   * @throws IOException si el registro o el punto de control no se pueden
+   *     leer, o si el punto de control es posterior al registro
+   */
+  public static DurableInventoryWriter open(String path, String checkpoint,
+      Inventory inventory) throws IOException {
+    WriteAheadLog log = new WriteAheadLog(path);
+    try {
+      recover(log, checkpoint, inventory);
+    } catch (IOException | RuntimeException e) {
+      log.close();
+      throw e;
+    }
+    return new DurableInventoryWriter(inventory, inventory, log);
+  }
+
+  /**
+   * Carga el punto de control, si corresponde, y reproduce el resto del
+   * registro.
+   *
+   * @return cantidad de operaciones del registro aplicadas
+   */
+  static long recover(WriteAheadLog log, String checkpoint, InventoryWriter target)
+      throws IOException {
+    long from = 0;
+    if (Files.exists(Paths.get(checkpoint))) {
+      long position = InventoryCheckpoint.logPosition(checkpoint);
+      if (position >= log.base()) {
+        InventoryCheckpoint.load(checkpoint, target);
+        from = position;
+      }
+    }
+    return log.replay(target, from);
+  }
+
+  @Override
+  public void addProduct(String name, int quantity, double price) {
+    long position;
+    ReentrantLock stripe = stripe(name);
+    stripe.lock();
+    try {
+      log.checkWritable();
+      Prior prior = prior(name);
+      writer.addProduct(name, quantity, price);
+      position = append(prior, () -> log.appendAdd(name, quantity, price));
+    } finally {
+      stripe.unlock();
+    }
+    log.awaitDurable(position);
+  }
+
+  /**
+   * Agrega el lote y lo registra como una alta por producto. Se toman una
+   * vez, en orden, los candados de todos los nombres del lote, y se espera
+   * un solo fsync para el lote entero en lugar de uno por producto.
+   *
+   * @param batch productos a agregar
+   */
+  @Override
+  public void addProducts(ProductBatch batch) {
+    BitSet used = new BitSet(STRIPES);
+    for (int i = 0; i < batch.size(); i++) {
+      used.set(stripeIndex(batch.getName(i)));
+    }
+    long position = 0;
+    for (int i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1)) {
+      stripes[i].lock();
+    }
+    try {
+      log.checkWritable();
+      Map<String, Prior> priors = new HashMap<>();
+      for (int i = 0; i < batch.size(); i++) {
+        priors.computeIfAbsent(batch.getName(i), this::prior);
+      }
+      writer.addProducts(batch);
+      try {
+        for (int i = 0; i < batch.size(); i++) {
+          position = log.appendAdd(batch.getName(i), batch.getQuantity(i), batch.getPrice(i));
+        }
+      } catch (RuntimeException e) {
+        priors.values().forEach(this::undo);
+        throw e;
+      }
+    } finally {
+      for (int i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1)) {
+        stripes[i].unlock();
+      }
+    }
+    log.awaitDurable(position);
+  }
+
+  @Override
+  public Product upsert(String name, int quantity, double price) {
+    Product product;
+    long position;
+    ReentrantLock stripe = stripe(name);
+    stripe.lock();
+    try {
+      log.checkWritable();
+      Prior prior = prior(name);
+      product = writer.upsert(name, quantity, price);
+      position = append(prior, () -> log.appendUpsert(name, quantity, price));
+    } finally {
+      stripe.unlock();
+    }
+    log.awaitDurable(position);
+    return product;
+  }
+
+  @Override
+  public int adjustQuantity(String name, int delta) {
+    int quantity;
+    long position;
+    ReentrantLock stripe = stripe(name);
+    stripe.lock();
+    try {
+      log.checkWritable();
+      Prior prior = prior(name);
+      quantity = writer.adjustQuantity(name, delta);
+      position = append(prior, () -> log.appendAdjust(name, delta));
+    } finally {
+      stripe.unlock();
+    }
+    log.awaitDurable(position);
+    return quantity;
+  }
+
+  /**
+   * Quita el producto y registra la baja, para que la reproducción no lo
+   * vuelva a crear. Si el producto no existía no se registra nada.
+   *
+   * @param name nombre del producto
+   * @return {@code true} si el producto existía
+   */
+  @Override
+  public boolean removeProduct(String name) {
+    long position;
+    ReentrantLock stripe = stripe(name);
+    stripe.lock();
+    try {
+      log.checkWritable();
+      Prior prior = prior(name);
+      if (!writer.removeProduct(name)) {
+        return false;
+      }
+      position = append(prior, () -> log.appendRemove(name));
+    } finally {
+      stripe.unlock();
+    }
+    log.awaitDurable(position);
+    return true;
+  }
+
+  /**
+   * Reescribe el registro como un {@code upsert} por producto más las
+   * operaciones posteriores, para que la próxima reproducción sea
+   * proporcional al catálogo y no a la historia. Las escrituras sólo se
+   * detienen un instante para fijar la instantánea; el lector debe dar
+   * instantáneas consistentes, como las de {@link Inventory}.
+   *
+   * @throws IOException si no se puede escribir el registro compactado
+   */
+  public void compact() throws IOException {
+    InventorySnapshot snapshot;
+    long position;
+    lockAll();
+    try {
+      // Sin escrituras a medias: el inventario refleja exactamente el
+      // registro hasta esta posición.
+      position = log.position();
+      snapshot = reader.snapshot();
+    } finally {
+      unlockAll();
+    }
+    try (InventorySnapshot open = snapshot) {
+      log.compact(open.getProducts(), position);
+    }
+  }
+
+  /**
+   * Escribe un punto de control del inventario junto con la posición del
+   * registro a la que corresponde, para arrancar con
+   * {@link #open(String, String, Inventory)} sin reproducir lo anterior.
+   * Como en {@link #compact}, las escrituras sólo se detienen para fijar la
+   * instantánea.
+   *
+   * @param path ruta del punto de control
+   * @throws IOException si no se puede escribir
+   */
+  public void checkpoint(String path) throws IOException {
+    InventorySnapshot snapshot;
+    long position;
+    lockAll();
+    try {
+      position = log.position();
+      snapshot = reader.snapshot();
+    } finally {
+      unlockAll();
+    }
+    try (InventorySnapshot open = snapshot) {
+      // El punto de control no puede adelantarse a lo que está en disco.
+      log.awaitDurable(position);
+      InventoryCheckpoint.write(open.getProducts(), path, position);
+    }
+  }
+
+  /**
+   * Espera lo pendiente y cierra el registro.
+   *
+   * @throws IOException si no se pudo escribir lo pendiente
+   */
+  @Override
+  public void close() throws IOException {
+    log.close();
+  }
+
+  /**
+   * Anexa una escritura ya aplicada; si el anexo falla, la deshace antes
+   * de propagar el error. Se llama con el candado del nombre tomado.
+   */
+  private long append(Prior prior, LongSupplier append) {
+    try {
+      return append.getAsLong();
+    } catch (RuntimeException e) {
+      undo(prior);
+      throw e;
+    }
+  }
+
+  private Prior prior(String name) {
+    Product product = reader.findByName(name).orElse(null);
+    return product == null
+        ? new Prior(name, false, 0, 0)
+        : new Prior(name, true, product.getQuantity(), product.getPrice());
+  }
+
+  private void undo(Prior prior) {
+    if (prior.existed) {
+      writer.upsert(prior.name, prior.quantity, prior.price);
+    } else {
+      writer.removeProduct(prior.name);
+    }
+  }
+
+  private void lockAll() {
+    for (ReentrantLock stripe : stripes) {
+      stripe.lock();
+    }
+  }
+
+  private void unlockAll() {
+    for (ReentrantLock stripe : stripes) {
+      stripe.unlock();
+    }
+  }
+
+  private ReentrantLock stripe(String name) {
+    return stripes[stripeIndex(name)];
+  }
+
+  private static int stripeIndex(String name) {
+    int hash = name.hashCode();
+    return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+  }
+
+  /** Cantidad y precio de un producto antes de una escritura, o su ausencia. */
+  private static final class Prior {
+    private final String name;
+    private final boolean existed;
+    private final int quantity;
+    private final double price;
+
+    private Prior(String name, boolean existed, int quantity, double price) {
+      this.name = name;
+      this.existed = existed;
+      this.quantity = quantity;
+      this.price = price;
+    }
+  }
+}
@@ -0,0 +1,361 @@
+package proyecto.inventario.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import proyecto.inventario.InventoryReader;
+import proyecto.inventario.InventorySnapshot;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.ProductBatch;
+import proyecto.inventario.repository.InventoryRepository;
+
+/**
+ * Punto de control binario con el catálogo completo, para arrancar sin
+ * reprocesar un CSV fila por fila.
+ *
+ * <p>Formato (big-endian):
+ * <pre>
+ * encabezado  int MAGIC, int VERSION, int cantidad, long posición del registro
+ * productos   int largoNombre, byte[] nombre UTF-8, int cantidad, double precio
+ * offsets     long posición de cada producto
+ * pie         long posición de los offsets, int CRC32 de las secciones anteriores
+ * </pre>
+ *
+ * <p>El archivo se escribe en uno temporal que se sincroniza y se renombra
+ * de forma atómica, sincronizando después el directorio, así que un corte
+ * nunca deja un punto de control a medias. Se carga con lecturas NIO de
+ * bloques grandes, después de verificar el CRC de todo el cuerpo, y se
+ * entrega de una vez como lote al repositorio o al inventario; o se
+ * {@link #map mapea} para atender lecturas antes de
+ * terminar de cargarlo: la tabla de offsets permite leer cualquier
+ * producto sin recorrer los anteriores.
+ *
+ * <p>La posición del registro es la del {@link WriteAheadLog} en la que se
+ * tomó el catálogo, o 0 si no hay registro; al arrancar se reproduce sólo
+ * lo posterior (ver {@link DurableInventoryWriter#checkpoint}).
+ */
+public final class InventoryCheckpoint {
+  static final int MAGIC = 0x494E5643;
+  static final int VERSION = 2;
+  static final int HEADER_BYTES = 3 * Integer.BYTES + Long.BYTES;
+  static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+  private static final int BLOCK_SIZE = 4 * 1024 * 1024;
+  private static final int FIXED_RECORD_BYTES = 2 * Integer.BYTES + Double.BYTES;
+
+  private InventoryCheckpoint() {
+  }
+
+  /**
+   * Escribe un punto de control con una instantánea de {@code reader}.
+   *
+   * @param reader inventario a guardar
+   * @param path ruta del punto de control
+   * @throws IOException si no se puede escribir
+   */
+  public static void write(InventoryReader reader, String path) throws IOException {
+    try (InventorySnapshot snapshot = reader.snapshot()) {
+      write(snapshot.getProducts(), path);
+    }
+  }
+
+  /**
+   * Escribe un punto de control con los productos dados, sin registro
+   * asociado. Reemplaza de forma atómica el archivo anterior, si existía.
+   *
+   * @param products productos a guardar
+   * @param path ruta del punto de control
+   * @throws IOException si no se puede escribir
+   */
+  public static void write(List<Product> products, String path) throws IOException {
+    write(products, path, 0);
+  }
+
+  /**
+   * Escribe un punto de control con los productos dados, que reflejan el
+   * {@link WriteAheadLog} hasta {@code logPosition}.
+   *
+   * @param products productos a guardar
+   * @param path ruta del punto de control
+   * @param logPosition posición lógica del registro, ya sincronizada
+   * @throws IOException si no se puede escribir
+   */
+  static void write(List<Product> products, String path, long logPosition)
+      throws IOException {
+    Path target = Paths.get(path);
+    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+    int count = products.size();
+    long[] offsets = new long[count];
+    CRC32 crc = new CRC32();
+    try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putLong(logPosition);
+      long position = HEADER_BYTES;
+      for (int i = 0; i < count; i++) {
+        Product product = products.get(i);
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_RECORD_BYTES + name.length;
+        if (buffer.remaining() < length) {
+          flush(out, buffer, crc);
+          if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(length);
+          }
+        }
+        offsets[i] = position;
+        buffer.putInt(name.length).put(name)
+            .putInt(product.getQuantity()).putDouble(product.getPrice());
+        position += length;
+      }
+      for (long offset : offsets) {
+        if (buffer.remaining() < Long.BYTES) {
+          flush(out, buffer, crc);
+        }
+        buffer.putLong(offset);
+      }
+      flush(out, buffer, crc);
+      buffer.putLong(position).putInt((int) crc.getValue());
+      flush(out, buffer, null);
+      out.force(true);
+    }
+    AtomicFiles.replace(temporary, target);
+  }
+
+  /**
+   * Carga el punto de control con una sola llamada a
+   * {@link InventoryWriter#addProducts}: el repositorio crece una vez y los
+   * escuchas reciben un único aviso. Los nombres de un punto de control no
+   * se repiten, así que en un inventario vacío equivale a un
+   * {@code upsert} por producto; si el destino ya tiene alguno, se suman
+   * las cantidades como en {@code addProduct}.
+   *
+   * @param path ruta del punto de control
+   * @param writer inventario destino
+   * @return cantidad de productos cargados
+   * @throws IOException si no se puede leer o está dañado; un archivo
+   *     dañado se detecta antes de cargar ningún producto
+   */
+  public static long load(String path, InventoryWriter writer) throws IOException {
+    ProductBatch batch = read(path);
+    writer.addProducts(batch);
+    return batch.size();
+  }
+
+  /**
+   * Carga el punto de control directamente en un repositorio, con una sola
+   * llamada a {@link InventoryRepository#addAll} y las mismas reglas que
+   * {@link #load(String, InventoryWriter)}.
+   *
+   * @param path ruta del punto de control
+   * @param repository repositorio destino
+   * @return cantidad de productos cargados
+   * @throws IOException si no se puede leer o está dañado; un archivo
+   *     dañado se detecta antes de cargar ningún producto
+   */
+  public static long load(String path, InventoryRepository repository) throws IOException {
+    ProductBatch batch = read(path);
+    List<Product> products = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      products.add(new Product(batch.getName(i), batch.getQuantity(i), batch.getPrice(i)));
+    }
+    repository.addAll(products);
+    return batch.size();
+  }
+
+  private static ProductBatch read(String path) throws IOException {
+    try (FileChannel in = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      long size = in.size();
+      if (size < HEADER_BYTES + FOOTER_BYTES) {
+        throw new IOException("Not an inventory checkpoint: " + path);
+      }
+      verify(in, size, path);
+      BlockReader reader = new BlockReader(in, size - FOOTER_BYTES, path);
+      int count = readHeader(reader.require(HEADER_BYTES), size, path);
+      ProductBatch batch = new ProductBatch(count);
+      byte[] name = new byte[256];
+      for (int i = 0; i < count; i++) {
+        int length = reader.require(Integer.BYTES).getInt();
+        if (length < 0 || length > reader.remaining()) {
+          throw corrupt(path);
+        }
+        if (name.length < length) {
+          name = new byte[Math.max(length, name.length * 2)];
+        }
+        ByteBuffer record = reader.require((long) length + Integer.BYTES + Double.BYTES);
+        record.get(name, 0, length);
+        String decoded = new String(name, 0, length, StandardCharsets.UTF_8);
+        batch.add(decoded, record.getInt(), record.getDouble());
+      }
+      return batch;
+    }
+  }
+
+  /**
+   * Posición del {@link WriteAheadLog} a la que corresponde el punto de
+   * control, o 0 si se escribió sin registro. Sólo lee el encabezado; el
+   * CRC se verifica al cargarlo.
+   *
+   * @param path ruta del punto de control
+   * @return posición lógica del registro
+   * @throws IOException si no se puede leer o no tiene el formato esperado
+   */
+  public static long logPosition(String path) throws IOException {
+    try (FileChannel in = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (in.read(header, header.position()) < 0) {
+          break;
+        }
+      }
+      header.flip();
+      readHeader(header, in.size(), path);
+      return header.getLong(HEADER_BYTES - Long.BYTES);
+    }
+  }
+
+  /**
+   * Compara el CRC del cuerpo con el del pie antes de entregar ningún
+   * producto, como {@link MappedCheckpoint#loadInto}. Lee el archivo una
+   * vez más, por bloques grandes, que en general ya están en la caché de
+   * páginas del sistema.
+   */
+  private static void verify(FileChannel in, long size, String path) throws IOException {
+    long end = size - FOOTER_BYTES;
+    ByteBuffer block = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, Math.max(end, 1)));
+    CRC32 crc = new CRC32();
+    long position = 0;
+    while (position < end) {
+      block.clear();
+      if (block.remaining() > end - position) {
+        block.limit((int) (end - position));
+      }
+      int read = in.read(block, position);
+      if (read < 0) {
+        throw corrupt(path);
+      }
+      crc.update(block.array(), 0, read);
+      position += read;
+    }
+    ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+    while (footer.hasRemaining()) {
+      if (in.read(footer, end + footer.position()) < 0) {
+        throw corrupt(path);
+      }
+    }
+    if (footer.getInt(Long.BYTES) != (int) crc.getValue()) {
+      throw corrupt(path);
+    }
+  }
+
+  /**
+   * Mapea el punto de control en memoria. Las lecturas se pueden atender
+   * en cuanto vuelve este método, mientras
+   * {@link MappedCheckpoint#loadInto} copia los productos al inventario.
+   *
+   * @param path ruta del punto de control
+   * @return vista de sólo lectura sobre el archivo
+   * @throws IOException si no se puede leer o no tiene el formato esperado
+   */
+  public static MappedCheckpoint map(String path) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Checkpoint too large to map: " + path);
+      }
+      MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new MappedCheckpoint(data, path);
+    }
+  }
+
+  static int readHeader(ByteBuffer data, long size, String path) throws IOException {
+    if (size < HEADER_BYTES + FOOTER_BYTES || data.remaining() < HEADER_BYTES
+        || data.getInt() != MAGIC) {
+      throw new IOException("Not an inventory checkpoint: " + path);
+    }
+    if (data.getInt() != VERSION) {
+      throw new IOException("Unsupported checkpoint version: " + path);
+    }
+    int count = data.getInt();
+    if (count < 0 || (long) count * (FIXED_RECORD_BYTES + Long.BYTES) > size
+        || data.getLong() < 0) {
+      throw corrupt(path);
+    }
+    return count;
+  }
+
+  static IOException corrupt(String path) {
+    return new IOException("Corrupt inventory checkpoint: " + path);
+  }
+
+  private static void flush(FileChannel out, ByteBuffer buffer, CRC32 crc) throws IOException {
+    buffer.flip();
+    if (crc != null) {
+      crc.update(buffer.array(), 0, buffer.limit());
+    }
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Lectura por bloques grandes del cuerpo del archivo.
+   */
+  private static final class BlockReader {
+    private final FileChannel in;
+    private final long end;
+    private final String path;
+    private ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE).flip();
+    private long position;
+
+    private BlockReader(FileChannel in, long end, String path) {
+      this.in = in;
+      this.end = end;
+      this.path = path;
+    }
+
+    /**
+     * Devuelve el búfer con al menos {@code bytes} bytes disponibles.
+     */
+    private ByteBuffer require(long bytes) throws IOException {
+      if (buffer.remaining() >= bytes) {
+        return buffer;
+      }
+      if (bytes > remaining()) {
+        throw corrupt(path);
+      }
+      if (buffer.capacity() < bytes) {
+        long capacity = Math.min(remaining(), Math.max(bytes, buffer.capacity() * 2L));
+        ByteBuffer larger = ByteBuffer.allocate((int) capacity);
+        buffer = larger.put(buffer);
+      } else {
+        buffer.compact();
+      }
+      while (buffer.hasRemaining() && position < end) {
+        if (buffer.remaining() > end - position) {
+          buffer.limit(buffer.position() + (int) (end - position));
+        }
+        int read = in.read(buffer, position);
+        if (read < 0) {
+          throw corrupt(path);
+        }
+        position += read;
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    /** Bytes del cuerpo que quedan por consumir, en el búfer o en el archivo. */
+    private long remaining() {
+      return end - position + buffer.remaining();
+    }
+  }
+}
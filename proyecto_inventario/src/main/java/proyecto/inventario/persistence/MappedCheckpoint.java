@@ -0,0 +1,160 @@
+package proyecto.inventario.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import proyecto.inventario.InventoryReader;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.ProductBatch;
+
+/**
+ * Punto de control mapeado en memoria que se puede consultar de inmediato.
+ *
+ * <p>Abrirlo sólo valida el encabezado y el pie: no lee los productos. Cada
+ * posición se resuelve con la tabla de offsets y se decodifica al pedirla,
+ * de modo que el proceso puede atender lecturas mientras
+ * {@link #loadInto} copia el catálogo al inventario en segundo plano. Los
+ * productos que entrega son copias de sólo lectura del punto de control.
+ */
+public class MappedCheckpoint implements InventoryReader {
+  private final ByteBuffer data;
+  private final String path;
+  private final int count;
+  private final int offsets;
+  private final int body;
+
+  MappedCheckpoint(ByteBuffer data, String path) throws IOException {
+    this.data = data;
+    this.path = path;
+    int size = data.limit();
+    this.count = InventoryCheckpoint.readHeader(data.duplicate(), size, path);
+    this.body = size - InventoryCheckpoint.FOOTER_BYTES;
+    long offsetsPosition = data.getLong(body);
+    if (offsetsPosition < InventoryCheckpoint.HEADER_BYTES
+        || offsetsPosition + (long) count * Long.BYTES != body) {
+      throw InventoryCheckpoint.corrupt(path);
+    }
+    this.offsets = (int) offsetsPosition;
+  }
+
+  /**
+   * Productos del punto de control, decodificados al leer cada posición.
+   *
+   * @return lista inmutable de productos
+   */
+  @Override
+  public List<Product> getProducts() {
+    return new Records();
+  }
+
+  /**
+   * Busca un producto comparando los bytes del nombre, sin decodificar los
+   * demás.
+   *
+   * @param name nombre del producto
+   * @return el producto, si existe
+   */
+  @Override
+  public Optional<Product> findByName(String name) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < count; i++) {
+      int at = offset(i);
+      if (data.getInt(at) == encoded.length && sameBytes(at + Integer.BYTES, encoded)) {
+        return Optional.of(product(at));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Verifica el CRC y copia todos los productos a {@code target} con una
+   * sola llamada a {@link InventoryWriter#addProducts}, en {@code executor},
+   * con las reglas de {@link InventoryCheckpoint#load(String, InventoryWriter)}.
+   * Si el archivo está dañado no se copia nada.
+   *
+   * @param target inventario destino
+   * @param executor donde correr la carga
+   * @return futuro con la cantidad de productos cargados
+   */
+  public CompletableFuture<Long> loadInto(InventoryWriter target, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      CRC32 crc = new CRC32();
+      ByteBuffer covered = data.duplicate();
+      covered.position(0).limit(body);
+      crc.update(covered);
+      if ((int) crc.getValue() != data.getInt(body + Long.BYTES)) {
+        throw new UncheckedIOException(InventoryCheckpoint.corrupt(path));
+      }
+      ProductBatch batch = new ProductBatch(count);
+      for (int i = 0; i < count; i++) {
+        int at = offset(i);
+        int length = data.getInt(at);
+        int values = at + Integer.BYTES + length;
+        batch.add(decode(at + Integer.BYTES, length), data.getInt(values),
+            data.getDouble(values + Integer.BYTES));
+      }
+      target.addProducts(batch);
+      return (long) count;
+    }, executor);
+  }
+
+  private int offset(int index) {
+    long at = data.getLong(offsets + index * Long.BYTES);
+    if (at < InventoryCheckpoint.HEADER_BYTES || at >= offsets) {
+      throw new UncheckedIOException(InventoryCheckpoint.corrupt(path));
+    }
+    return (int) at;
+  }
+
+  private Product product(int at) {
+    int length = data.getInt(at);
+    int values = at + Integer.BYTES + length;
+    return new Product(decode(at + Integer.BYTES, length), data.getInt(values),
+        data.getDouble(values + Integer.BYTES));
+  }
+
+  private String decode(int from, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer source = data.duplicate();
+    source.position(from);
+    source.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private boolean sameBytes(int from, byte[] expected) {
+    for (int i = 0; i < expected.length; i++) {
+      if (data.get(from + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Vista posicional sobre la tabla de offsets.
+   */
+  private final class Records extends AbstractList<Product> implements RandomAccess {
+
+    @Override
+    public Product get(int index) {
+      if (index < 0 || index >= count) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+      }
+      return product(offset(index));
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,591 @@
+package proyecto.inventario.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+
+/**
+ * Registro de sólo-anexar con las escrituras del inventario.
+ *
+ * <p>Cada registro es {@code [longitud][CRC32][operación]}. Las escrituras
+ * se copian a un búfer en memoria y un hilo propio las pasa al archivo por
+ * lotes con un único {@link FileChannel#force} por lote (group commit):
+ * mientras se sincroniza un lote se acumula el siguiente, así que el costo
+ * del fsync se reparte entre todos los escritores que esperan.
+ *
+ * <p>Al abrir el registro se puede {@link #replay reproducir} en un
+ * inventario; un registro final incompleto o con CRC inválido (un corte a
+ * mitad de escritura) se descarta. {@link #compact} reemplaza el prefijo ya
+ * aplicado por un registro por producto para acotar esa reproducción.
+ *
+ * <p>Las posiciones que devuelven los métodos {@code append} son lógicas:
+ * crecen siempre, también después de compactar y de reabrir. Un archivo
+ * compactado empieza con un registro {@code BASE} con la posición lógica
+ * de su primer byte y la {@link #base() posición} cuyo estado resume. Un
+ * punto de control guarda la posición a la que corresponde, y
+ * {@link #replay(InventoryWriter, long)} aplica sólo lo posterior.
+ *
+ * <p>Si una escritura al archivo falla, el registro queda inutilizable: las
+ * esperas y los {@code append} siguientes lanzan el mismo error en lugar de
+ * acumular operaciones que nunca llegarían al disco.
+ */
+public class WriteAheadLog implements AutoCloseable {
+  static final byte ADD = 1;
+  static final byte UPSERT = 2;
+  static final byte ADJUST = 3;
+  static final byte REMOVE = 4;
+  static final byte BASE = 5;
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+  private static final int BASE_LENGTH = 1 + 2 * Long.BYTES;
+  private static final int INITIAL_BUFFER = 64 * 1024;
+
+  private final Path path;
+  private final Object lock = new Object();
+  private final ReentrantLock ioLock = new ReentrantLock();
+  private final ReentrantLock compactLock = new ReentrantLock();
+  private final Thread flusher;
+  private FileChannel channel;
+  private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+  private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+  /** Posición lógica del byte 0 del archivo actual. */
+  private long fileOrigin;
+  /** Posición lógica hasta la que el archivo resume el estado; 0 sin compactar. */
+  private long base;
+  private long appended;
+  private long durable;
+  /** Posición lógica de la última compactación; se usa con compactLock. */
+  private long compactedAt;
+  private boolean replayable = true;
+  private boolean closed;
+  private IOException failure;
+
+  /**
+   * Abre (o crea) el registro en {@code path}.
+   *
+   * @param path ruta del archivo de registro
+   * @throws IOException si no se puede abrir
+   */
+  public WriteAheadLog(String path) throws IOException {
+    this.path = Paths.get(path);
+    this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    readBase();
+    this.appended = fileOrigin + channel.size();
+    this.durable = appended;
+    channel.position(channel.size());
+    this.flusher = new Thread(this::flushLoop, "wal-flusher-" + this.path.getFileName());
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Aplica a {@code target} todas las operaciones del registro, en orden.
+   * Debe llamarse antes de anexar; descarta una cola dañada.
+   *
+   * @param target inventario a reconstruir
+   * @return cantidad de operaciones aplicadas
+   * @throws IOException si el archivo no se puede leer
+   */
+  public long replay(InventoryWriter target) throws IOException {
+    return replay(target, 0);
+  }
+
+  /**
+   * Aplica a {@code target}, en orden, las operaciones que terminan
+   * después de {@code from}: las demás ya están en el punto de control
+   * cargado en {@code target}. Debe llamarse antes de anexar; descarta una
+   * cola dañada.
+   *
+   * @param target inventario a reconstruir
+   * @param from posición lógica del punto de control, o 0 sin él
+   * @return cantidad de operaciones aplicadas
+   * @throws IOException si el archivo no se puede leer o termina antes de
+   *     {@code from}
+   * @throws IllegalArgumentException si {@code from} es anterior a la
+   *     {@link #base() base} compactada
+   */
+  public long replay(InventoryWriter target, long from) throws IOException {
+    if (from != 0 && from < base) {
+      throw new IllegalArgumentException(
+          "Position " + from + " is older than the compacted log base " + base);
+    }
+    ioLock.lock();
+    try {
+      synchronized (lock) {
+        if (!replayable) {
+          throw new IllegalStateException("Replay must run once, before any append");
+        }
+        replayable = false;
+      }
+      long valid = 0;
+      long operations = 0;
+      InputStream stream = new BufferedInputStream(
+          Channels.newInputStream(channel.position(0)), INITIAL_BUFFER);
+      DataInputStream in = new DataInputStream(stream);
+      CRC32 crc = new CRC32();
+      byte[] payload = new byte[256];
+      while (true) {
+        int length;
+        int checksum;
+        try {
+          length = in.readInt();
+          checksum = in.readInt();
+          if (length < 1 || length > channel.size() - valid) {
+            break;
+          }
+          if (payload.length < length) {
+            payload = new byte[Math.max(length, payload.length * 2)];
+          }
+          in.readFully(payload, 0, length);
+        } catch (EOFException e) {
+          break;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        valid += HEADER_BYTES + length;
+        if (payload[0] != BASE && fileOrigin + valid > from) {
+          apply(ByteBuffer.wrap(payload, 0, length), target);
+          operations++;
+        }
+      }
+      if (fileOrigin + valid < from) {
+        throw new IOException("Checkpoint is ahead of the write-ahead log: " + path);
+      }
+      if (valid < channel.size()) {
+        // Cola de una escritura interrumpida: se descarta.
+        channel.truncate(valid);
+        channel.force(true);
+      }
+      channel.position(valid);
+      synchronized (lock) {
+        appended = fileOrigin + valid;
+        durable = appended;
+      }
+      return operations;
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  /**
+   * Anexa un {@code addProduct}.
+   *
+   * @return posición lógica del fin del registro
+   * @throws UncheckedIOException si una escritura anterior falló
+   */
+  public long appendAdd(String name, int quantity, double price) {
+    return append(encode(ADD, name, quantity, price));
+  }
+
+  /**
+   * Anexa un {@code upsert}.
+   *
+   * @return posición lógica del fin del registro
+   * @throws UncheckedIOException si una escritura anterior falló
+   */
+  public long appendUpsert(String name, int quantity, double price) {
+    return append(encode(UPSERT, name, quantity, price));
+  }
+
+  /**
+   * Anexa un {@code adjustQuantity}.
+   *
+   * @return posición lógica del fin del registro
+   * @throws UncheckedIOException si una escritura anterior falló
+   */
+  public long appendAdjust(String name, int delta) {
+    return append(encode(ADJUST, name, delta, 0));
+  }
+
+  /**
+   * Anexa un {@code removeProduct}.
+   *
+   * @return posición lógica del fin del registro
+   * @throws UncheckedIOException si una escritura anterior falló
+   */
+  public long appendRemove(String name) {
+    return append(encode(REMOVE, name, 0, 0));
+  }
+
+  /**
+   * Posición lógica cuyo estado resume el comienzo del archivo, escrita por
+   * la última {@link #compact compactación}; 0 si nunca se compactó. Un
+   * punto de control anterior ya no se puede combinar con el registro.
+   *
+   * @return posición lógica de la base
+   */
+  public long base() {
+    ioLock.lock();
+    try {
+      return base;
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  /**
+   * Posición lógica del fin del último registro anexado.
+   *
+   * @return posición lógica actual
+   */
+  public long position() {
+    synchronized (lock) {
+      return appended;
+    }
+  }
+
+  /**
+   * Espera a que todo lo anexado hasta {@code position} esté sincronizado
+   * en disco.
+   *
+   * @param position posición devuelta por un {@code append}
+   * @throws UncheckedIOException si el registro no se pudo escribir
+   */
+  public void awaitDurable(long position) {
+    synchronized (lock) {
+      boolean interrupted = false;
+      while (durable < position && failure == null && !closed) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure != null) {
+        throw new UncheckedIOException(failure);
+      }
+      if (durable < position) {
+        throw new IllegalStateException("Write-ahead log closed");
+      }
+    }
+  }
+
+  /**
+   * Reemplaza el prefijo del registro hasta {@code position} por un
+   * {@code upsert} por producto. {@code products} debe reflejar exactamente
+   * el efecto de los registros anteriores a {@code position} y de ninguno
+   * posterior. Los escritores no se bloquean mientras se escribe la copia;
+   * sólo al final, mientras se traslada la cola y se reemplaza el archivo.
+   *
+   * <p>Las compactaciones se ejecutan de a una. Si otra ya compactó hasta
+   * una posición posterior, ésta no hace nada. Si falla el reemplazo, el
+   * registro sigue anexando sobre el archivo que haya quedado en su lugar.
+   *
+   * @param products estado del inventario en {@code position}
+   * @param position posición lógica a la que corresponde ese estado
+   * @throws IOException si no se puede escribir el registro compactado
+   */
+  public void compact(List<Product> products, long position) throws IOException {
+    compactLock.lock();
+    try {
+      if (position >= compactedAt) {
+        rewrite(products, position);
+        compactedAt = position;
+      }
+    } finally {
+      compactLock.unlock();
+    }
+  }
+
+  private void rewrite(List<Product> products, long position) throws IOException {
+    // Todo lo anterior a position tiene que estar ya en el archivo.
+    awaitDurable(position);
+    Path target = path.resolveSibling(path.getFileName() + ".compact");
+    FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    try {
+      // La base va primero; su origen se completa al conocer el tamaño.
+      ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER);
+      buffer.put(encodeBase(0, position));
+      for (Product product : products) {
+        byte[] record = encode(UPSERT, product.getName(), product.getQuantity(),
+            product.getPrice());
+        if (buffer.remaining() < record.length) {
+          writeFully(out, buffer);
+          if (buffer.capacity() < record.length) {
+            buffer = ByteBuffer.allocate(record.length);
+          }
+        }
+        buffer.put(record);
+      }
+      writeFully(out, buffer);
+      long compactedSize = out.position();
+      ByteBuffer header = ByteBuffer.wrap(encodeBase(position - compactedSize, position));
+      while (header.hasRemaining()) {
+        out.write(header, header.position());
+      }
+
+      ioLock.lock();
+      try {
+        // El hilo de escritura está detenido: el archivo actual tiene todo
+        // lo que ya salió del búfer y nada más.
+        long from = position - fileOrigin;
+        long to = channel.size();
+        while (from < to) {
+          from += channel.transferTo(from, to - from, out);
+        }
+        out.force(true);
+        out.close();
+        channel.close();
+        try {
+          AtomicFiles.replace(target, path);
+        } finally {
+          // Con o sin reemplazo, el registro vuelve a tener un canal abierto
+          // sobre el archivo que quedó en path; si el temporal ya no está,
+          // el renombre se hizo aunque después fallara otra cosa.
+          channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+          channel.position(channel.size());
+          if (Files.notExists(target)) {
+            fileOrigin = position - compactedSize;
+            base = position;
+          }
+        }
+      } finally {
+        ioLock.unlock();
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Sincroniza lo pendiente y cierra el archivo.
+   *
+   * @throws IOException si no se pudo escribir lo pendiente
+   */
+  @Override
+  public void close() throws IOException {
+    long last;
+    synchronized (lock) {
+      last = appended;
+    }
+    try {
+      awaitDurable(last);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      synchronized (lock) {
+        closed = true;
+        lock.notifyAll();
+      }
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      channel.close();
+    }
+  }
+
+  /**
+   * Comprueba que el registro acepta escrituras, para rechazar una
+   * operación antes de aplicarla.
+   *
+   * @throws UncheckedIOException si una escritura anterior falló
+   * @throws IllegalStateException si el registro está cerrado
+   */
+  void checkWritable() {
+    synchronized (lock) {
+      if (failure != null) {
+        throw new UncheckedIOException(failure);
+      }
+      if (closed) {
+        throw new IllegalStateException("Write-ahead log closed");
+      }
+    }
+  }
+
+  /**
+   * Deja el registro inutilizable con {@code error}, como cuando falla una
+   * escritura al archivo: lo pendiente ya no se escribe y las esperas y
+   * {@code append} siguientes lanzan ese error.
+   */
+  void fail(IOException error) {
+    synchronized (lock) {
+      if (failure == null) {
+        failure = error;
+      }
+      lock.notifyAll();
+    }
+  }
+
+  private long append(byte[] record) {
+    synchronized (lock) {
+      checkWritable();
+      replayable = false;
+      if (pending.remaining() < record.length) {
+        ByteBuffer larger = ByteBuffer.allocate(
+            Math.max(pending.capacity() * 2, pending.position() + record.length));
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+      }
+      pending.put(record);
+      appended += record.length;
+      lock.notifyAll();
+      return appended;
+    }
+  }
+
+  private void flushLoop() {
+    while (true) {
+      ByteBuffer batch;
+      long target;
+      synchronized (lock) {
+        while (pending.position() == 0 && !closed && failure == null) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            // Sólo se termina al cerrar, para no perder lo pendiente.
+          }
+        }
+        if (pending.position() == 0 || failure != null) {
+          return;
+        }
+        batch = pending;
+        pending = spare;
+        spare = batch;
+        target = appended;
+      }
+      IOException error = null;
+      ioLock.lock();
+      try {
+        writeFully(channel, batch);
+        channel.force(false);
+      } catch (IOException e) {
+        error = e;
+      } finally {
+        ioLock.unlock();
+      }
+      batch.clear();
+      if (error != null) {
+        fail(error);
+        return;
+      }
+      synchronized (lock) {
+        durable = target;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Escribe lo acumulado en {@code buffer} y lo deja vacío.
+   */
+  private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Lee el registro {@code BASE} con el que empieza un archivo compactado,
+   * si lo hay.
+   */
+  private void readBase() throws IOException {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + BASE_LENGTH);
+    while (record.hasRemaining()) {
+      if (channel.read(record, record.position()) < 0) {
+        return;
+      }
+    }
+    if (record.getInt(0) != BASE_LENGTH || record.get(HEADER_BYTES) != BASE) {
+      return;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), HEADER_BYTES, BASE_LENGTH);
+    if ((int) crc.getValue() == record.getInt(Integer.BYTES)) {
+      fileOrigin = record.getLong(HEADER_BYTES + 1);
+      base = record.getLong(HEADER_BYTES + 1 + Long.BYTES);
+    }
+  }
+
+  /**
+   * Codifica el registro {@code BASE}: la posición lógica del primer byte
+   * del archivo y la posición cuyo estado resumen los registros que siguen.
+   */
+  private static byte[] encodeBase(long origin, long position) {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + BASE_LENGTH);
+    record.putInt(BASE_LENGTH).putInt(0).put(BASE).putLong(origin).putLong(position);
+    return seal(record, BASE_LENGTH);
+  }
+
+  /**
+   * Codifica un registro. Las altas llevan cantidad y precio, los ajustes
+   * sólo la variación y las bajas sólo el nombre.
+   */
+  static byte[] encode(byte operation, String name, int quantity, double price) {
+    byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+    boolean hasQuantity = operation != REMOVE;
+    boolean hasPrice = operation == ADD || operation == UPSERT;
+    int length = 1 + Integer.BYTES + encodedName.length + (hasQuantity ? Integer.BYTES : 0)
+        + (hasPrice ? Double.BYTES : 0);
+    ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+    record.putInt(length).putInt(0).put(operation).putInt(encodedName.length)
+        .put(encodedName);
+    if (hasQuantity) {
+      record.putInt(quantity);
+    }
+    if (hasPrice) {
+      record.putDouble(price);
+    }
+    return seal(record, length);
+  }
+
+  /**
+   * Completa el CRC de un registro ya escrito en {@code record}.
+   */
+  private static byte[] seal(ByteBuffer record, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), HEADER_BYTES, length);
+    record.putInt(Integer.BYTES, (int) crc.getValue());
+    return record.array();
+  }
+
+  private static void apply(ByteBuffer payload, InventoryWriter target) throws IOException {
+    byte operation = payload.get();
+    byte[] name = new byte[payload.getInt()];
+    payload.get(name);
+    String decoded = new String(name, StandardCharsets.UTF_8);
+    switch (operation) {
+      case ADD:
+        target.addProduct(decoded, payload.getInt(), payload.getDouble());
+        break;
+      case UPSERT:
+        target.upsert(decoded, payload.getInt(), payload.getDouble());
+        break;
+      case ADJUST:
+        target.adjustQuantity(decoded, payload.getInt());
+        break;
+      case REMOVE:
+        target.removeProduct(decoded);
+        break;
+      default:
+        throw new IOException("Unknown write-ahead log operation: " + operation);
+    }
+  }
+}
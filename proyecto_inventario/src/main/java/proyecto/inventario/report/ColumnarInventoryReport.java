@@ -0,0 +1,324 @@
+package proyecto.inventario.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import proyecto.inventario.Product;
+
+/**
+ * Reporte binario por columnas para procesos de análisis, que se lee con
+ * {@link ColumnarReportReader}.
+ *
+ * <p>Formato (big-endian; los varint usan 7 bits por byte y los valores con
+ * signo van en zigzag):
+ * <pre>
+ * encabezado   int MAGIC, int VERSION
+ * nombres      varint tamañoDiccionario, entradas ordenadas con prefijo
+ *              compartido (varint compartido, varint largo, byte[] sufijo),
+ *              varint índice en el diccionario por fila
+ * cantidades   varint zigzag diferencia con la fila anterior
+ * precios      byte codificación; CENTS: varint zigzag diferencia en
+ *              centavos con la fila anterior, RAW: double por fila
+ * pie          int filas, long offset de cada columna, min/max de nombre,
+ *              cantidad y precio
+ * cola         int largo del pie, int MAGIC
+ * </pre>
+ *
+ * <p>El pie va al final para poder escribir el archivo de una pasada; un
+ * lector lo ubica desde la cola y con los offsets lee sólo las columnas que
+ * necesita, o con los min/max descarta el archivo sin leerlo.
+ */
+public class ColumnarInventoryReport implements InventoryReport {
+  static final int MAGIC = 0x494E5652;
+  static final int VERSION = 1;
+  static final byte CENTS = 0;
+  static final byte RAW = 1;
+  static final int TRAILER_BYTES = 2 * Integer.BYTES;
+  static final long NOT_CENTS = Long.MIN_VALUE;
+  /** Mayor magnitud en centavos que un double representa sin error. */
+  private static final double CENTS_LIMIT = 1e15;
+
+  private final String path;
+
+  public ColumnarInventoryReport(String path) {
+    this.path = path;
+  }
+
+  @Override
+  public void generateReport(List<Product> products) {
+    write(products);
+  }
+
+  /**
+   * Acumula los productos y escribe el archivo al cerrar: el diccionario
+   * necesita todos los nombres antes de escribir la primera fila.
+   *
+   * @return destino de los productos del reporte
+   */
+  @Override
+  public ReportSink open() {
+    List<Product> products = new ArrayList<>();
+    return new ReportSink() {
+      private long written;
+
+      @Override
+      public void accept(Product product) {
+        products.add(product);
+      }
+
+      @Override
+      public long bytesWritten() {
+        return written;
+      }
+
+      @Override
+      public void close() {
+        written = write(products);
+      }
+    };
+  }
+
+  /** Escribe el archivo y devuelve su tamaño, o 0 si falló. */
+  private long write(List<Product> products) {
+    int rows = products.size();
+    String[] names = new String[rows];
+    int[] quantities = new int[rows];
+    double[] prices = new double[rows];
+    // Una sola lectura por producto: las columnas quedan consistentes aunque
+    // la lista sea una vista viva.
+    for (int i = 0; i < rows; i++) {
+      Product p = products.get(i);
+      names[i] = p.getName();
+      quantities[i] = p.getQuantity();
+      prices[i] = p.getPrice();
+    }
+    try (OutputStream out = Files.newOutputStream(Paths.get(path))) {
+      ColumnOutput column = new ColumnOutput(out);
+      column.writeInt(MAGIC);
+      column.writeInt(VERSION);
+      final long namesOffset = column.written();
+      final String[] dictionary = writeNames(column, names);
+      final long quantitiesOffset = column.written();
+      writeQuantities(column, quantities);
+      final long pricesOffset = column.written();
+      writePrices(column, prices);
+
+      long footerOffset = column.written();
+      column.writeInt(rows);
+      column.writeLong(namesOffset);
+      column.writeLong(quantitiesOffset);
+      column.writeLong(pricesOffset);
+      column.writeLong(footerOffset);
+      column.writeString(rows == 0 ? "" : dictionary[0]);
+      column.writeString(rows == 0 ? "" : dictionary[dictionary.length - 1]);
+      int minQuantity = rows == 0 ? 0 : Integer.MAX_VALUE;
+      int maxQuantity = rows == 0 ? 0 : Integer.MIN_VALUE;
+      for (int quantity : quantities) {
+        minQuantity = Math.min(minQuantity, quantity);
+        maxQuantity = Math.max(maxQuantity, quantity);
+      }
+      column.writeInt(minQuantity);
+      column.writeInt(maxQuantity);
+      double minPrice = Double.POSITIVE_INFINITY;
+      double maxPrice = Double.NEGATIVE_INFINITY;
+      for (double price : prices) {
+        if (!Double.isNaN(price)) {
+          minPrice = Math.min(minPrice, price);
+          maxPrice = Math.max(maxPrice, price);
+        }
+      }
+      column.writeDouble(minPrice > maxPrice ? Double.NaN : minPrice);
+      column.writeDouble(minPrice > maxPrice ? Double.NaN : maxPrice);
+      column.writeInt((int) (column.written() - footerOffset));
+      column.writeInt(MAGIC);
+      column.flush();
+      return column.written();
+    } catch (IOException e) {
+      e.printStackTrace();
+      return 0;
+    }
+  }
+
+  /**
+   * Escribe el diccionario ordenado y el índice de cada fila; devuelve el
+   * diccionario.
+   */
+  private static String[] writeNames(ColumnOutput column, String[] names) throws IOException {
+    Map<String, Integer> ids = new HashMap<>(names.length * 4 / 3 + 1);
+    for (String name : names) {
+      ids.putIfAbsent(name, ids.size());
+    }
+    String[] dictionary = ids.keySet().toArray(new String[0]);
+    Arrays.sort(dictionary);
+    column.writeVarint(dictionary.length);
+    byte[] previous = new byte[0];
+    for (int i = 0; i < dictionary.length; i++) {
+      ids.put(dictionary[i], i);
+      // Ordenadas, las entradas vecinas comparten prefijo: sólo se guarda
+      // el sufijo.
+      byte[] encoded = dictionary[i].getBytes(StandardCharsets.UTF_8);
+      int shared = 0;
+      int limit = Math.min(previous.length, encoded.length);
+      while (shared < limit && previous[shared] == encoded[shared]) {
+        shared++;
+      }
+      column.writeVarint(shared);
+      column.writeVarint(encoded.length - shared);
+      column.writeBytes(encoded, shared, encoded.length - shared);
+      previous = encoded;
+    }
+    for (String name : names) {
+      column.writeVarint(ids.get(name));
+    }
+    return dictionary;
+  }
+
+  private static void writeQuantities(ColumnOutput column, int[] quantities) throws IOException {
+    long previous = 0;
+    for (int quantity : quantities) {
+      column.writeVarint(zigzag(quantity - previous));
+      previous = quantity;
+    }
+  }
+
+  private static void writePrices(ColumnOutput column, double[] prices) throws IOException {
+    long[] cents = new long[prices.length];
+    for (int i = 0; i < prices.length; i++) {
+      cents[i] = cents(prices[i]);
+      if (cents[i] == NOT_CENTS) {
+        column.writeByte(RAW);
+        for (double price : prices) {
+          column.writeDouble(price);
+        }
+        return;
+      }
+    }
+    column.writeByte(CENTS);
+    long previous = 0;
+    for (long value : cents) {
+      column.writeVarint(zigzag(value - previous));
+      previous = value;
+    }
+  }
+
+  /**
+   * Precio en centavos, o {@link #NOT_CENTS} si no se recupera exacto
+   * (incluido el signo de {@code -0.0}) al dividir por 100.
+   */
+  static long cents(double price) {
+    double scaled = price * 100.0;
+    if (!(Math.abs(scaled) < CENTS_LIMIT)) {
+      return NOT_CENTS;
+    }
+    long cents = Math.round(scaled);
+    return Double.doubleToLongBits(cents / 100.0) == Double.doubleToLongBits(price)
+        ? cents : NOT_CENTS;
+  }
+
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Salida con búfer propio que lleva la cuenta de los bytes escritos para
+   * registrar los offsets de las columnas.
+   */
+  private static final class ColumnOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private long flushed;
+
+    private ColumnOutput(OutputStream out) {
+      this.out = out;
+    }
+
+    long written() {
+      return flushed + position;
+    }
+
+    void writeByte(int b) throws IOException {
+      ensure(1);
+      buffer[position++] = (byte) b;
+    }
+
+    void writeInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeDouble(double value) throws IOException {
+      writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    void writeVarint(long value) throws IOException {
+      ensure(10);
+      long remaining = value;
+      while ((remaining & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+        remaining >>>= 7;
+      }
+      buffer[position++] = (byte) remaining;
+    }
+
+    void writeString(String value) throws IOException {
+      byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+      writeInt(encoded.length);
+      writeBytes(encoded, 0, encoded.length);
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+      if (length > buffer.length - position) {
+        flushBuffer();
+        if (length > buffer.length) {
+          out.write(bytes, offset, length);
+          flushed += length;
+          return;
+        }
+      }
+      System.arraycopy(bytes, offset, buffer, position, length);
+      position += length;
+    }
+
+    void flush() throws IOException {
+      flushBuffer();
+      out.flush();
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.length - position < bytes) {
+        flushBuffer();
+      }
+    }
+
+    private void flushBuffer() throws IOException {
+      if (position > 0) {
+        out.write(buffer, 0, position);
+        flushed += position;
+        position = 0;
+      }
+    }
+  }
+}
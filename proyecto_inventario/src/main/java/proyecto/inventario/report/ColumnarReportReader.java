@@ -0,0 +1,289 @@
+package proyecto.inventario.report;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import proyecto.inventario.Product;
+
+/**
+ * Lee los archivos de {@link ColumnarInventoryReport}.
+ *
+ * <p>Abrir el archivo sólo lee el pie: las estadísticas de cada columna
+ * están disponibles sin tocar los datos, y cada columna se lee por separado
+ * desde su offset, de modo que un proceso que sólo suma cantidades no
+ * decodifica nombres ni precios.
+ */
+public final class ColumnarReportReader {
+  private final String path;
+  private final int rows;
+  private final long namesOffset;
+  private final long quantitiesOffset;
+  private final long pricesOffset;
+  private final long footerOffset;
+  private final String minName;
+  private final String maxName;
+  private final int minQuantity;
+  private final int maxQuantity;
+  private final double minPrice;
+  private final double maxPrice;
+
+  private ColumnarReportReader(String path, ByteBuffer footer, long footerOffset)
+      throws IOException {
+    this.path = path;
+    this.rows = footer.getInt();
+    this.namesOffset = footer.getLong();
+    this.quantitiesOffset = footer.getLong();
+    this.pricesOffset = footer.getLong();
+    this.footerOffset = footer.getLong();
+    if (rows < 0 || this.footerOffset != footerOffset
+        || namesOffset != 2 * Integer.BYTES || quantitiesOffset < namesOffset
+        || pricesOffset < quantitiesOffset || footerOffset <= pricesOffset) {
+      throw corrupt(path);
+    }
+    this.minName = readString(footer);
+    this.maxName = readString(footer);
+    this.minQuantity = footer.getInt();
+    this.maxQuantity = footer.getInt();
+    this.minPrice = footer.getDouble();
+    this.maxPrice = footer.getDouble();
+  }
+
+  /**
+   * Abre un reporte leyendo sólo su encabezado y su pie.
+   *
+   * @param path ruta del reporte
+   * @return lector del reporte
+   * @throws IOException si no se puede leer o no tiene el formato esperado
+   */
+  public static ColumnarReportReader open(String path) throws IOException {
+    try (FileChannel in = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      long size = in.size();
+      int minimum = 2 * Integer.BYTES + ColumnarInventoryReport.TRAILER_BYTES;
+      if (size < minimum) {
+        throw notAReport(path);
+      }
+      ByteBuffer header = read(in, 0, 2 * Integer.BYTES, path);
+      ByteBuffer trailer = read(in, size - ColumnarInventoryReport.TRAILER_BYTES,
+          ColumnarInventoryReport.TRAILER_BYTES, path);
+      if (header.getInt() != ColumnarInventoryReport.MAGIC
+          || trailer.getInt(Integer.BYTES) != ColumnarInventoryReport.MAGIC) {
+        throw notAReport(path);
+      }
+      if (header.getInt() != ColumnarInventoryReport.VERSION) {
+        throw new IOException("Unsupported columnar report version: " + path);
+      }
+      int footerLength = trailer.getInt(0);
+      long footerOffset = size - ColumnarInventoryReport.TRAILER_BYTES - footerLength;
+      if (footerLength < 0 || footerOffset < minimum - ColumnarInventoryReport.TRAILER_BYTES) {
+        throw corrupt(path);
+      }
+      try {
+        return new ColumnarReportReader(path, read(in, footerOffset, footerLength, path),
+            footerOffset);
+      } catch (RuntimeException e) {
+        throw corrupt(path);
+      }
+    }
+  }
+
+  public int getRowCount() {
+    return rows;
+  }
+
+  /**
+   * Menor nombre (orden de {@link String#compareTo}); vacío si no hay filas.
+   *
+   * @return menor nombre
+   */
+  public String getMinName() {
+    return minName;
+  }
+
+  /**
+   * Mayor nombre (orden de {@link String#compareTo}); vacío si no hay filas.
+   *
+   * @return mayor nombre
+   */
+  public String getMaxName() {
+    return maxName;
+  }
+
+  public int getMinQuantity() {
+    return minQuantity;
+  }
+
+  public int getMaxQuantity() {
+    return maxQuantity;
+  }
+
+  /**
+   * Menor precio sin contar {@code NaN}; {@code NaN} si no hay ninguno.
+   *
+   * @return menor precio
+   */
+  public double getMinPrice() {
+    return minPrice;
+  }
+
+  /**
+   * Mayor precio sin contar {@code NaN}; {@code NaN} si no hay ninguno.
+   *
+   * @return mayor precio
+   */
+  public double getMaxPrice() {
+    return maxPrice;
+  }
+
+  /**
+   * Lee la columna de nombres.
+   *
+   * @return nombre de cada fila
+   * @throws IOException si no se puede leer o está dañada
+   */
+  public String[] readNames() throws IOException {
+    ByteBuffer column = readColumn(namesOffset, quantitiesOffset);
+    try {
+      int size = (int) readVarint(column);
+      if (size < 0 || size > rows) {
+        throw corrupt(path);
+      }
+      String[] dictionary = new String[size];
+      byte[] previous = new byte[0];
+      for (int i = 0; i < size; i++) {
+        int shared = (int) readVarint(column);
+        int length = (int) readVarint(column);
+        byte[] encoded = new byte[shared + length];
+        System.arraycopy(previous, 0, encoded, 0, shared);
+        column.get(encoded, shared, length);
+        dictionary[i] = new String(encoded, StandardCharsets.UTF_8);
+        previous = encoded;
+      }
+      String[] names = new String[rows];
+      for (int i = 0; i < rows; i++) {
+        names[i] = dictionary[(int) readVarint(column)];
+      }
+      return names;
+    } catch (RuntimeException e) {
+      throw corrupt(path);
+    }
+  }
+
+  /**
+   * Lee la columna de cantidades.
+   *
+   * @return cantidad de cada fila
+   * @throws IOException si no se puede leer o está dañada
+   */
+  public int[] readQuantities() throws IOException {
+    ByteBuffer column = readColumn(quantitiesOffset, pricesOffset);
+    try {
+      int[] quantities = new int[rows];
+      long previous = 0;
+      for (int i = 0; i < rows; i++) {
+        previous += ColumnarInventoryReport.unzigzag(readVarint(column));
+        quantities[i] = Math.toIntExact(previous);
+      }
+      return quantities;
+    } catch (RuntimeException e) {
+      throw corrupt(path);
+    }
+  }
+
+  /**
+   * Lee la columna de precios.
+   *
+   * @return precio de cada fila
+   * @throws IOException si no se puede leer o está dañada
+   */
+  public double[] readPrices() throws IOException {
+    ByteBuffer column = readColumn(pricesOffset, footerOffset);
+    try {
+      double[] prices = new double[rows];
+      byte encoding = column.get();
+      if (encoding == ColumnarInventoryReport.RAW) {
+        for (int i = 0; i < rows; i++) {
+          prices[i] = column.getDouble();
+        }
+      } else if (encoding == ColumnarInventoryReport.CENTS) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+          previous += ColumnarInventoryReport.unzigzag(readVarint(column));
+          prices[i] = previous / 100.0;
+        }
+      } else {
+        throw corrupt(path);
+      }
+      return prices;
+    } catch (RuntimeException e) {
+      throw corrupt(path);
+    }
+  }
+
+  /**
+   * Lee las tres columnas y arma los productos.
+   *
+   * @return productos en el orden del reporte
+   * @throws IOException si no se puede leer o está dañado
+   */
+  public List<Product> readProducts() throws IOException {
+    String[] names = readNames();
+    int[] quantities = readQuantities();
+    double[] prices = readPrices();
+    List<Product> products = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      products.add(new Product(names[i], quantities[i], prices[i]));
+    }
+    return products;
+  }
+
+  private ByteBuffer readColumn(long from, long to) throws IOException {
+    if (to - from > Integer.MAX_VALUE) {
+      throw new IOException("Column too large: " + path);
+    }
+    try (FileChannel in = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      return read(in, from, (int) (to - from), path);
+    }
+  }
+
+  private static ByteBuffer read(FileChannel in, long position, int length, String path)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (in.read(buffer, position + buffer.position()) < 0) {
+        throw corrupt(path);
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static long readVarint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  private static String readString(ByteBuffer in) {
+    byte[] encoded = new byte[in.getInt()];
+    in.get(encoded);
+    return new String(encoded, StandardCharsets.UTF_8);
+  }
+
+  private static IOException notAReport(String path) {
+    return new IOException("Not a columnar inventory report: " + path);
+  }
+
+  private static IOException corrupt(String path) {
+    return new IOException("Corrupt columnar inventory report: " + path);
+  }
+}
@@ -1,16 +1,112 @@
 package proyecto.inventario.report;
 
+import java.io.PrintStream;
 import java.util.List;
 import proyecto.inventario.Product;
 
 /**
  * Reporte que imprime los productos por consola.
+ *
+ * <p>Las líneas tienen el formato de {@link Product#getDetails()}, pero se
+ * arman directamente en un búfer de caracteres reutilizable y se entregan
+ * a la consola por lotes: una escritura (y un flush) cada
+ * {@code flushLines} líneas, en lugar de un {@code println} sincronizado
+ * con su propia cadena por producto.
  */
 public class ConsoleInventoryReport implements InventoryReport {
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  static final int DEFAULT_FLUSH_LINES = 1024;
+
+  private final PrintStream out;
+  private final int bufferSize;
+  private final int flushLines;
+
+  /**
+   * Reporte sobre {@code System.out}, resuelto al generar cada reporte.
+   */
+  public ConsoleInventoryReport() {
+    this(null, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_LINES);
+  }
+
+  /**
+   * Reporte con salida y lotes propios.
+   *
+   * @param out flujo de salida, o {@code null} para {@code System.out}
+   * @param bufferSize caracteres acumulados a partir de los cuales se
+   *     escribe aunque el lote no esté completo
+   * @param flushLines líneas por escritura; 1 escribe cada línea
+   */
+  public ConsoleInventoryReport(PrintStream out, int bufferSize, int flushLines) {
+    if (bufferSize < 1 || flushLines < 1) {
+      throw new IllegalArgumentException("bufferSize and flushLines must be >= 1");
+    }
+    this.out = out;
+    this.bufferSize = bufferSize;
+    this.flushLines = flushLines;
+  }
+
   @Override
   public void generateReport(List<Product> products) {
-    for (Product p : products) {
-      System.out.println(p.getDetails());
+    try (ReportSink sink = open()) {
+      for (Product p : products) {
+        sink.accept(p);
+      }
+    }
+  }
+
+  @Override
+  public ReportSink open() {
+    return new ConsoleSink(out == null ? System.out : out, bufferSize, flushLines);
+  }
+
+  /** Líneas acumuladas en un búfer que se vacía por lotes. */
+  private static final class ConsoleSink implements ReportSink {
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final PrintStream out;
+    private final StringBuilder buffer;
+    private final int bufferSize;
+    private final int flushLines;
+    private int lines;
+    private long written;
+
+    private ConsoleSink(PrintStream out, int bufferSize, int flushLines) {
+      this.out = out;
+      this.buffer = new StringBuilder(Math.min(bufferSize, DEFAULT_BUFFER_SIZE) + 128);
+      this.bufferSize = bufferSize;
+      this.flushLines = flushLines;
+    }
+
+    @Override
+    public void accept(Product product) {
+      // Mismo texto que getDetails(), sin la concatenación intermedia.
+      buffer.append("Product: ").append(product.getName())
+          .append(", Quantity: ").append(product.getQuantity())
+          .append(", Price: $").append(product.getPrice())
+          .append(NEWLINE);
+      if (++lines >= flushLines || buffer.length() >= bufferSize) {
+        flush();
+      }
+    }
+
+    @Override
+    public long bytesWritten() {
+      return written + buffer.length();
+    }
+
+    @Override
+    public void close() {
+      if (buffer.length() > 0) {
+        flush();
+      }
+    }
+
+    private void flush() {
+      out.append(buffer);
+      out.flush();
+      written += buffer.length();
+      buffer.setLength(0);
+      lines = 0;
     }
   }
-}
\ No newline at end of file
+}
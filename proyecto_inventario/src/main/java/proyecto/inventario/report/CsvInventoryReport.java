@@ -1,37 +1,314 @@
 package proyecto.inventario.report;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import proyecto.inventario.ChangeTracker;
 import proyecto.inventario.Product;
+import proyecto.inventario.ProductChange;
 
 /**
  * Reporte que genera un archivo CSV con los productos.
+ * Las filas se escriben con {@link CsvRowWriter}, que formatea directamente
+ * sobre un búfer de bytes y entrecomilla los nombres que lo necesitan.
+ *
+ * <p>El reporte creado con {@link #gzip} escribe el mismo CSV comprimido:
+ * los bloques se comprimen en paralelo con {@link ParallelGzipOutputStream}
+ * mientras el hilo del reporte sigue formateando filas. Los creados con
+ * {@link #partitioned} y {@link #sharded} formatean rangos de filas en
+ * paralelo con {@link PartitionedCsvWriter}.
  */
 public class CsvInventoryReport implements InventoryReport {
+  static final int DEFAULT_GZIP_BLOCK_SIZE = 1024 * 1024;
+  static final int DEFAULT_RANGE_SIZE = 16 * 1024;
+
   private final String path;
+  private final Executor compressor;
+  private final int blockSize;
+  private final int maxPending;
+  private final PartitionedCsvWriter partitioned;
 
   public CsvInventoryReport(String path) {
+    this(path, null, 0, 0, null);
+  }
+
+  private CsvInventoryReport(String path, Executor compressor, int blockSize, int maxPending,
+      PartitionedCsvWriter partitioned) {
     this.path = path;
+    this.compressor = compressor;
+    this.blockSize = blockSize;
+    this.maxPending = maxPending;
+    this.partitioned = partitioned;
+  }
+
+  /**
+   * Reporte CSV comprimido con gzip en bloques de 1 MiB sobre el pool común
+   * de fork-join, con hasta dos bloques por núcleo en vuelo.
+   *
+   * @param path archivo a escribir, por ejemplo {@code inventario.csv.gz}
+   * @return reporte comprimido
+   */
+  public static CsvInventoryReport gzip(String path) {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    return gzip(path, pool, DEFAULT_GZIP_BLOCK_SIZE, 2 * pool.getParallelism());
+  }
+
+  /**
+   * Reporte CSV comprimido con gzip en paralelo. Cada bloque es un miembro
+   * gzip propio; el archivo es la concatenación, en orden, de todos ellos.
+   *
+   * @param path archivo a escribir
+   * @param compressor dónde se comprimen los bloques
+   * @param blockSize bytes de CSV por bloque
+   * @param maxPending bloques que pueden estar comprimiéndose a la vez
+   * @return reporte comprimido
+   */
+  public static CsvInventoryReport gzip(String path, Executor compressor, int blockSize,
+      int maxPending) {
+    if (blockSize < 1 || maxPending < 1) {
+      throw new IllegalArgumentException("blockSize and maxPending must be >= 1");
+    }
+    return new CsvInventoryReport(path, compressor, blockSize, maxPending, null);
+  }
+
+  /**
+   * Reporte CSV que formatea rangos de 16384 filas en paralelo sobre el
+   * pool común de fork-join.
+   *
+   * @param path archivo a escribir
+   * @return reporte particionado
+   */
+  public static CsvInventoryReport partitioned(String path) {
+    return partitioned(path, ForkJoinPool.commonPool(), DEFAULT_RANGE_SIZE);
+  }
+
+  /**
+   * Reporte CSV que formatea cada rango de filas en su propio búfer sobre
+   * {@code pool} y escribe los búferes en orden con escrituras
+   * posicionales. El archivo es idéntico al del reporte secuencial.
+   *
+   * @param path archivo a escribir
+   * @param pool dónde se formatean los rangos
+   * @param rangeSize filas por rango
+   * @return reporte particionado
+   */
+  public static CsvInventoryReport partitioned(String path, ForkJoinPool pool, int rangeSize) {
+    if (rangeSize < 1) {
+      throw new IllegalArgumentException("rangeSize must be >= 1");
+    }
+    return new CsvInventoryReport(path, null, 0, 0, new PartitionedCsvWriter(pool, rangeSize, 0));
+  }
+
+  /**
+   * Reporte que reparte los productos en {@code shards} archivos CSV
+   * escritos en paralelo, cada uno con su encabezado. Las filas de los
+   * fragmentos, leídas en orden, son las del reporte secuencial.
+   *
+   * @param path base de los nombres: {@code inventario.csv} da
+   *     {@code inventario-0.csv}, {@code inventario-1.csv}, ...
+   * @param pool dónde se escriben los fragmentos
+   * @param shards cantidad de archivos
+   * @return reporte fragmentado
+   */
+  public static CsvInventoryReport sharded(String path, ForkJoinPool pool, int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("shards must be >= 1");
+    }
+    return new CsvInventoryReport(path, null, 0, 0, new PartitionedCsvWriter(pool, 0, shards));
+  }
+
+  /**
+   * Nombre del fragmento {@code shard} de un reporte creado con
+   * {@link #sharded}.
+   *
+   * @param path base de los nombres
+   * @param shard índice del fragmento, desde 0
+   * @return ruta del fragmento
+   */
+  public static String shardPath(String path, int shard) {
+    return PartitionedCsvWriter.shardPath(Paths.get(path), shard).toString();
   }
 
   @Override
   public void generateReport(List<Product> products) {
-    try (
-        BufferedWriter writer = Files.newBufferedWriter(
-            Paths.get(path), StandardCharsets.UTF_8)
-    ) {
-      writer.write(String.format("Name,Quantity,Price%n"));
+    if (partitioned != null) {
+      writePartitioned(products);
+      return;
+    }
+    try (ReportSink sink = open()) {
       for (Product p : products) {
-        writer.write(
-            String.format("%s,%d,%.2f%n", p.getName(), p.getQuantity(), p.getPrice())
-        );
+        sink.accept(p);
+      }
+    }
+  }
+
+  /**
+   * Genera un reporte incremental con sólo los productos agregados,
+   * modificados o quitados desde la lectura anterior del registro. Cada
+   * fila lleva la operación delante: {@code U,nombre,cantidad,precio} o
+   * {@code D,nombre,,} para una baja. El costo es proporcional a los
+   * cambios, no al tamaño del catálogo.
+   *
+   * <p>Si el archivo no se termina de escribir, los cambios vuelven al
+   * registro para la próxima exportación. Un error de escritura se informa
+   * y devuelve {@code false}; cualquier otra excepción se propaga.
+   *
+   * @param tracker registro abierto con {@code Inventory.trackChanges()}
+   * @return {@code true} si el archivo se escribió completo
+   */
+  public boolean generateDelta(ChangeTracker tracker) {
+    List<ProductChange> changes = tracker.drain();
+    boolean written = false;
+    try {
+      try (OutputStream out = newOutputStream()) {
+        CsvRowWriter writer = new CsvRowWriter(out);
+        writer.writeDeltaHeader();
+        for (ProductChange change : changes) {
+          if (change.isRemoved()) {
+            writer.writeTombstone(change.getName());
+          } else {
+            writer.writeUpsert(change.getName(), change.getQuantity(), change.getPrice());
+          }
+        }
+        writer.flush();
+      }
+      written = true;
+      return true;
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    } finally {
+      if (!written) {
+        tracker.restore(changes);
       }
+    }
+  }
+
+  /**
+   * Abre el archivo y escribe el encabezado. Si falla la escritura, el
+   * error se informa una vez y se ignoran las filas siguientes.
+   * En los modos particionados acumula los productos y los escribe todos
+   * al cerrar.
+   *
+   * @return destino de las filas del CSV
+   */
+  @Override
+  public ReportSink open() {
+    if (partitioned != null) {
+      return new PartitionedSink();
+    }
+    try {
+      return new CsvSink(newOutputStream());
+    } catch (IOException e) {
+      e.printStackTrace();
+      return new CsvSink(null);
+    }
+  }
+
+  /** Escribe en paralelo; devuelve los bytes escritos, o 0 si falló. */
+  private long writePartitioned(List<Product> products) {
+    try {
+      return partitioned.write(Paths.get(path), products);
     } catch (IOException e) {
       e.printStackTrace();
+      return 0;
+    }
+  }
+
+  private OutputStream newOutputStream() throws IOException {
+    OutputStream file = Files.newOutputStream(Paths.get(path));
+    if (compressor == null) {
+      return file;
+    }
+    return new ParallelGzipOutputStream(file, compressor, blockSize, maxPending);
+  }
+
+  /** Acumula los productos y los escribe en paralelo al cerrar. */
+  private final class PartitionedSink implements ReportSink {
+    private final List<Product> products = new ArrayList<>();
+    private long written;
+
+    @Override
+    public void accept(Product product) {
+      products.add(product);
+    }
+
+    @Override
+    public long bytesWritten() {
+      return written;
+    }
+
+    @Override
+    public void close() {
+      written = writePartitioned(products);
+    }
+  }
+
+  /** Filas del CSV sobre un archivo abierto. */
+  private static final class CsvSink implements ReportSink {
+    private final OutputStream out;
+    private final CsvRowWriter writer;
+    private boolean failed;
+
+    private CsvSink(OutputStream out) {
+      this.out = out;
+      this.writer = out == null ? null : new CsvRowWriter(out);
+      this.failed = out == null;
+      if (!failed) {
+        try {
+          writer.writeHeader();
+        } catch (IOException e) {
+          fail(e);
+        }
+      }
+    }
+
+    @Override
+    public void accept(Product product) {
+      if (failed) {
+        return;
+      }
+      try {
+        writer.writeRow(product.getName(), product.getQuantity(), product.getPrice());
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    /** Bytes del archivo: los comprimidos si el reporte usa gzip. */
+    @Override
+    public long bytesWritten() {
+      if (out instanceof ParallelGzipOutputStream) {
+        return ((ParallelGzipOutputStream) out).written();
+      }
+      return writer == null ? 0 : writer.written();
+    }
+
+    @Override
+    public void close() {
+      if (out == null) {
+        return;
+      }
+      try (out) {
+        if (!failed) {
+          writer.flush();
+        }
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    /** Informa sólo el primer error; los siguientes son consecuencia de él. */
+    private void fail(IOException e) {
+      if (!failed) {
+        e.printStackTrace();
+      }
+      failed = true;
     }
   }
 }
@@ -0,0 +1,215 @@
+package proyecto.inventario.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Escribe filas {@code Name,Quantity,Price} en UTF-8 sobre un búfer de
+ * bytes reutilizable, sin pasar por {@code String.format} en cada fila.
+ * Los reportes incrementales anteponen la operación: {@code U} para un
+ * producto agregado o modificado y {@code D}, sin cantidad ni precio, para
+ * uno quitado.
+ *
+ * <p>La cantidad y el precio (redondeado a dos decimales, mitad hacia
+ * arriba, igual que {@code %.2f}) se convierten a dígitos directamente en
+ * el búfer. Los nombres con comas, comillas o saltos de línea se escriben
+ * entre comillas, duplicando las comillas internas.
+ */
+final class CsvRowWriter {
+  static final String HEADER = "Name,Quantity,Price";
+  static final String DELTA_HEADER = "Op,Name,Quantity,Price";
+
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  /** Mayor precio que se formatea sin riesgo de error en los centavos. */
+  private static final double FAST_PRICE_LIMIT = 1e9;
+  /** Cercanía a medio centavo a partir de la cual se delega en el formateador. */
+  private static final double TIE_MARGIN = 1e-4;
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private final byte[] newline;
+  private final byte[] digits = new byte[20];
+  private int position;
+  private long flushed;
+
+  CsvRowWriter(OutputStream out) {
+    this(out, DEFAULT_BUFFER_SIZE);
+  }
+
+  CsvRowWriter(OutputStream out, int bufferSize) {
+    this.out = out;
+    this.buffer = new byte[Math.max(bufferSize, 64)];
+    this.newline = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  void writeHeader() throws IOException {
+    writeAscii(HEADER);
+    writeNewline();
+  }
+
+  void writeRow(String name, int quantity, double price) throws IOException {
+    writeName(name);
+    writeByte(',');
+    writeLong(quantity);
+    writeByte(',');
+    writePrice(price);
+    writeNewline();
+  }
+
+  void writeDeltaHeader() throws IOException {
+    writeAscii(DELTA_HEADER);
+    writeNewline();
+  }
+
+  /** Fila de un reporte incremental para un producto agregado o modificado. */
+  void writeUpsert(String name, int quantity, double price) throws IOException {
+    writeAscii("U,");
+    writeRow(name, quantity, price);
+  }
+
+  /** Fila de un reporte incremental para un producto quitado. */
+  void writeTombstone(String name) throws IOException {
+    writeAscii("D,");
+    writeName(name);
+    writeAscii(",,");
+    writeNewline();
+  }
+
+  /** Bytes que todavía no se entregaron al flujo de salida. */
+  int buffered() {
+    return position;
+  }
+
+  /** Bytes escritos en total, incluidos los que siguen en el búfer. */
+  long written() {
+    return flushed + position;
+  }
+
+  void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  private void writeName(String name) throws IOException {
+    boolean ascii = true;
+    boolean quote = false;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c >= 0x80) {
+        ascii = false;
+      } else if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+        quote = true;
+      }
+    }
+    if (!quote) {
+      if (ascii) {
+        writeAscii(name);
+      } else {
+        writeBytes(name.getBytes(StandardCharsets.UTF_8));
+      }
+      return;
+    }
+    writeByte('"');
+    String escaped = name.replace("\"", "\"\"");
+    if (ascii) {
+      writeAscii(escaped);
+    } else {
+      writeBytes(escaped.getBytes(StandardCharsets.UTF_8));
+    }
+    writeByte('"');
+  }
+
+  private void writePrice(double price) throws IOException {
+    double magnitude = Math.abs(price);
+    if (!(magnitude < FAST_PRICE_LIMIT)) {
+      writeAscii(String.format(Locale.ROOT, "%.2f", price));
+      return;
+    }
+    double scaled = magnitude * 100.0;
+    double whole = Math.floor(scaled);
+    double fraction = scaled - whole;
+    if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+      // Casi exactamente medio centavo: el resultado depende de los dígitos
+      // decimales del double, así que se usa el formateador estándar.
+      writeAscii(String.format(Locale.ROOT, "%.2f", price));
+      return;
+    }
+    long cents = (long) whole + (fraction > 0.5 ? 1 : 0);
+    if (Double.doubleToRawLongBits(price) < 0) {
+      writeByte('-');
+    }
+    writeLong(cents / 100);
+    writeByte('.');
+    int fractionDigits = (int) (cents % 100);
+    writeByte('0' + fractionDigits / 10);
+    writeByte('0' + fractionDigits % 10);
+  }
+
+  private void writeLong(long value) throws IOException {
+    ensure(digits.length + 1);
+    if (value < 0) {
+      buffer[position++] = '-';
+    }
+    int count = 0;
+    long remaining = value;
+    do {
+      digits[count++] = (byte) ('0' + Math.abs(remaining % 10));
+      remaining /= 10;
+    } while (remaining != 0);
+    while (count > 0) {
+      buffer[position++] = digits[--count];
+    }
+  }
+
+  private void writeNewline() throws IOException {
+    writeBytes(newline);
+  }
+
+  private void writeByte(int b) throws IOException {
+    ensure(1);
+    buffer[position++] = (byte) b;
+  }
+
+  private void writeAscii(String text) throws IOException {
+    int offset = 0;
+    while (offset < text.length()) {
+      if (position == buffer.length) {
+        flushBuffer();
+      }
+      int count = Math.min(text.length() - offset, buffer.length - position);
+      for (int i = 0; i < count; i++) {
+        buffer[position++] = (byte) text.charAt(offset + i);
+      }
+      offset += count;
+    }
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    if (bytes.length > buffer.length - position) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        flushed += bytes.length;
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buffer.length - position < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      flushed += position;
+      position = 0;
+    }
+  }
+}
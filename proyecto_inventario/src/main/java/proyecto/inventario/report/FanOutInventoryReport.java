@@ -0,0 +1,239 @@
+package proyecto.inventario.report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import proyecto.inventario.Product;
+
+/**
+ * Reporte compuesto que recorre los productos una sola vez y entrega cada
+ * uno a todos los reportes registrados, a través de su {@link ReportSink}.
+ *
+ * <p>En modo secuencial cada producto pasa por los reportes en el hilo que
+ * genera el reporte. En modo {@link #parallel paralelo} cada reporte corre
+ * en un hilo propio: el recorrido agrupa los productos en lotes y publica
+ * el mismo lote (de sólo lectura) en una cola acotada por reporte, de modo
+ * que un reporte lento frena el recorrido en lugar de acumular memoria.
+ */
+public class FanOutInventoryReport implements InventoryReport {
+  static final int BATCH_SIZE = 1024;
+  private static final Product[] END = new Product[0];
+
+  private final List<InventoryReport> reports;
+  private final int queueCapacity;
+
+  /**
+   * Reporte compuesto secuencial.
+   *
+   * @param reports reportes que reciben cada producto, en este orden
+   */
+  public FanOutInventoryReport(InventoryReport... reports) {
+    this(0, reports);
+  }
+
+  private FanOutInventoryReport(int queueCapacity, InventoryReport... reports) {
+    this.reports = List.of(reports);
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Reporte compuesto que genera cada reporte en un hilo propio.
+   *
+   * @param queueCapacity lotes que puede tener pendientes cada reporte
+   * @param reports reportes que reciben cada producto
+   * @return reporte compuesto paralelo
+   */
+  public static FanOutInventoryReport parallel(int queueCapacity, InventoryReport... reports) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity must be >= 1");
+    }
+    return new FanOutInventoryReport(queueCapacity, reports);
+  }
+
+  @Override
+  public void generateReport(List<Product> products) {
+    try (ReportSink sink = open()) {
+      for (Product p : products) {
+        sink.accept(p);
+      }
+    }
+  }
+
+  @Override
+  public ReportSink open() {
+    return queueCapacity == 0 ? new Sequential() : new Parallel();
+  }
+
+  /** Entrega cada producto a todos los reportes en el hilo que llama. */
+  private final class Sequential implements ReportSink {
+    private final List<ReportSink> sinks = new ArrayList<>(reports.size());
+
+    private Sequential() {
+      for (InventoryReport report : reports) {
+        sinks.add(report.open());
+      }
+    }
+
+    @Override
+    public void accept(Product product) {
+      for (ReportSink sink : sinks) {
+        sink.accept(product);
+      }
+    }
+
+    @Override
+    public long bytesWritten() {
+      long total = 0;
+      for (ReportSink sink : sinks) {
+        total += sink.bytesWritten();
+      }
+      return total;
+    }
+
+    @Override
+    public void close() {
+      RuntimeException failure = null;
+      for (ReportSink sink : sinks) {
+        try {
+          sink.close();
+        } catch (RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  /** Publica lotes de productos a un hilo por reporte. */
+  private final class Parallel implements ReportSink {
+    private final List<BlockingQueue<Product[]>> queues = new ArrayList<>(reports.size());
+    private final List<Thread> threads = new ArrayList<>(reports.size());
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final AtomicLong written = new AtomicLong();
+    private Product[] batch = new Product[BATCH_SIZE];
+    private int size;
+
+    private Parallel() {
+      for (int i = 0; i < reports.size(); i++) {
+        BlockingQueue<Product[]> queue = new ArrayBlockingQueue<>(queueCapacity);
+        InventoryReport report = reports.get(i);
+        String name = "inventory-fanout-" + i;
+        Thread thread = new Thread(() -> consume(report, queue), name);
+        thread.setDaemon(true);
+        queues.add(queue);
+        threads.add(thread);
+        thread.start();
+      }
+    }
+
+    @Override
+    public void accept(Product product) {
+      batch[size++] = product;
+      if (size == BATCH_SIZE) {
+        publish(batch);
+        batch = new Product[BATCH_SIZE];
+        size = 0;
+      }
+    }
+
+    /**
+     * Bytes de los reportes que ya terminaron; el total, después de
+     * {@link #close()}.
+     */
+    @Override
+    public long bytesWritten() {
+      return written.get();
+    }
+
+    /**
+     * Publica lo pendiente, espera a que terminen todos los reportes y
+     * relanza el primer error de alguno de ellos.
+     */
+    @Override
+    public void close() {
+      try {
+        if (size > 0) {
+          publish(Arrays.copyOf(batch, size));
+        }
+        publish(END);
+        for (Thread thread : threads) {
+          thread.join();
+        }
+      } catch (InterruptedException e) {
+        for (Thread thread : threads) {
+          thread.interrupt();
+        }
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Report interrupted");
+      }
+      RuntimeException error = failure.get();
+      if (error != null) {
+        throw error;
+      }
+    }
+
+    private void publish(Product[] products) {
+      try {
+        for (BlockingQueue<Product[]> queue : queues) {
+          queue.put(products);
+        }
+      } catch (InterruptedException e) {
+        for (Thread thread : threads) {
+          thread.interrupt();
+        }
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Report interrupted");
+      }
+    }
+
+    private void consume(InventoryReport report, BlockingQueue<Product[]> queue) {
+      ReportSink sink = null;
+      try {
+        sink = report.open();
+        for (Product[] products = queue.take(); products != END; products = queue.take()) {
+          for (Product product : products) {
+            sink.accept(product);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        // El reporte que falla sigue vaciando su cola para no frenar el
+        // recorrido ni a los demás reportes.
+        failure.compareAndSet(null, e);
+        drain(queue);
+      } finally {
+        if (sink != null) {
+          try {
+            sink.close();
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          }
+          written.addAndGet(sink.bytesWritten());
+        }
+      }
+    }
+
+    private void drain(BlockingQueue<Product[]> queue) {
+      try {
+        Product[] discarded;
+        do {
+          discarded = queue.take();
+        } while (discarded != END);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
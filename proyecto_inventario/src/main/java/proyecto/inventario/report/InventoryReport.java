@@ -1,5 +1,6 @@
 package proyecto.inventario.report;
 
+import java.util.ArrayList;
 import java.util.List;
 import proyecto.inventario.Product;
 
@@ -8,4 +9,27 @@ import proyecto.inventario.Product;
  */
 public interface InventoryReport {
   void generateReport(List<Product> products);
+
+  /**
+   * Abre el reporte para recibir los productos de a uno, como hace
+   * {@link FanOutInventoryReport}. La implementación por defecto los
+   * acumula y llama a {@link #generateReport} al cerrar; los reportes que
+   * pueden escribir fila por fila la redefinen.
+   *
+   * @return destino de los productos del reporte
+   */
+  default ReportSink open() {
+    List<Product> products = new ArrayList<>();
+    return new ReportSink() {
+      @Override
+      public void accept(Product product) {
+        products.add(product);
+      }
+
+      @Override
+      public void close() {
+        generateReport(products);
+      }
+    };
+  }
 }
@@ -0,0 +1,80 @@
+package proyecto.inventario.report;
+
+import java.util.List;
+import proyecto.inventario.Product;
+import proyecto.inventario.metrics.ReportMetrics;
+
+/**
+ * Envuelve un reporte y registra en sus {@link ReportMetrics} la duración,
+ * las filas y los bytes escritos de cada ejecución, incluidas las que
+ * fallan. Medir cuesta un contador por fila.
+ */
+public class MeteredInventoryReport implements InventoryReport {
+  private final InventoryReport report;
+  private final ReportMetrics metrics;
+
+  /**
+   * Crea el reporte medido.
+   *
+   * @param report reporte a medir
+   * @param metrics dónde registrar, por ejemplo
+   *     {@code inventory.getMetrics().report("csv")}
+   */
+  public MeteredInventoryReport(InventoryReport report, ReportMetrics metrics) {
+    this.report = report;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void generateReport(List<Product> products) {
+    try (ReportSink sink = open()) {
+      for (Product p : products) {
+        sink.accept(p);
+      }
+    }
+  }
+
+  @Override
+  public ReportSink open() {
+    long start = System.nanoTime();
+    ReportSink sink;
+    try {
+      sink = report.open();
+    } catch (RuntimeException e) {
+      metrics.recordRun(0, 0, System.nanoTime() - start, true);
+      throw e;
+    }
+    return new ReportSink() {
+      private long rows;
+      private boolean failed;
+
+      @Override
+      public void accept(Product product) {
+        try {
+          sink.accept(product);
+        } catch (RuntimeException e) {
+          failed = true;
+          throw e;
+        }
+        rows++;
+      }
+
+      @Override
+      public long bytesWritten() {
+        return sink.bytesWritten();
+      }
+
+      @Override
+      public void close() {
+        try {
+          sink.close();
+        } catch (RuntimeException e) {
+          failed = true;
+          throw e;
+        } finally {
+          metrics.recordRun(rows, sink.bytesWritten(), System.nanoTime() - start, failed);
+        }
+      }
+    };
+  }
+}
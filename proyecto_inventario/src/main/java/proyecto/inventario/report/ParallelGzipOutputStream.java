@@ -0,0 +1,167 @@
+package proyecto.inventario.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Flujo gzip que comprime en paralelo: los bytes se cortan en bloques de
+ * tamaño fijo, cada bloque se comprime en un {@link Executor} como un
+ * miembro gzip independiente y los miembros se escriben en orden. La
+ * concatenación de miembros es un archivo gzip válido que {@code gunzip}
+ * y {@link java.util.zip.GZIPInputStream} leen como un solo flujo.
+ *
+ * <p>Como mucho {@code maxPending} bloques se comprimen a la vez; al
+ * llegar a ese límite el hilo que escribe espera al bloque más antiguo,
+ * de modo que la memoria queda acotada aunque el disco sea lento. Cada
+ * bloque pierde el diccionario de los anteriores, así que con bloques de
+ * 1 MiB o más la compresión apenas empeora.
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+  private final OutputStream out;
+  private final Executor executor;
+  private final int blockSize;
+  private final int maxPending;
+  private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+  private byte[] block;
+  private int position;
+  private long written;
+  private boolean closed;
+
+  /**
+   * Crea el flujo.
+   *
+   * @param out destino de los miembros comprimidos; se cierra al cerrar
+   *     este flujo
+   * @param executor dónde se comprimen los bloques
+   * @param blockSize bytes sin comprimir por miembro
+   * @param maxPending bloques que pueden estar comprimiéndose a la vez
+   */
+  ParallelGzipOutputStream(OutputStream out, Executor executor, int blockSize, int maxPending) {
+    if (blockSize < 1 || maxPending < 1) {
+      throw new IllegalArgumentException("blockSize and maxPending must be >= 1");
+    }
+    this.out = out;
+    this.executor = executor;
+    this.blockSize = blockSize;
+    this.maxPending = maxPending;
+    this.block = new byte[blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (position == blockSize) {
+      submit();
+    }
+    block[position++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    int remaining = length;
+    int from = offset;
+    while (remaining > 0) {
+      if (position == blockSize) {
+        submit();
+      }
+      int count = Math.min(remaining, blockSize - position);
+      System.arraycopy(bytes, from, block, position, count);
+      position += count;
+      from += count;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * Escribe los miembros ya terminados. No corta el bloque en curso ni
+   * espera a los que siguen comprimiéndose: eso queda para
+   * {@link #close()}, porque cada flush produciría un miembro pequeño.
+   */
+  @Override
+  public void flush() throws IOException {
+    writeCompleted();
+    out.flush();
+  }
+
+  /** Bytes comprimidos entregados hasta ahora al flujo de salida. */
+  long written() {
+    return written;
+  }
+
+  /** Comprime lo pendiente, escribe todos los miembros y cierra el destino. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try (OutputStream closing = out) {
+      if (position > 0) {
+        submit();
+      }
+      while (!pending.isEmpty()) {
+        writeOldest();
+      }
+      closing.flush();
+    } finally {
+      for (CompletableFuture<byte[]> future : pending) {
+        future.cancel(false);
+      }
+      pending.clear();
+    }
+  }
+
+  private void submit() throws IOException {
+    while (pending.size() >= maxPending) {
+      writeOldest();
+    }
+    byte[] data = block;
+    int length = position;
+    pending.add(CompletableFuture.supplyAsync(() -> compress(data, length), executor));
+    block = new byte[blockSize];
+    position = 0;
+    writeCompleted();
+  }
+
+  private void writeCompleted() throws IOException {
+    while (!pending.isEmpty() && pending.peek().isDone()) {
+      writeOldest();
+    }
+  }
+
+  private void writeOldest() throws IOException {
+    byte[] member;
+    try {
+      member = pending.peek().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Compression interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw new IOException("Compression failed", cause);
+    }
+    pending.poll();
+    out.write(member);
+    written += member.length;
+  }
+
+  private static byte[] compress(byte[] data, int length) {
+    ByteArrayOutputStream member = new ByteArrayOutputStream(length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(member, 8192)) {
+      gzip.write(data, 0, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return member.toByteArray();
+  }
+}
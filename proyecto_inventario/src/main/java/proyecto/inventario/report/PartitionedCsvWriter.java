@@ -0,0 +1,184 @@
+package proyecto.inventario.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import proyecto.inventario.Product;
+
+/**
+ * Formatea el CSV en paralelo sobre un {@link ForkJoinPool}.
+ *
+ * <p>En un solo archivo, la lista se corta en rangos de filas; cada rango
+ * se formatea en su propio búfer y los búferes se escriben en orden con
+ * escrituras posicionales de {@link FileChannel}, así que el archivo es
+ * idéntico byte a byte al que escribe el camino secuencial. Como mucho
+ * dos rangos por hilo del pool esperan a escribirse.
+ *
+ * <p>En modo fragmentado la lista se reparte en {@code shards} tramos
+ * contiguos y cada uno se escribe en su propio archivo, con encabezado,
+ * sin pasar por un búfer intermedio.
+ */
+final class PartitionedCsvWriter {
+  private final ForkJoinPool pool;
+  private final int rangeSize;
+  private final int shards;
+
+  /**
+   * Crea el escritor.
+   *
+   * @param pool dónde se formatean los rangos
+   * @param rangeSize filas por rango en modo de un solo archivo
+   * @param shards archivos a escribir, o 0 para un solo archivo
+   */
+  PartitionedCsvWriter(ForkJoinPool pool, int rangeSize, int shards) {
+    this.pool = pool;
+    this.rangeSize = rangeSize;
+    this.shards = shards;
+  }
+
+  /**
+   * Escribe el reporte.
+   *
+   * @param path archivo, o base de los nombres de los fragmentos
+   * @param products productos a escribir
+   * @return bytes escritos en total
+   */
+  long write(Path path, List<Product> products) throws IOException {
+    List<Product> rows = products instanceof RandomAccess ? products : new ArrayList<>(products);
+    return shards == 0 ? writeRanges(path, rows) : writeShards(path, rows);
+  }
+
+  /**
+   * Nombre del fragmento {@code shard}: el índice va antes de la extensión,
+   * como en {@code inventario-0.csv}.
+   */
+  static Path shardPath(Path path, int shard) {
+    String name = path.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    String shardName = dot > 0
+        ? name.substring(0, dot) + "-" + shard + name.substring(dot)
+        : name + "-" + shard;
+    return path.resolveSibling(shardName);
+  }
+
+  private long writeRanges(Path path, List<Product> rows) throws IOException {
+    int maxPending = 2 * pool.getParallelism();
+    ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+    long position = 0;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      int from = 0;
+      do {
+        int start = from;
+        int end = Math.min(rows.size(), from + rangeSize);
+        if (pending.size() == maxPending) {
+          position = writeChunk(channel, pending.poll().join(), position);
+        }
+        pending.add(pool.submit(() -> render(rows, start, end)));
+        from = end;
+      } while (from < rows.size());
+      while (!pending.isEmpty()) {
+        position = writeChunk(channel, pending.poll().join(), position);
+      }
+    } finally {
+      for (ForkJoinTask<Chunk> task : pending) {
+        task.cancel(false);
+      }
+    }
+    return position;
+  }
+
+  private long writeShards(Path path, List<Product> rows) throws IOException {
+    int perShard = (rows.size() + shards - 1) / shards;
+    List<ForkJoinTask<Long>> tasks = new ArrayList<>(shards);
+    for (int i = 0; i < shards; i++) {
+      int start = Math.min(rows.size(), i * perShard);
+      int end = Math.min(rows.size(), start + perShard);
+      Path shardPath = shardPath(path, i);
+      tasks.add(pool.submit(() -> writeShard(shardPath, rows, start, end)));
+    }
+    long total = 0;
+    for (ForkJoinTask<Long> task : tasks) {
+      try {
+        total += task.join();
+      } catch (UncheckedIOException e) {
+        for (ForkJoinTask<Long> other : tasks) {
+          other.cancel(false);
+        }
+        throw e.getCause();
+      }
+    }
+    return total;
+  }
+
+  private static long writeShard(Path path, List<Product> rows, int start, int end) {
+    try (OutputStream out = Channels.newOutputStream(FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING))) {
+      CsvRowWriter writer = new CsvRowWriter(out);
+      writer.writeHeader();
+      writeRows(writer, rows, start, end);
+      writer.flush();
+      return writer.written();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Formatea un rango en memoria; el primero lleva el encabezado. */
+  private static Chunk render(List<Product> rows, int start, int end) {
+    Chunk chunk = new Chunk();
+    CsvRowWriter writer = new CsvRowWriter(chunk);
+    try {
+      if (start == 0) {
+        writer.writeHeader();
+      }
+      writeRows(writer, rows, start, end);
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return chunk;
+  }
+
+  private static void writeRows(CsvRowWriter writer, List<Product> rows, int start, int end)
+      throws IOException {
+    for (int i = start; i < end; i++) {
+      Product p = rows.get(i);
+      writer.writeRow(p.getName(), p.getQuantity(), p.getPrice());
+    }
+  }
+
+  private static long writeChunk(FileChannel channel, Chunk chunk, long position)
+      throws IOException {
+    ByteBuffer buffer = chunk.asBuffer();
+    long next = position;
+    while (buffer.hasRemaining()) {
+      next += channel.write(buffer, next);
+    }
+    return next;
+  }
+
+  /** Búfer de un rango, que se escribe sin copiarlo. */
+  private static final class Chunk extends ByteArrayOutputStream {
+    private Chunk() {
+      super(64 * 1024);
+    }
+
+    private ByteBuffer asBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package proyecto.inventario.report;
+
+import proyecto.inventario.Product;
+
+/**
+ * Recibe los productos de un reporte de a uno, en orden. Cerrarlo termina
+ * el reporte (escribe lo pendiente y libera el archivo, si lo hay).
+ */
+public interface ReportSink extends AutoCloseable {
+  void accept(Product product);
+
+  /**
+   * Bytes que el reporte escribió hasta ahora (caracteres, si escribe
+   * texto en un flujo de caracteres); 0 si no lo informa.
+   *
+   * @return bytes escritos
+   */
+  default long bytesWritten() {
+    return 0;
+  }
+
+  @Override
+  void close();
+}
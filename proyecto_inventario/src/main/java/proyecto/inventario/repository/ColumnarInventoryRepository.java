@@ -0,0 +1,490 @@
+// src/main/java/proyecto/inventario/repository/ColumnarInventoryRepository.java
+
+package proyecto.inventario.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+import proyecto.inventario.Product;
+
+/**
+ * Repositorio columnar para catálogos muy grandes: en lugar de un objeto
+ * por producto guarda una columna {@code int[]} de cantidades, una
+ * {@code double[]} de precios y los nombres codificados en UTF-8, uno tras
+ * otro, en un único arreglo de bytes. Un índice de direccionamiento abierto
+ * sobre ese diccionario resuelve las búsquedas por nombre.
+ *
+ * <p>Cada producto ocupa así unos 30 bytes más su nombre, frente a los
+ * varios objetos (producto, estado, cadena, nodo del índice) del
+ * {@link ConcurrentInventoryRepository}. Los {@link Product} que devuelve
+ * son vistas livianas sobre una fila: leerlas o modificarlas lee o modifica
+ * las columnas, y dos vistas de la misma fila son iguales aunque no sean
+ * el mismo objeto.
+ *
+ * <p>Es seguro para varios hilos. Las escrituras toman un
+ * {@link StampedLock}; las lecturas de una fila son optimistas y sólo
+ * esperan si coinciden con una escritura. Las agregaciones recorren las
+ * columnas en forma secuencial, sin tocar objetos.
+ *
+ * <p>Las bajas sólo marcan la fila y la sacan del índice: sus valores se
+ * quedan en las columnas, de modo que las vistas ya entregadas siguen
+ * siendo válidas, y su espacio no se reutiliza. Un nombre que vuelve a
+ * darse de alta ocupa una fila nueva.
+ *
+ * <p>Es un almacén independiente: sus vistas no tienen el estado versionado
+ * que necesita un {@link proyecto.inventario.Inventory}, que las rechaza.
+ * {@link #totalValue()} suma en {@code double} y puede redondear; el valor
+ * exacto se obtiene con
+ * {@code InventoryStats.of(findAll(), 0).getTotalValue()}.
+ */
+public class ColumnarInventoryRepository implements InventoryRepository {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final StampedLock lock = new StampedLock();
+  private final Rows rows = new Rows();
+  private int size;
+  private int[] quantities = new int[INITIAL_CAPACITY];
+  private double[] prices = new double[INITIAL_CAPACITY];
+  private int[] nameHashes = new int[INITIAL_CAPACITY];
+  /**
+   * El nombre de la fila i ocupa
+   * {@code names[nameOffsets[i], nameOffsets[i + 1])}.
+   */
+  private int[] nameOffsets = new int[INITIAL_CAPACITY + 1];
+  private byte[] names = new byte[INITIAL_CAPACITY * 16];
+  /** Fila + 1 de cada nombre, o 0 si la posición está libre. */
+  private int[] index = new int[INITIAL_CAPACITY * 2];
+  /** Filas dadas de baja. */
+  private final BitSet removed = new BitSet();
+  private int removedCount;
+
+  /**
+   * Agrega un producto. Si ya existe uno con el mismo nombre se suma la
+   * cantidad y se conserva el precio más reciente.
+   *
+   * @param product producto a agregar; sólo se copian sus valores
+   * @return vista de la fila almacenada
+   */
+  @Override
+  public Product add(Product product) {
+    return store(product, true);
+  }
+
+  /**
+   * Inserta el producto o reemplaza la cantidad y el precio de la fila con
+   * el mismo nombre.
+   *
+   * @param product producto con los valores deseados; sólo se copian sus valores
+   * @return vista de la fila almacenada
+   */
+  @Override
+  public Product upsert(Product product) {
+    return store(product, false);
+  }
+
+  @Override
+  public int adjustQuantity(String name, int delta) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int row = find(encoded, hash);
+      if (row < 0) {
+        throw new IllegalArgumentException("Unknown product: " + name);
+      }
+      quantities[row] = Math.addExact(quantities[row], delta);
+      return quantities[row];
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Product> findByName(String name) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.readLock();
+    try {
+      int row = find(encoded, hash);
+      return row < 0 ? Optional.empty() : Optional.of(new TableProduct(rows, row));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Devuelve una vista inmutable de las filas presentes en este instante.
+   * Cada elemento se crea al pedirlo y refleja los valores actuales de su
+   * fila. Si hubo bajas, arma la lista de filas vivas en O(n).
+   *
+   * @return lista inmutable de productos
+   */
+  @Override
+  public List<Product> findAll() {
+    long stamp = lock.readLock();
+    try {
+      return new View(size, removedCount == 0 ? null : ProductTable.liveRows(removed, size,
+          removedCount));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Quita un producto: marca su fila y la saca del índice, sin mover las
+   * demás.
+   *
+   * @param name nombre del producto
+   * @return vista de la fila quitada, con sus últimos valores, o
+   *     {@code null} si no existía
+   */
+  @Override
+  public Product remove(String name) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int slot = findSlot(encoded, hash);
+      if (slot < 0) {
+        return null;
+      }
+      int row = index[slot] - 1;
+      deleteSlot(slot);
+      removed.set(row);
+      removedCount++;
+      return new TableProduct(rows, row);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Suma las cantidades recorriendo sólo la columna de cantidades.
+   *
+   * @return total de unidades en existencia
+   */
+  public long totalUnits() {
+    long stamp = lock.readLock();
+    try {
+      int[] column = quantities;
+      long total = 0;
+      for (int from = 0; from < size; from = nextRemoved(from) + 1) {
+        int to = nextRemoved(from);
+        for (int i = from; i < to; i++) {
+          total += column[i];
+        }
+      }
+      return total;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Suma aproximada, en {@code double}, de cantidad por precio recorriendo
+   * las dos columnas a la par.
+   *
+   * @return valor total del inventario
+   */
+  public double totalValue() {
+    long stamp = lock.readLock();
+    try {
+      int[] quantityColumn = quantities;
+      double[] priceColumn = prices;
+      double total = 0;
+      for (int from = 0; from < size; from = nextRemoved(from) + 1) {
+        int to = nextRemoved(from);
+        for (int i = from; i < to; i++) {
+          total += quantityColumn[i] * priceColumn[i];
+        }
+      }
+      return total;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private Product store(Product product, boolean merge) {
+    String name = product.getName();
+    int quantity = product.getQuantity();
+    double price = product.getPrice();
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int row = find(encoded, hash);
+      if (row < 0) {
+        row = append(encoded, hash, quantity, price);
+      } else {
+        quantities[row] = merge ? Math.addExact(quantities[row], quantity) : quantity;
+        prices[row] = price;
+      }
+      return new TableProduct(rows, row);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Fila con ese nombre, o -1. Requiere el candado. */
+  private int find(byte[] name, int hash) {
+    int slot = findSlot(name, hash);
+    return slot < 0 ? -1 : index[slot] - 1;
+  }
+
+  /** Posición del índice que apunta a ese nombre, o -1. Requiere el candado. */
+  private int findSlot(byte[] name, int hash) {
+    int mask = index.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      int slot = index[i];
+      if (slot == 0) {
+        return -1;
+      }
+      int row = slot - 1;
+      if (nameHashes[row] == hash
+          && Arrays.equals(names, nameOffsets[row], nameOffsets[row + 1], name, 0, name.length)) {
+        return i;
+      }
+    }
+  }
+
+  /**
+   * Vacía una posición del índice y corre hacia atrás las que le siguen en
+   * la misma secuencia de sondeo, para que ninguna búsqueda se corte antes
+   * de tiempo. Requiere el candado de escritura.
+   */
+  private void deleteSlot(int slot) {
+    int mask = index.length - 1;
+    int hole = slot;
+    index[hole] = 0;
+    for (int i = (hole + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+      int home = nameHashes[index[i] - 1] & mask;
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        index[hole] = index[i];
+        index[i] = 0;
+        hole = i;
+      }
+    }
+  }
+
+  /**
+   * Primera fila quitada desde {@code from}, o {@code size}. Requiere el
+   * candado.
+   */
+  private int nextRemoved(int from) {
+    int next = removed.nextSetBit(from);
+    return next < 0 || next > size ? size : next;
+  }
+
+  /** Agrega una fila nueva. Requiere el candado de escritura. */
+  private int append(byte[] name, int hash, int quantity, double price) {
+    if (size == quantities.length) {
+      int capacity = Math.multiplyExact(size, 2);
+      quantities = Arrays.copyOf(quantities, capacity);
+      prices = Arrays.copyOf(prices, capacity);
+      nameHashes = Arrays.copyOf(nameHashes, capacity);
+      nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+    }
+    int start = nameOffsets[size];
+    int end = Math.addExact(start, name.length);
+    if (end > names.length) {
+      names = Arrays.copyOf(names, (int) Math.min(Integer.MAX_VALUE - 8,
+          Math.max(end, 2L * names.length)));
+    }
+    System.arraycopy(name, 0, names, start, name.length);
+    nameOffsets[size + 1] = end;
+    nameHashes[size] = hash;
+    quantities[size] = quantity;
+    prices[size] = price;
+    int row = size++;
+    if (size * 2 > index.length) {
+      index = new int[Math.multiplyExact(index.length, 2)];
+      for (int i = 0; i < size; i++) {
+        if (!removed.get(i)) {
+          insert(i);
+        }
+      }
+    } else {
+      insert(row);
+    }
+    return row;
+  }
+
+  private void insert(int row) {
+    int mask = index.length - 1;
+    int i = nameHashes[row] & mask;
+    while (index[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    index[i] = row + 1;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Acceso por fila para {@link TableProduct}. Una vista sólo existe para
+   * filas ya publicadas, y las columnas sólo crecen, así que cualquier
+   * columna que se lea contiene la fila aunque la lectura optimista falle.
+   */
+  private final class Rows implements ProductTable {
+
+    @Override
+    public String nameAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        byte[] arena = names;
+        int from = nameOffsets[row];
+        int to = nameOffsets[row + 1];
+        if (lock.validate(stamp)) {
+          // Los bytes de un nombre no cambian una vez escritos.
+          return new String(arena, from, to - from, StandardCharsets.UTF_8);
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        int from = nameOffsets[row];
+        return new String(names, from, nameOffsets[row + 1] - from, StandardCharsets.UTF_8);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public int quantityAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        int quantity = quantities[row];
+        if (lock.validate(stamp)) {
+          return quantity;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return quantities[row];
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public double priceAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        double price = prices[row];
+        if (lock.validate(stamp)) {
+          return price;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return prices[row];
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public String detailsAt(int row) {
+      int quantity;
+      double price;
+      long stamp = lock.readLock();
+      try {
+        quantity = quantities[row];
+        price = prices[row];
+      } finally {
+        lock.unlockRead(stamp);
+      }
+      return "Product: " + nameAt(row) + ", Quantity: " + quantity + ", Price: $" + price;
+    }
+
+    @Override
+    public void update(int row, int quantity, double price) {
+      long stamp = lock.writeLock();
+      try {
+        quantities[row] = quantity;
+        prices[row] = price;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public void setQuantity(int row, int quantity) {
+      long stamp = lock.writeLock();
+      try {
+        quantities[row] = quantity;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public void setPrice(int row, double price) {
+      long stamp = lock.writeLock();
+      try {
+        prices[row] = price;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public int addQuantity(int row, int delta) {
+      long stamp = lock.writeLock();
+      try {
+        quantities[row] = Math.addExact(quantities[row], delta);
+        return quantities[row];
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public int addQuantity(int row, int delta, double price) {
+      long stamp = lock.writeLock();
+      try {
+        quantities[row] = Math.addExact(quantities[row], delta);
+        prices[row] = price;
+        return quantities[row];
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  /**
+   * Filas vivas entre las primeras {@code size}, como productos creados al
+   * pedirlos.
+   */
+  private final class View extends AbstractList<Product> implements RandomAccess {
+    private final int size;
+    /**
+     * Fila de cada posición, o {@code null} si no hubo bajas.
+     */
+    private final int[] live;
+
+    private View(int size, int[] live) {
+      this.size = live == null ? size : live.length;
+      this.live = live;
+    }
+
+    @Override
+    public Product get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return new TableProduct(rows, live == null ? index : live[index]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+// src/main/java/proyecto/inventario/repository/ConcurrentInventoryRepository.java
+
+package proyecto.inventario.repository;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import proyecto.inventario.Product;
+
+/**
+ * Repositorio en el heap: cada producto es un {@link Product} propio.
+ * Mantiene además un índice hash por nombre para que las búsquedas,
+ * altas y ajustes de stock sean O(1) en lugar de recorrer la lista.
+ *
+ * <p>Es seguro para varios hilos: las actualizaciones de productos
+ * existentes son compare-and-set sobre el propio {@link Product}, sólo las
+ * altas de nombres nuevos y las bajas toman un candado breve, y las lecturas nunca
+ * bloquean porque {@link #findAll()} entrega el último arreglo publicado.
+ */
+public class ConcurrentInventoryRepository implements InventoryRepository {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final ConcurrentHashMap<String, Product> byName = new ConcurrentHashMap<>();
+  private final Object appendLock = new Object();
+  private volatile Products published = new Products(new Product[INITIAL_CAPACITY], 0);
+
+  /**
+   * Agrega un producto. Si ya existe uno con el mismo nombre se fusionan:
+   * se suma la cantidad y se conserva el precio más reciente.
+   *
+   * @param product producto a agregar
+   * @return el producto almacenado (el existente si hubo fusión)
+   */
+  @Override
+  public Product add(Product product) {
+    Product existing = insertIfAbsent(product);
+    if (existing != product) {
+      existing.addQuantity(product.getQuantity(), product.getPrice());
+    }
+    return existing;
+  }
+
+  /**
+   * Agrega varios productos tomando el candado de altas una sola vez: el
+   * arreglo crece de una vez a la medida del lote y se publica una sola
+   * vista nueva. Las fusiones con productos existentes, o entre nombres
+   * repetidos del lote, se hacen después con compare-and-set.
+   *
+   * @param products productos a agregar
+   * @return el producto almacenado para cada uno, en el mismo orden
+   */
+  @Override
+  public List<Product> addAll(List<Product> products) {
+    Product[] stored = new Product[products.size()];
+    synchronized (appendLock) {
+      Map<String, Product> fresh = new HashMap<>();
+      Products current = published;
+      Product[] items = current.items;
+      int size = current.size;
+      if (items.length - size < products.size()) {
+        items = Arrays.copyOf(items, Math.max(items.length * 2, size + products.size()));
+      }
+      for (int i = 0; i < stored.length; i++) {
+        Product product = products.get(i);
+        Product existing = byName.get(product.getName());
+        if (existing == null) {
+          existing = fresh.putIfAbsent(product.getName(), product);
+        }
+        if (existing == null) {
+          items[size++] = product;
+          stored[i] = product;
+        } else {
+          stored[i] = existing;
+        }
+      }
+      published = new Products(items, size);
+      byName.putAll(fresh);
+    }
+    for (int i = 0; i < stored.length; i++) {
+      Product product = products.get(i);
+      if (stored[i] != product) {
+        stored[i].addQuantity(product.getQuantity(), product.getPrice());
+      }
+    }
+    return Arrays.asList(stored);
+  }
+
+  /**
+   * Inserta el producto o, si ya existe uno con el mismo nombre,
+   * reemplaza su cantidad y su precio.
+   *
+   * @param product producto con los valores deseados
+   * @return el producto almacenado
+   */
+  @Override
+  public Product upsert(Product product) {
+    Product existing = insertIfAbsent(product);
+    if (existing != product) {
+      existing.update(product.getQuantity(), product.getPrice());
+    }
+    return existing;
+  }
+
+  /**
+   * Suma {@code delta} (positivo o negativo) a la cantidad de un producto.
+   *
+   * @param name nombre del producto
+   * @param delta variación de la cantidad
+   * @return la nueva cantidad
+   * @throws IllegalArgumentException si no existe un producto con ese nombre
+   */
+  @Override
+  public int adjustQuantity(String name, int delta) {
+    Product existing = byName.get(name);
+    if (existing == null) {
+      throw new IllegalArgumentException("Unknown product: " + name);
+    }
+    return existing.addQuantity(delta);
+  }
+
+  @Override
+  public Optional<Product> findByName(String name) {
+    return Optional.ofNullable(byName.get(name));
+  }
+
+  /**
+   * Devuelve una vista inmutable de los productos presentes en este
+   * instante. Altas posteriores no aparecen en la vista ni la invalidan,
+   * por lo que se puede recorrer mientras otros hilos siguen escribiendo.
+   *
+   * @return lista inmutable de productos
+   */
+  @Override
+  public List<Product> findAll() {
+    return published;
+  }
+
+  /**
+   * Quita un producto. Cuesta O(n) porque publica un arreglo nuevo sin él:
+   * las vistas anteriores conservan el suyo y siguen mostrándolo.
+   *
+   * @param name nombre del producto
+   * @return el producto quitado, o {@code null} si no existía
+   */
+  @Override
+  public Product remove(String name) {
+    if (!byName.containsKey(name)) {
+      return null;
+    }
+    synchronized (appendLock) {
+      Product existing = byName.get(name);
+      if (existing == null) {
+        return null;
+      }
+      Products current = published;
+      Product[] items = new Product[current.items.length];
+      int size = 0;
+      for (int i = 0; i < current.size; i++) {
+        if (current.items[i] != existing) {
+          items[size++] = current.items[i];
+        }
+      }
+      published = new Products(items, size);
+      byName.remove(name);
+      return existing;
+    }
+  }
+
+  /**
+   * Devuelve el producto ya almacenado con ese nombre, o almacena
+   * {@code product} y lo devuelve si el nombre es nuevo.
+   */
+  private Product insertIfAbsent(Product product) {
+    Product existing = byName.get(product.getName());
+    if (existing != null) {
+      return existing;
+    }
+    synchronized (appendLock) {
+      existing = byName.get(product.getName());
+      if (existing != null) {
+        return existing;
+      }
+      Products current = published;
+      Product[] items = current.items;
+      if (current.size == items.length) {
+        items = Arrays.copyOf(items, items.length * 2);
+      }
+      // Las vistas anteriores sólo leen hasta su propio tamaño, así que
+      // escribir la siguiente posición del arreglo compartido es seguro.
+      items[current.size] = product;
+      published = new Products(items, current.size + 1);
+      byName.put(product.getName(), product);
+      return product;
+    }
+  }
+
+  /** Prefijo inmutable de un arreglo de sólo-anexar. */
+  private static final class Products extends AbstractList<Product> implements RandomAccess {
+    private final Product[] items;
+    private final int size;
+
+    private Products(Product[] items, int size) {
+      this.items = items;
+      this.size = size;
+    }
+
+    @Override
+    public Product get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return items[index];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -3,21 +3,82 @@
 package proyecto.inventario.repository;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import proyecto.inventario.Product;
 
 /**
  * Responsable sólo de almacenar y entregar la lista de Product.
+ * Los productos se identifican por nombre; cada implementación decide cómo
+ * los guarda en memoria.
+ *
+ * @see ConcurrentInventoryRepository
+ * @see ColumnarInventoryRepository
+ * @see OffHeapInventoryRepository
  */
-public class InventoryRepository {
-  private final List<Product> products = new ArrayList<>();
+public interface InventoryRepository {
 
-  public void add(Product product) {
-    products.add(product);
-  }
+  /**
+   * Agrega un producto. Si ya existe uno con el mismo nombre se fusionan:
+   * se suma la cantidad y se conserva el precio más reciente.
+   *
+   * @param product producto a agregar
+   * @return el producto almacenado (el existente si hubo fusión)
+   */
+  Product add(Product product);
 
-  public List<Product> findAll() {
-    return Collections.unmodifiableList(products);
+  /**
+   * Agrega varios productos en orden, con las mismas reglas que
+   * {@link #add}. La implementación por defecto llama a {@code add} por
+   * cada uno.
+   *
+   * @param products productos a agregar
+   * @return el producto almacenado para cada uno, en el mismo orden
+   */
+  default List<Product> addAll(List<Product> products) {
+    List<Product> stored = new ArrayList<>(products.size());
+    for (Product product : products) {
+      stored.add(add(product));
+    }
+    return stored;
   }
+
+  /**
+   * Inserta el producto o, si ya existe uno con el mismo nombre,
+   * reemplaza su cantidad y su precio.
+   *
+   * @param product producto con los valores deseados
+   * @return el producto almacenado
+   */
+  Product upsert(Product product);
+
+  /**
+   * Suma {@code delta} (positivo o negativo) a la cantidad de un producto.
+   *
+   * @param name nombre del producto
+   * @param delta variación de la cantidad
+   * @return la nueva cantidad
+   * @throws IllegalArgumentException si no existe un producto con ese nombre
+   */
+  int adjustQuantity(String name, int delta);
+
+  Optional<Product> findByName(String name);
+
+  /**
+   * Devuelve una vista inmutable, en orden de alta, de los productos
+   * presentes en este instante. Altas posteriores no aparecen en la vista
+   * ni la invalidan.
+   *
+   * @return lista inmutable de productos
+   */
+  List<Product> findAll();
+
+  /**
+   * Quita un producto. Las vistas ya entregadas por {@link #findAll()} lo
+   * siguen mostrando.
+   *
+   * @param name nombre del producto
+   * @return el producto quitado, o {@code null} si no existía
+   */
+  Product remove(String name);
 }
@@ -0,0 +1,576 @@
+// src/main/java/proyecto/inventario/repository/OffHeapInventoryRepository.java
+
+package proyecto.inventario.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+import proyecto.inventario.Product;
+
+/**
+ * Repositorio que guarda los productos fuera del heap, en páginas de
+ * {@link ByteBuffer#allocateDirect directas}, para catálogos de decenas de
+ * millones de productos: el recolector no recorre ni copia esos datos, así
+ * que el tamaño del catálogo no alarga las pausas.
+ *
+ * <p>Cada producto es un registro de ancho fijo ({@value #RECORD_BYTES}
+ * bytes: precio, cantidad, hash y referencia al nombre). Los nombres se
+ * guardan una sola vez, en UTF-8 precedidos de su longitud, en un área de
+ * nombres aparte, y el índice por nombre es una tabla de direccionamiento
+ * abierto también fuera del heap. Las páginas nunca se mueven, sólo se
+ * agregan; la memoria se libera cuando el repositorio deja de usarse.
+ *
+ * <p>Los {@link Product} que devuelve son vistas livianas sobre un
+ * registro, igual que en {@link ColumnarInventoryRepository}, y la
+ * concurrencia sigue el mismo esquema: escrituras con {@link StampedLock} y
+ * lecturas de un registro optimistas.
+ *
+ * <p>Una baja marca el registro en un {@link BitSet} del heap (un bit por
+ * registro) y lo saca del índice; el registro y su nombre no se liberan,
+ * igual que en {@link ColumnarInventoryRepository}. Como aquél, es un
+ * almacén independiente que no puede respaldar un
+ * {@link proyecto.inventario.Inventory}, y su {@link #totalValue()} es una
+ * suma en {@code double}.
+ *
+ * <p>La memoria directa está limitada por {@code -XX:MaxDirectMemorySize},
+ * que hay que ajustar al tamaño del catálogo.
+ */
+public class OffHeapInventoryRepository implements InventoryRepository {
+  static final int RECORD_BYTES = 24;
+  static final int NAME_PAGE_SIZE = 4 * 1024 * 1024;
+  private static final int PRICE = 0;
+  private static final int QUANTITY = 8;
+  private static final int HASH = 12;
+  private static final int NAME = 16;
+  private static final int RECORD_PAGE_SHIFT = 16;
+  private static final int RECORD_PAGE_MASK = (1 << RECORD_PAGE_SHIFT) - 1;
+  private static final int INDEX_PAGE_SHIFT = 20;
+  private static final int INDEX_PAGE_MASK = (1 << INDEX_PAGE_SHIFT) - 1;
+  private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+  private final StampedLock lock = new StampedLock();
+  private final Rows rows = new Rows();
+  private int size;
+  private ByteBuffer[] records = new ByteBuffer[8];
+  private ByteBuffer[] namePages = new ByteBuffer[8];
+  private int namePageCount;
+  private int namePosition;
+  /** Fila + 1 de cada nombre, o 0 si la posición está libre. */
+  private ByteBuffer[] index = allocateIndex(INITIAL_INDEX_CAPACITY);
+  private int indexCapacity = INITIAL_INDEX_CAPACITY;
+  /** Registros dados de baja. */
+  private final BitSet removed = new BitSet();
+  private int removedCount;
+
+  /**
+   * Agrega un producto. Si ya existe uno con el mismo nombre se suma la
+   * cantidad y se conserva el precio más reciente.
+   *
+   * @param product producto a agregar; sólo se copian sus valores
+   * @return vista del registro almacenado
+   */
+  @Override
+  public Product add(Product product) {
+    return store(product, true);
+  }
+
+  /**
+   * Inserta el producto o reemplaza la cantidad y el precio del registro
+   * con el mismo nombre.
+   *
+   * @param product producto con los valores deseados; sólo se copian sus valores
+   * @return vista del registro almacenado
+   */
+  @Override
+  public Product upsert(Product product) {
+    return store(product, false);
+  }
+
+  @Override
+  public int adjustQuantity(String name, int delta) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int row = find(encoded, hash);
+      if (row < 0) {
+        throw new IllegalArgumentException("Unknown product: " + name);
+      }
+      return addQuantityLocked(row, delta);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Product> findByName(String name) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.readLock();
+    try {
+      int row = find(encoded, hash);
+      return row < 0 ? Optional.empty() : Optional.of(new TableProduct(rows, row));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Devuelve una vista inmutable de los registros presentes en este
+   * instante. Cada elemento se crea al pedirlo y refleja los valores
+   * actuales de su registro. Si hubo bajas, arma la lista de registros
+   * vivos en O(n).
+   *
+   * @return lista inmutable de productos
+   */
+  @Override
+  public List<Product> findAll() {
+    long stamp = lock.readLock();
+    try {
+      return new View(size, removedCount == 0 ? null : ProductTable.liveRows(removed, size,
+          removedCount));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Quita un producto: marca su registro y lo saca del índice, sin mover
+   * los demás.
+   *
+   * @param name nombre del producto
+   * @return vista del registro quitado, con sus últimos valores, o
+   *     {@code null} si no existía
+   */
+  @Override
+  public Product remove(String name) {
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int slot = findSlot(encoded, hash);
+      if (slot < 0) {
+        return null;
+      }
+      int row = slot(slot) - 1;
+      deleteSlot(slot);
+      removed.set(row);
+      removedCount++;
+      return new TableProduct(rows, row);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Suma las cantidades recorriendo los registros página por página.
+   *
+   * @return total de unidades en existencia
+   */
+  public long totalUnits() {
+    long stamp = lock.readLock();
+    try {
+      long total = 0;
+      for (int from = 0; from < size; from = nextRemoved(from) + 1) {
+        int to = nextRemoved(from);
+        for (int row = from; row < to; row++) {
+          total += records[row >>> RECORD_PAGE_SHIFT].getInt(offset(row) + QUANTITY);
+        }
+      }
+      return total;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Suma aproximada, en {@code double}, de cantidad por precio recorriendo
+   * los registros página por página.
+   *
+   * @return valor total del inventario
+   */
+  public double totalValue() {
+    long stamp = lock.readLock();
+    try {
+      double total = 0;
+      for (int from = 0; from < size; from = nextRemoved(from) + 1) {
+        int to = nextRemoved(from);
+        for (int row = from; row < to; row++) {
+          ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+          int at = offset(row);
+          total += page.getInt(at + QUANTITY) * page.getDouble(at + PRICE);
+        }
+      }
+      return total;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private Product store(Product product, boolean merge) {
+    String name = product.getName();
+    int quantity = product.getQuantity();
+    double price = product.getPrice();
+    byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+    int hash = spread(name.hashCode());
+    long stamp = lock.writeLock();
+    try {
+      int row = find(encoded, hash);
+      if (row < 0) {
+        row = append(encoded, hash, quantity, price);
+      } else {
+        ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+        int at = offset(row);
+        int current = page.getInt(at + QUANTITY);
+        page.putInt(at + QUANTITY, merge ? Math.addExact(current, quantity) : quantity);
+        page.putDouble(at + PRICE, price);
+      }
+      return new TableProduct(rows, row);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Registro con ese nombre, o -1. Requiere el candado. */
+  private int find(byte[] name, int hash) {
+    int slot = findSlot(name, hash);
+    return slot < 0 ? -1 : slot(slot) - 1;
+  }
+
+  /** Posición del índice que apunta a ese nombre, o -1. Requiere el candado. */
+  private int findSlot(byte[] name, int hash) {
+    int mask = indexCapacity - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      int slot = slot(i);
+      if (slot == 0) {
+        return -1;
+      }
+      int row = slot - 1;
+      ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+      if (page.getInt(offset(row) + HASH) == hash
+          && nameEquals(page.getLong(offset(row) + NAME), name)) {
+        return i;
+      }
+    }
+  }
+
+  /**
+   * Vacía una posición del índice y corre hacia atrás las que le siguen en
+   * la misma secuencia de sondeo, como en
+   * {@link ColumnarInventoryRepository}. Requiere el candado de escritura.
+   */
+  private void deleteSlot(int slot) {
+    int mask = indexCapacity - 1;
+    int hole = slot;
+    setSlot(hole, 0);
+    for (int i = (hole + 1) & mask; slot(i) != 0; i = (i + 1) & mask) {
+      int row = slot(i) - 1;
+      int home = records[row >>> RECORD_PAGE_SHIFT].getInt(offset(row) + HASH) & mask;
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        setSlot(hole, row + 1);
+        setSlot(i, 0);
+        hole = i;
+      }
+    }
+  }
+
+  private int slot(int i) {
+    return index[i >>> INDEX_PAGE_SHIFT].getInt((i & INDEX_PAGE_MASK) * Integer.BYTES);
+  }
+
+  private void setSlot(int i, int value) {
+    index[i >>> INDEX_PAGE_SHIFT].putInt((i & INDEX_PAGE_MASK) * Integer.BYTES, value);
+  }
+
+  /**
+   * Primer registro quitado desde {@code from}, o {@code size}. Requiere
+   * el candado.
+   */
+  private int nextRemoved(int from) {
+    int next = removed.nextSetBit(from);
+    return next < 0 || next > size ? size : next;
+  }
+
+  /** Agrega un registro nuevo. Requiere el candado de escritura. */
+  private int append(byte[] name, int hash, int quantity, double price) {
+    if (size == Integer.MAX_VALUE - 1) {
+      throw new IllegalStateException("Inventory full");
+    }
+    int row = size;
+    int pageIndex = row >>> RECORD_PAGE_SHIFT;
+    if (pageIndex == records.length) {
+      records = Arrays.copyOf(records, records.length * 2);
+    }
+    if (records[pageIndex] == null) {
+      records[pageIndex] = ByteBuffer.allocateDirect(RECORD_BYTES << RECORD_PAGE_SHIFT);
+    }
+    ByteBuffer page = records[pageIndex];
+    int at = offset(row);
+    page.putDouble(at + PRICE, price);
+    page.putInt(at + QUANTITY, quantity);
+    page.putInt(at + HASH, hash);
+    page.putLong(at + NAME, appendName(name));
+    size++;
+    if (size > indexCapacity / 2) {
+      rehash(Math.multiplyExact(indexCapacity, 2));
+    } else {
+      insert(row, hash);
+    }
+    return row;
+  }
+
+  /**
+   * Copia el nombre al área de nombres y devuelve su referencia: página en
+   * los 32 bits altos y posición en los bajos.
+   */
+  private long appendName(byte[] name) {
+    int length = Integer.BYTES + name.length;
+    if (namePageCount == 0 || namePosition + length > namePages[namePageCount - 1].capacity()) {
+      if (namePageCount == namePages.length) {
+        namePages = Arrays.copyOf(namePages, namePages.length * 2);
+      }
+      namePages[namePageCount++] = ByteBuffer.allocateDirect(Math.max(NAME_PAGE_SIZE, length));
+      namePosition = 0;
+    }
+    ByteBuffer page = namePages[namePageCount - 1];
+    page.putInt(namePosition, name.length);
+    ByteBuffer target = page.duplicate();
+    target.position(namePosition + Integer.BYTES);
+    target.put(name);
+    long reference = (long) (namePageCount - 1) << 32 | namePosition;
+    namePosition += length;
+    return reference;
+  }
+
+  private boolean nameEquals(long reference, byte[] name) {
+    ByteBuffer page = namePages[(int) (reference >>> 32)];
+    int at = (int) reference;
+    if (page.getInt(at) != name.length) {
+      return false;
+    }
+    at += Integer.BYTES;
+    for (int i = 0; i < name.length; i++) {
+      if (page.get(at + i) != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String decodeName(long reference) {
+    ByteBuffer page = namePages[(int) (reference >>> 32)].duplicate();
+    int at = (int) reference;
+    byte[] bytes = new byte[page.getInt(at)];
+    page.position(at + Integer.BYTES);
+    page.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void rehash(int capacity) {
+    index = allocateIndex(capacity);
+    indexCapacity = capacity;
+    for (int row = 0; row < size; row++) {
+      if (!removed.get(row)) {
+        insert(row, records[row >>> RECORD_PAGE_SHIFT].getInt(offset(row) + HASH));
+      }
+    }
+  }
+
+  private void insert(int row, int hash) {
+    int mask = indexCapacity - 1;
+    int i = hash & mask;
+    while (slot(i) != 0) {
+      i = (i + 1) & mask;
+    }
+    setSlot(i, row + 1);
+  }
+
+  private int addQuantityLocked(int row, int delta) {
+    ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+    int at = offset(row) + QUANTITY;
+    int quantity = Math.addExact(page.getInt(at), delta);
+    page.putInt(at, quantity);
+    return quantity;
+  }
+
+  private static ByteBuffer[] allocateIndex(int capacity) {
+    int slotsPerPage = 1 << INDEX_PAGE_SHIFT;
+    ByteBuffer[] pages = new ByteBuffer[(capacity + slotsPerPage - 1) / slotsPerPage];
+    for (int i = 0; i < pages.length; i++) {
+      pages[i] = ByteBuffer.allocateDirect(Math.min(capacity, slotsPerPage) * Integer.BYTES);
+    }
+    return pages;
+  }
+
+  private static int offset(int row) {
+    return (row & RECORD_PAGE_MASK) * RECORD_BYTES;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Acceso por fila para {@link TableProduct}. Las páginas no se mueven, así
+   * que una lectura optimista que falle nunca sale de sus límites.
+   */
+  private final class Rows implements ProductTable {
+
+    @Override
+    public String nameAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        long reference = records[row >>> RECORD_PAGE_SHIFT].getLong(offset(row) + NAME);
+        if (lock.validate(stamp)) {
+          // El nombre de un registro no cambia una vez escrito.
+          return decodeName(reference);
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return decodeName(records[row >>> RECORD_PAGE_SHIFT].getLong(offset(row) + NAME));
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public int quantityAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        int quantity = records[row >>> RECORD_PAGE_SHIFT].getInt(offset(row) + QUANTITY);
+        if (lock.validate(stamp)) {
+          return quantity;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return records[row >>> RECORD_PAGE_SHIFT].getInt(offset(row) + QUANTITY);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public double priceAt(int row) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        double price = records[row >>> RECORD_PAGE_SHIFT].getDouble(offset(row) + PRICE);
+        if (lock.validate(stamp)) {
+          return price;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return records[row >>> RECORD_PAGE_SHIFT].getDouble(offset(row) + PRICE);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public String detailsAt(int row) {
+      int quantity;
+      double price;
+      long stamp = lock.readLock();
+      try {
+        ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+        quantity = page.getInt(offset(row) + QUANTITY);
+        price = page.getDouble(offset(row) + PRICE);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+      return "Product: " + nameAt(row) + ", Quantity: " + quantity + ", Price: $" + price;
+    }
+
+    @Override
+    public void update(int row, int quantity, double price) {
+      long stamp = lock.writeLock();
+      try {
+        ByteBuffer page = records[row >>> RECORD_PAGE_SHIFT];
+        page.putInt(offset(row) + QUANTITY, quantity);
+        page.putDouble(offset(row) + PRICE, price);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public void setQuantity(int row, int quantity) {
+      long stamp = lock.writeLock();
+      try {
+        records[row >>> RECORD_PAGE_SHIFT].putInt(offset(row) + QUANTITY, quantity);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public void setPrice(int row, double price) {
+      long stamp = lock.writeLock();
+      try {
+        records[row >>> RECORD_PAGE_SHIFT].putDouble(offset(row) + PRICE, price);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public int addQuantity(int row, int delta) {
+      long stamp = lock.writeLock();
+      try {
+        return addQuantityLocked(row, delta);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public int addQuantity(int row, int delta, double price) {
+      long stamp = lock.writeLock();
+      try {
+        int quantity = addQuantityLocked(row, delta);
+        records[row >>> RECORD_PAGE_SHIFT].putDouble(offset(row) + PRICE, price);
+        return quantity;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  /**
+   * Registros vivos entre los primeros {@code size}, como productos creados
+   * al pedirlos.
+   */
+  private final class View extends AbstractList<Product> implements RandomAccess {
+    private final int size;
+    /**
+     * Registro de cada posición, o {@code null} si no hubo bajas.
+     */
+    private final int[] live;
+
+    private View(int size, int[] live) {
+      this.size = live == null ? size : live.length;
+      this.live = live;
+    }
+
+    @Override
+    public Product get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return new TableProduct(rows, live == null ? index : live[index]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package proyecto.inventario.repository;
+
+import java.util.BitSet;
+
+/**
+ * Almacén de productos por número de fila, sobre el que {@link TableProduct}
+ * construye sus vistas. Las filas nunca se mueven ni se reordenan: una baja
+ * sólo marca la fila, que conserva sus últimos valores.
+ */
+interface ProductTable {
+  String nameAt(int row);
+
+  int quantityAt(int row);
+
+  double priceAt(int row);
+
+  /** Detalles con cantidad y precio leídos de forma consistente. */
+  String detailsAt(int row);
+
+  void update(int row, int quantity, double price);
+
+  void setQuantity(int row, int quantity);
+
+  void setPrice(int row, double price);
+
+  /**
+   * Suma {@code delta} a la cantidad de la fila.
+   *
+   * @return la nueva cantidad
+   * @throws ArithmeticException si la cantidad desborda un int
+   */
+  int addQuantity(int row, int delta);
+
+  /**
+   * Suma {@code delta} a la cantidad y fija el precio.
+   *
+   * @return la nueva cantidad
+   * @throws ArithmeticException si la cantidad desborda un int
+   */
+  int addQuantity(int row, int delta, double price);
+
+  /**
+   * Números de las primeras {@code size} filas que no están marcadas como
+   * quitadas, en orden.
+   */
+  static int[] liveRows(BitSet removed, int size, int removedCount) {
+    int[] live = new int[size - removedCount];
+    int count = 0;
+    for (int row = removed.nextClearBit(0); row < size; row = removed.nextClearBit(row + 1)) {
+      live[count++] = row;
+    }
+    return live;
+  }
+}
@@ -0,0 +1,77 @@
+package proyecto.inventario.repository;
+
+import proyecto.inventario.Product;
+
+/**
+ * Vista liviana de una fila de un {@link ProductTable}: no guarda valores
+ * propios, cada lectura y cada escritura van a la tabla. Dos vistas de la
+ * misma fila son iguales.
+ */
+final class TableProduct extends Product {
+  private final ProductTable table;
+  private final int row;
+
+  TableProduct(ProductTable table, int row) {
+    this.table = table;
+    this.row = row;
+  }
+
+  @Override
+  public String getName() {
+    return table.nameAt(row);
+  }
+
+  @Override
+  public int getQuantity() {
+    return table.quantityAt(row);
+  }
+
+  @Override
+  public double getPrice() {
+    return table.priceAt(row);
+  }
+
+  @Override
+  public void setQuantity(int quantity) {
+    table.setQuantity(row, quantity);
+  }
+
+  @Override
+  public void setPrice(double price) {
+    table.setPrice(row, price);
+  }
+
+  @Override
+  public void update(int quantity, double price) {
+    table.update(row, quantity, price);
+  }
+
+  @Override
+  public int addQuantity(int delta) {
+    return table.addQuantity(row, delta);
+  }
+
+  @Override
+  public int addQuantity(int delta, double price) {
+    return table.addQuantity(row, delta, price);
+  }
+
+  @Override
+  public String getDetails() {
+    return table.detailsAt(row);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof TableProduct)) {
+      return false;
+    }
+    TableProduct that = (TableProduct) other;
+    return table == that.table && row == that.row;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(table) * 31 + row;
+  }
+}
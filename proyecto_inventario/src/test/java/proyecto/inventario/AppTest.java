@@ -162,12 +162,17 @@ public class AppTest extends TestCase {
     public void testAppIntegratesWithInventory() {
         // Get inventory instance before running app
         Inventory inventory = Inventory.getInstance();
-        int initialSize = inventory.getProducts().size();
+        int initialLaptops = quantityOf(inventory, "Laptop");
+        int initialMonitors = quantityOf(inventory, "Monitor");
         
         App.main(new String[]{});
         
-        // Verify products were added
-        int finalSize = inventory.getProducts().size();
-        assertTrue(finalSize >= initialSize + 2); // At least 2 products added
+        // Repeated names are merged, so the stock grows instead of the list
+        assertEquals(initialLaptops + 5, quantityOf(inventory, "Laptop"));
+        assertEquals(initialMonitors + 10, quantityOf(inventory, "Monitor"));
+    }
+
+    private static int quantityOf(Inventory inventory, String name) {
+        return inventory.findByName(name).map(Product::getQuantity).orElse(0);
     }
 }
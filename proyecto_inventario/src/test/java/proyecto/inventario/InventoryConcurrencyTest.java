@@ -0,0 +1,343 @@
+package proyecto.inventario;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Multi-threaded stress tests for Inventory.
+ */
+public class InventoryConcurrencyTest extends TestCase {
+
+    private static final int THREADS = 16;
+    private static final int PRODUCTS = 64;
+    private static final int ITERATIONS = 20000;
+
+    private Inventory inventory;
+    private ExecutorService executor;
+    private PrintStream originalOut;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public InventoryConcurrencyTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(InventoryConcurrencyTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        inventory = new Inventory();
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+
+        // addProduct prints on every call; keep the stress run quiet
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        System.setOut(originalOut);
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        inventory = null;
+    }
+
+    /**
+     * Test that concurrent adjustments on shared products lose no updates
+     */
+    public void testConcurrentAdjustmentsLoseNoUpdates() throws Exception {
+        for (int i = 0; i < PRODUCTS; i++) {
+            inventory.upsert("P" + i, 0, 1.0);
+        }
+
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                inventory.adjustQuantity("P" + (i % PRODUCTS), 1);
+            }
+        });
+
+        long total = 0;
+        for (Product p : inventory.getProducts()) {
+            total += p.getQuantity();
+        }
+        assertEquals(PRODUCTS, inventory.getProducts().size());
+        assertEquals((long) THREADS * ITERATIONS, total);
+    }
+
+    /**
+     * Test that concurrent addProduct calls merge duplicates exactly once
+     */
+    public void testConcurrentAddProductMergesDuplicates() throws Exception {
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                inventory.addProduct("Shared" + (i % PRODUCTS), 1, 2.0);
+                inventory.addProduct("T" + thread + "-" + i, 1, 2.0);
+            }
+        });
+
+        int expectedProducts = PRODUCTS + THREADS * (ITERATIONS / 10);
+        assertEquals(expectedProducts, inventory.getProducts().size());
+        long shared = 0;
+        for (int i = 0; i < PRODUCTS; i++) {
+            shared += inventory.findByName("Shared" + i).get().getQuantity();
+        }
+        assertEquals((long) THREADS * (ITERATIONS / 10), shared);
+    }
+
+    /**
+     * Test that readers can iterate while writers keep adding products
+     */
+    public void testReadersDoNotFailWhileWritersAdd() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<Integer> reader = executor.submit(() -> {
+            int scans = 0;
+            while (writing.get()) {
+                long units = 0;
+                for (Product p : inventory.getProducts()) {
+                    units += p.getQuantity();
+                }
+                assertTrue(units >= 0);
+                scans++;
+            }
+            return scans;
+        });
+
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                inventory.upsert("R" + thread + "-" + i, 1, 1.0);
+            }
+        });
+        writing.set(false);
+
+        assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        assertEquals(THREADS * (ITERATIONS / 10), inventory.getProducts().size());
+    }
+
+    /**
+     * Test that running totals match a full scan after concurrent writes
+     */
+    public void testRunningTotalsMatchScanAfterConcurrentWrites() throws Exception {
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                String name = "P" + (i % PRODUCTS);
+                inventory.addProduct(name, 1, (i % 100) / 100.0);
+                inventory.adjustQuantity(name, thread % 2 == 0 ? 2 : -1);
+                inventory.findByName(name).get().setPrice((i % 7) / 3.0);
+            }
+        });
+
+        InventoryStats scan = inventory.stats(0);
+        assertEquals(PRODUCTS, inventory.productCount());
+        assertEquals(scan.getTotalUnits(), inventory.totalUnits());
+        assertEquals(0, scan.getTotalValue().compareTo(inventory.totalValue()));
+    }
+
+    /**
+     * Test that a replica fed only with deltas ends equal to the inventory
+     */
+    public void testDeltasRebuildInventoryUnderConcurrentWrites() throws Exception {
+        ChangeTracker tracker = inventory.trackChanges();
+        Map<String, Product> replica = new HashMap<String, Product>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> exporter = executor.submit(() -> {
+            while (writing.get()) {
+                apply(tracker.drain(), replica);
+            }
+            return null;
+        });
+
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                String name = "P" + (i % PRODUCTS);
+                if (i % 5 == 4) {
+                    inventory.removeProduct(name);
+                } else {
+                    inventory.upsert(name, i, thread / 10.0);
+                }
+            }
+        });
+        writing.set(false);
+        exporter.get(30, TimeUnit.SECONDS);
+        apply(tracker.drain(), replica);
+
+        List<Product> products = inventory.getProducts();
+        assertEquals(products.size(), replica.size());
+        for (Product p : products) {
+            Product copy = replica.get(p.getName());
+            assertEquals(p.getQuantity(), copy.getQuantity());
+            assertEquals(p.getPrice(), copy.getPrice(), 0.0);
+        }
+        InventoryStats scan = inventory.stats(0);
+        assertEquals(products.size(), inventory.productCount());
+        assertEquals(scan.getTotalUnits(), inventory.totalUnits());
+        tracker.close();
+    }
+
+    /**
+     * Test that range queries match a scan after concurrent writes
+     */
+    public void testRangeIndexesMatchScanAfterConcurrentWrites() throws Exception {
+        for (int i = 0; i < PRODUCTS; i++) {
+            inventory.upsert("P" + i, i, i);
+        }
+        assertEquals(PRODUCTS, inventory.findByQuantity(0, Integer.MAX_VALUE).size());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<Integer> reader = executor.submit(() -> {
+            int queries = 0;
+            while (writing.get()) {
+                assertTrue(inventory.findLowStock(10).size() <= PRODUCTS);
+                queries++;
+            }
+            return queries;
+        });
+
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                String name = "P" + (i % PRODUCTS);
+                if (i % 3 == 0) {
+                    inventory.adjustQuantity(name, thread % 2 == 0 ? 1 : -1);
+                } else if (i % 3 == 1) {
+                    inventory.findByName(name).get().setPrice((i + thread) % 50);
+                } else {
+                    inventory.upsert(name, (i * 7 + thread) % 100, i % 40);
+                }
+            }
+        });
+        writing.set(false);
+        assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+
+        InventoryReader scan = () -> inventory.getProducts();
+        assertEquals(scan.findByQuantity(Integer.MIN_VALUE, Integer.MAX_VALUE),
+            inventory.findByQuantity(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(scan.findLowStock(30), inventory.findLowStock(30));
+        assertEquals(scan.findByPrice(10, 30), inventory.findByPrice(10, 30));
+    }
+
+    /**
+     * Test that name searches match a scan after concurrent adds and removals
+     */
+    public void testNameSearchMatchesScanAfterConcurrentWrites() throws Exception {
+        for (int i = 0; i < PRODUCTS; i++) {
+            inventory.upsert("Item " + i, i, i);
+        }
+        assertEquals(PRODUCTS, inventory.searchByPrefix("item", PRODUCTS + 1).getProducts().size());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<Integer> reader = executor.submit(() -> {
+            int queries = 0;
+            while (writing.get()) {
+                assertTrue(inventory.searchBySubstring("tem 1", 20).getProducts().size() <= 20);
+                queries++;
+            }
+            return queries;
+        });
+
+        runOnAllThreads(thread -> {
+            for (int i = 0; i < ITERATIONS / 20; i++) {
+                String name = "Item " + (i % (PRODUCTS * 4));
+                if (i % 3 == 2) {
+                    inventory.removeProduct(name);
+                } else if (i % 3 == 1) {
+                    inventory.addProducts(new ProductBatch().add(name, 1, 1.0));
+                } else {
+                    inventory.upsert(name, thread, i);
+                }
+            }
+        });
+        writing.set(false);
+        assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+
+        List<String> expected = new ArrayList<String>();
+        for (Product p : inventory.getProducts()) {
+            if (p.getName().contains("em 1")) {
+                expected.add(p.getName());
+            }
+        }
+        List<String> byPrefix = new ArrayList<String>();
+        SearchPage page = inventory.searchByPrefix("item 1", 7);
+        addNames(page, byPrefix);
+        while (page.hasMore()) {
+            page = inventory.searchByPrefix("item 1", 7, page.getNextCursor());
+            addNames(page, byPrefix);
+        }
+        List<String> bySubstring = new ArrayList<String>();
+        page = inventory.searchBySubstring("EM 1", 7);
+        addNames(page, bySubstring);
+        while (page.hasMore()) {
+            page = inventory.searchBySubstring("EM 1", 7, page.getNextCursor());
+            addNames(page, bySubstring);
+        }
+        Collections.sort(expected);
+        Collections.sort(bySubstring);
+        assertEquals(expected, byPrefix);
+        assertEquals(expected, bySubstring);
+    }
+
+    private static void addNames(SearchPage page, List<String> names) {
+        for (Product p : page.getProducts()) {
+            names.add(p.getName());
+        }
+    }
+
+    private static void apply(List<ProductChange> changes, Map<String, Product> replica) {
+        for (ProductChange change : changes) {
+            if (change.isRemoved()) {
+                replica.remove(change.getName());
+            } else {
+                replica.put(change.getName(),
+                    new Product(change.getName(), change.getQuantity(), change.getPrice()));
+            }
+        }
+    }
+
+    private void runOnAllThreads(Worker worker) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                worker.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Body executed by each stress thread
+     */
+    private interface Worker {
+        void run(int thread);
+    }
+}
@@ -6,6 +6,13 @@ import junit.framework.TestSuite;
 import proyecto.inventario.report.InventoryReport;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Unit tests for InventoryPrinter class.
@@ -136,6 +143,142 @@ public class InventoryPrinterTest extends TestCase {
         assertTrue(mockReport.lastProductList.size() >= 0);
     }
     
+    /**
+     * Test print releases the snapshot it reads from
+     */
+    public void testPrintClosesSnapshot() {
+        final boolean[] closed = {false};
+        InventoryReader reader = new MockInventoryReader() {
+            @Override
+            public InventorySnapshot snapshot() {
+                return new InventorySnapshot(products, 0, null) {
+                    @Override
+                    public void close() {
+                        closed[0] = true;
+                    }
+                };
+            }
+        };
+        new InventoryPrinter(mockReport, reader).print();
+        assertTrue(mockReport.generateReportCalled);
+        assertTrue(closed[0]);
+    }
+    
+    /**
+     * Test printAsync runs the report off the calling thread
+     */
+    public void testPrintAsync() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final Thread[] ranOn = new Thread[1];
+        mockReader.products.add(new Product("Laptop", 5, 999.99));
+        InventoryReport report = products -> {
+            ranOn[0] = Thread.currentThread();
+            assertEquals("Laptop", products.get(0).getName());
+        };
+        try (ReportExecutor executor = new ReportExecutor(1, 1)) {
+            new InventoryPrinter(report, mockReader, executor).printAsync().get(5, TimeUnit.SECONDS);
+        }
+        assertNotNull(ranOn[0]);
+        assertNotSame(caller, ranOn[0]);
+    }
+
+    /**
+     * Test that cancelling stops a report that never checks interruption
+     */
+    public void testPrintAsyncCancel() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockReader.products.add(new Product("P" + i, i, i));
+        }
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch stopped = new CountDownLatch(1);
+        InventoryReport endless = products -> {
+            started.countDown();
+            try {
+                while (true) {
+                    for (Product p : products) {
+                        p.getName();
+                    }
+                }
+            } finally {
+                stopped.countDown();
+            }
+        };
+        try (ReportExecutor executor = new ReportExecutor(1, 1)) {
+            CompletableFuture<Void> future =
+                new InventoryPrinter(endless, mockReader, executor).printAsync();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(future.cancel(true));
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    /**
+     * Test that a report past its timeout is interrupted
+     */
+    public void testPrintAsyncTimeout() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        InventoryReport slow = products -> {
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        };
+        try (ReportExecutor executor = new ReportExecutor(1, 1)) {
+            CompletableFuture<Void> future = new InventoryPrinter(slow, mockReader, executor)
+                .printAsync(50, TimeUnit.MILLISECONDS);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Test that reports beyond the concurrency and queue limits are rejected
+     */
+    public void testPrintAsyncCapsConcurrentReports() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        InventoryReport blocking = products -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+        try (ReportExecutor executor = new ReportExecutor(2, 1)) {
+            InventoryPrinter blockingPrinter = new InventoryPrinter(blocking, mockReader, executor);
+            List<CompletableFuture<Void>> accepted = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < 3; i++) {
+                accepted.add(blockingPrinter.printAsync());
+            }
+            CompletableFuture<Void> rejected = blockingPrinter.printAsync();
+            try {
+                rejected.get(5, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (running.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (CompletableFuture<Void> future : accepted) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        }
+        assertEquals(2, peak.get());
+    }
+    
     /**
      * Mock implementation of InventoryReport for testing
      */
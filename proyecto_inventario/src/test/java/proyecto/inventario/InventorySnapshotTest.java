@@ -0,0 +1,178 @@
+package proyecto.inventario;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for InventorySnapshot class.
+ */
+public class InventorySnapshotTest extends TestCase {
+
+    private Inventory inventory;
+    private PrintStream originalOut;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public InventorySnapshotTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(InventorySnapshotTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        inventory = new Inventory();
+        inventory.addProduct("Laptop", 5, 999.99);
+        inventory.addProduct("Mouse", 10, 25.50);
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        System.setOut(originalOut);
+        inventory = null;
+    }
+
+    /**
+     * Test that repeated reads of a snapshot agree while writers race it
+     */
+    public void testRepeatedReadsAreStable() throws InterruptedException {
+        Product laptop = inventory.findByName("Laptop").get();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> writers = new ArrayList<Thread>();
+        for (int t = 0; t < 2; t++) {
+            Thread writer = new Thread(() -> {
+                while (running.get()) {
+                    laptop.addQuantity(1);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        int unstable = 0;
+        try {
+            for (int i = 0; i < 500; i++) {
+                try (InventorySnapshot snapshot = inventory.snapshot()) {
+                    List<Product> products = snapshot.getProducts();
+                    int first = products.get(0).getQuantity();
+                    Thread.yield();
+                    if (products.get(0).getQuantity() != first
+                            || snapshot.getProducts().get(0).getQuantity() != first) {
+                        unstable++;
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+        assertEquals(0, unstable);
+    }
+
+    /**
+     * Test snapshot keeps the values it saw when opened
+     */
+    public void testSnapshotIgnoresLaterUpdates() {
+        try (InventorySnapshot snapshot = inventory.snapshot()) {
+            inventory.adjustQuantity("Laptop", 3);
+            inventory.findByName("Mouse").get().setPrice(19.99);
+
+            List<Product> products = snapshot.getProducts();
+            assertEquals(5, products.get(0).getQuantity());
+            assertEquals(25.50, products.get(1).getPrice(), 0.001);
+        }
+        assertEquals(8, inventory.findByName("Laptop").get().getQuantity());
+    }
+
+    /**
+     * Test snapshot does not see products added after it was opened
+     */
+    public void testSnapshotIgnoresLaterInserts() {
+        try (InventorySnapshot snapshot = inventory.snapshot()) {
+            inventory.addProduct("Keyboard", 8, 75.00);
+            assertEquals(2, snapshot.getProducts().size());
+        }
+        assertEquals(3, inventory.getProducts().size());
+    }
+
+    /**
+     * Test concurrent snapshots each see their own version
+     */
+    public void testNestedSnapshots() {
+        InventorySnapshot first = inventory.snapshot();
+        inventory.adjustQuantity("Laptop", 1);
+        InventorySnapshot second = inventory.snapshot();
+        inventory.adjustQuantity("Laptop", 1);
+        inventory.adjustQuantity("Laptop", 1);
+
+        assertEquals(5, first.getProducts().get(0).getQuantity());
+        assertEquals(6, second.getProducts().get(0).getQuantity());
+
+        first.close();
+        inventory.adjustQuantity("Laptop", 1);
+        assertEquals(6, second.getProducts().get(0).getQuantity());
+        second.close();
+    }
+
+    /**
+     * Test that history is only kept while snapshots are open
+     */
+    public void testHistoryIsReleasedAfterClose() {
+        Product laptop = inventory.findByName("Laptop").get();
+        InventorySnapshot snapshot = inventory.snapshot();
+        for (int i = 0; i < 100; i++) {
+            laptop.addQuantity(1);
+        }
+        // Only the current state and the one the snapshot reads are kept
+        assertTrue(laptop.retainedStates() <= 3);
+        assertEquals(5, snapshot.getProducts().get(0).getQuantity());
+
+        snapshot.close();
+        laptop.addQuantity(1);
+        assertEquals(1, laptop.retainedStates());
+    }
+
+    /**
+     * Test that closing twice is harmless
+     */
+    public void testCloseIsIdempotent() {
+        InventorySnapshot snapshot = inventory.snapshot();
+        snapshot.close();
+        snapshot.close();
+        inventory.adjustQuantity("Laptop", 1);
+        assertEquals(1, inventory.findByName("Laptop").get().retainedStates());
+    }
+
+    /**
+     * Test the default snapshot wraps the given list
+     */
+    public void testUnversionedSnapshot() {
+        List<Product> products = inventory.getProducts();
+        try (InventorySnapshot snapshot = InventorySnapshot.of(products)) {
+            assertSame(products, snapshot.getProducts());
+        }
+    }
+}
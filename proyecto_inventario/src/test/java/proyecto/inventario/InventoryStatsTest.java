@@ -0,0 +1,111 @@
+package proyecto.inventario;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for InventoryStats class.
+ */
+public class InventoryStatsTest extends TestCase {
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public InventoryStatsTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(InventoryStatsTest.class);
+    }
+
+    /**
+     * Test every aggregate on a small catalog
+     */
+    public void testAggregates() {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Laptop", 5, 999.99));
+        products.add(new Product("Mouse", 10, 25.50));
+        products.add(new Product("Cable", 2, 0.1));
+
+        InventoryStats stats = InventoryStats.of(products, 5);
+
+        assertEquals(3, stats.getCount());
+        assertEquals(17, stats.getTotalUnits());
+        assertEquals(0, new BigDecimal("5255.15").compareTo(stats.getTotalValue()));
+        assertEquals(0.1, stats.getMinPrice().getAsDouble(), 0.0);
+        assertEquals(999.99, stats.getMaxPrice().getAsDouble(), 0.0);
+        assertEquals(1, stats.getLowStockCount());
+    }
+
+    /**
+     * Test that prices without exact cents keep their decimal value
+     */
+    public void testValueIsExact() {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Tornillo", 3, 0.001));
+        products.add(new Product("Barra", Integer.MAX_VALUE, 1e12));
+        products.add(new Product("Pieza", 1, 0.07));
+
+        BigDecimal expected = new BigDecimal("0.003")
+            .add(new BigDecimal("1e12").multiply(BigDecimal.valueOf(Integer.MAX_VALUE)))
+            .add(new BigDecimal("0.07"));
+        assertEquals(0, expected.compareTo(InventoryStats.of(products, 0).getTotalValue()));
+    }
+
+    /**
+     * Test that the parallel path gives the same result as a plain sum
+     */
+    public void testLargeCatalogInParallel() {
+        List<Product> products = new ArrayList<Product>();
+        BigDecimal expected = BigDecimal.ZERO;
+        long units = 0;
+        for (int i = 0; i < 3 * InventoryStats.PARALLEL_THRESHOLD; i++) {
+            double price = (i % 1000) / 100.0 + (i % 7 == 0 ? 0.005 : 0);
+            products.add(new Product("Item" + i, i % 50, price));
+            expected = expected.add(BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(i % 50)));
+            units += i % 50;
+        }
+
+        InventoryStats stats = InventoryStats.of(products, 10);
+
+        assertEquals(products.size(), stats.getCount());
+        assertEquals(units, stats.getTotalUnits());
+        assertEquals(0, expected.compareTo(stats.getTotalValue()));
+        assertEquals(products.size() / 5, stats.getLowStockCount());
+        assertEquals(0.0, stats.getMinPrice().getAsDouble(), 0.0);
+    }
+
+    /**
+     * Test an empty catalog
+     */
+    public void testEmpty() {
+        InventoryStats stats = InventoryStats.of(Collections.<Product>emptyList(), 1);
+        assertEquals(0, stats.getCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(stats.getTotalValue()));
+        assertFalse(stats.getMinPrice().isPresent());
+        assertFalse(stats.getMaxPrice().isPresent());
+    }
+
+    /**
+     * Test that a non-finite price is rejected
+     */
+    public void testNonFinitePrice() {
+        try {
+            InventoryStats.of(Collections.singletonList(new Product("X", 1, Double.NaN)), 0);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            // Expected behavior
+        }
+    }
+}
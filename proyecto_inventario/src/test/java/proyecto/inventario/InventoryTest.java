@@ -3,6 +3,12 @@ package proyecto.inventario;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import proyecto.inventario.metrics.MetricsSnapshot;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -229,4 +235,506 @@ public class InventoryTest extends TestCase {
         assertEquals(5, zeroPriceProduct.getQuantity());
         assertEquals(0.0, zeroPriceProduct.getPrice(), 0.01);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test findByName returns the stored product
+     */
+    public void testFindByName() {
+        inventory.addProduct("Tablet", 7, 320.00);
+        Product tablet = inventory.findByName("Tablet").orElse(null);
+        assertNotNull(tablet);
+        assertEquals(7, tablet.getQuantity());
+        assertFalse(inventory.findByName("DoesNotExist").isPresent());
+    }
+    
+    /**
+     * Test that adding an existing name merges instead of duplicating
+     */
+    public void testAddProductMergesDuplicateNames() {
+        inventory.addProduct("Charger", 4, 19.99);
+        int size = inventory.getProducts().size();
+        inventory.addProduct("Charger", 6, 17.50);
+        
+        assertEquals(size, inventory.getProducts().size());
+        Product charger = inventory.findByName("Charger").orElse(null);
+        assertEquals(10, charger.getQuantity());
+        assertEquals(17.50, charger.getPrice(), 0.01);
+    }
+    
+    /**
+     * Test upsert inserts new products and replaces existing values
+     */
+    public void testUpsert() {
+        Product inserted = inventory.upsert("Speaker", 3, 45.00);
+        assertEquals(3, inserted.getQuantity());
+        
+        Product updated = inventory.upsert("Speaker", 8, 40.00);
+        assertSame(inserted, updated);
+        assertEquals(8, updated.getQuantity());
+        assertEquals(40.00, updated.getPrice(), 0.01);
+    }
+    
+    /**
+     * Test adjustQuantity adds and subtracts stock
+     */
+    public void testAdjustQuantity() {
+        inventory.upsert("Cable", 10, 5.00);
+        assertEquals(15, inventory.adjustQuantity("Cable", 5));
+        assertEquals(12, inventory.adjustQuantity("Cable", -3));
+        assertEquals(12, inventory.findByName("Cable").get().getQuantity());
+    }
+    
+    /**
+     * Test adjustQuantity on a missing product
+     */
+    public void testAdjustQuantityUnknownProduct() {
+        try {
+            inventory.adjustQuantity("Missing", 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior
+        }
+    }
+
+    /**
+     * Test running totals follow adds, merges and product setters
+     */
+    public void testRunningTotals() {
+        Inventory local = new Inventory();
+        local.addProduct("Laptop", 5, 999.99);
+        local.addProduct("Laptop", 1, 899.99);
+        Product mouse = local.upsert("Mouse", 10, 25.50);
+        mouse.setQuantity(4);
+        mouse.setPrice(0.1);
+
+        assertEquals(2, local.productCount());
+        assertEquals(10, local.totalUnits());
+        assertEquals(0, new BigDecimal("5400.34").compareTo(local.totalValue()));
+        assertEquals(0, local.stats(0).getTotalValue().compareTo(local.totalValue()));
+    }
+
+    /**
+     * Test listeners see adds, merges, upserts and adjustments
+     */
+    public void testListenersReceiveChanges() {
+        Inventory local = new Inventory();
+        final List<String> events = new ArrayList<String>();
+        InventoryListener listener = new InventoryListener() {
+            @Override
+            public void productAdded(String name, int quantity, double price) {
+                events.add("added " + name + " " + quantity + " " + price);
+            }
+
+            @Override
+            public void productUpdated(String name, int quantity, double price) {
+                events.add("updated " + name + " " + quantity + " " + price);
+            }
+        };
+        local.addListener(listener);
+        local.addListener(listener);
+
+        local.addProduct("Laptop", 5, 999.99);
+        local.addProduct("Laptop", 1, 899.99);
+        local.upsert("Mouse", 10, 25.5);
+        local.upsert("Mouse", 4, 20.0);
+        local.adjustQuantity("Mouse", -1);
+        local.removeListener(listener);
+        local.addProduct("Monitor", 1, 199.99);
+
+        assertEquals(Arrays.asList("added Laptop 5 999.99", "added Laptop 6 899.99",
+            "added Mouse 10 25.5", "updated Mouse 4 20.0", "updated Mouse 3 20.0"), events);
+    }
+
+    /**
+     * Test that adding products prints nothing unless a listener asks for it
+     */
+    public void testAddProductIsSilentByDefault() {
+        Inventory local = new Inventory();
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        try {
+            local.addProduct("Laptop", 5, 999.99);
+            assertEquals("", output.toString());
+            local.addListener(new ConsoleInventoryListener());
+            local.addProduct("Laptop", 5, 999.99);
+            assertEquals("Product added." + System.lineSeparator(), output.toString());
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test that a failing listener does not break writes or other listeners
+     */
+    public void testFailingListenerIsIsolated() {
+        Inventory local = new Inventory();
+        final int[] calls = {0};
+        List<Throwable> reported = new ArrayList<Throwable>();
+        Thread.UncaughtExceptionHandler original = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.add(e));
+        try {
+            local.addListener(new InventoryListener() {
+                @Override
+                public void productAdded(String name, int quantity, double price) {
+                    throw new IllegalStateException("boom");
+                }
+            });
+            local.addListener(new InventoryListener() {
+                @Override
+                public void productAdded(String name, int quantity, double price) {
+                    calls[0]++;
+                }
+            });
+            local.addProduct("Laptop", 5, 999.99);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(original);
+        }
+        assertEquals(1, reported.size());
+        assertEquals("boom", reported.get(0).getMessage());
+        assertEquals(1, calls[0]);
+        assertEquals(5, local.findByName("Laptop").get().getQuantity());
+    }
+
+    /**
+     * Test that the async listener delivers every event in order
+     */
+    public void testAsyncListenerDeliversInOrder() {
+        Inventory local = new Inventory();
+        final List<Integer> quantities = new ArrayList<Integer>();
+        AsyncInventoryListener async = new AsyncInventoryListener(new InventoryListener() {
+            @Override
+            public void productUpdated(String name, int quantity, double price) {
+                quantities.add(quantity);
+            }
+
+            @Override
+            public void productRemoved(String name, int quantity, double price) {
+                quantities.add(-quantity);
+            }
+        }, 4);
+        local.addListener(async);
+        local.upsert("Laptop", 0, 999.99);
+        for (int i = 0; i < 100; i++) {
+            local.adjustQuantity("Laptop", 1);
+        }
+        local.removeProduct("Laptop");
+        async.close();
+
+        assertEquals(101, quantities.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, quantities.get(i).intValue());
+        }
+        assertEquals(-100, quantities.get(100).intValue());
+    }
+
+    /**
+     * Test that a batch adds and merges like addProduct with one event
+     */
+    public void testAddProducts() {
+        Inventory local = new Inventory();
+        local.addProduct("Laptop", 5, 999.99);
+        final List<ProductBatch> events = new ArrayList<ProductBatch>();
+        local.addListener(new InventoryListener() {
+            @Override
+            public void productsAdded(ProductBatch batch) {
+                events.add(batch);
+            }
+        });
+        ChangeTracker tracker = local.trackChanges();
+
+        local.addProducts(new ProductBatch(1)
+            .add("Mouse", 10, 25.5)
+            .add("Laptop", 1, 899.99)
+            .add("Mouse", 2, 20.0));
+
+        assertEquals(2, local.getProducts().size());
+        assertEquals(12, local.findByName("Mouse").get().getQuantity());
+        assertEquals(20.0, local.findByName("Mouse").get().getPrice(), 0.0);
+        assertEquals(6, local.findByName("Laptop").get().getQuantity());
+        assertEquals(2, local.productCount());
+        assertEquals(18, local.totalUnits());
+        assertEquals(0, local.stats(0).getTotalValue().compareTo(local.totalValue()));
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).size());
+        assertEquals("Laptop", events.get(0).getName(1));
+        assertEquals(6, events.get(0).getQuantity(1));
+        assertEquals(2, tracker.drain().size());
+        assertEquals(1, local.getMetrics().snapshot().getOperations().get("ADD_PRODUCTS")
+            .getCount());
+        tracker.close();
+    }
+
+    /**
+     * Test that listeners without a batch method see one add per row
+     */
+    public void testAddProductsFallsBackToSingleEvents() {
+        Inventory local = new Inventory();
+        final List<String> events = new ArrayList<String>();
+        AsyncInventoryListener async = new AsyncInventoryListener(new InventoryListener() {
+            @Override
+            public void productAdded(String name, int quantity, double price) {
+                events.add(name + " " + quantity);
+            }
+        }, 2);
+        local.addListener(async);
+        local.addProducts(new ProductBatch().add("Mouse", 10, 25.5).add("Monitor", 1, 199.99));
+        async.close();
+
+        assertEquals(Arrays.asList("Mouse 10", "Monitor 1"), events);
+    }
+
+    /**
+     * Test removeProduct updates totals, listeners and open snapshots
+     */
+    public void testRemoveProduct() {
+        Inventory local = new Inventory();
+        final List<String> events = new ArrayList<String>();
+        local.addListener(new InventoryListener() {
+            @Override
+            public void productRemoved(String name, int quantity, double price) {
+                events.add("removed " + name + " " + quantity + " " + price);
+            }
+        });
+        local.addProduct("Laptop", 5, 999.99);
+        Product mouse = local.upsert("Mouse", 10, 25.50);
+        InventorySnapshot snapshot = local.snapshot();
+
+        assertTrue(local.removeProduct("Mouse"));
+        assertFalse(local.removeProduct("Mouse"));
+        mouse.setQuantity(100);
+
+        assertEquals(Arrays.asList("removed Mouse 10 25.5"), events);
+        assertFalse(local.findByName("Mouse").isPresent());
+        assertEquals(1, local.getProducts().size());
+        assertEquals(1, local.productCount());
+        assertEquals(5, local.totalUnits());
+        assertEquals(0, new BigDecimal("4999.95").compareTo(local.totalValue()));
+        assertEquals(2, snapshot.getProducts().size());
+        assertEquals(10, snapshot.getProducts().get(1).getQuantity());
+        snapshot.close();
+    }
+
+    /**
+     * Test that a change tracker reports each changed product once
+     */
+    public void testTrackChanges() {
+        Inventory local = new Inventory();
+        local.addProduct("Laptop", 5, 999.99);
+        ChangeTracker tracker = local.trackChanges();
+        assertTrue(tracker.drain().isEmpty());
+
+        local.addProduct("Mouse", 10, 25.50);
+        local.adjustQuantity("Mouse", -2);
+        local.upsert("Monitor", 2, 199.99);
+        local.findByName("Laptop").get().setPrice(899.99);
+        assertEquals(3, tracker.pending());
+
+        List<ProductChange> changes = tracker.drain();
+        assertEquals(3, changes.size());
+        ProductChange mouse = find(changes, "Mouse");
+        assertFalse(mouse.isRemoved());
+        assertEquals(8, mouse.getQuantity());
+        assertEquals(899.99, find(changes, "Laptop").getPrice(), 0.0);
+        assertEquals(0, tracker.pending());
+
+        local.removeProduct("Monitor");
+        local.adjustQuantity("Mouse", 1);
+        changes = tracker.drain();
+        assertEquals(2, changes.size());
+        assertTrue(find(changes, "Monitor").isRemoved());
+        assertEquals(9, find(changes, "Mouse").getQuantity());
+
+        tracker.restore(changes);
+        assertEquals(2, tracker.pending());
+        tracker.close();
+        local.adjustQuantity("Laptop", 1);
+        assertEquals(2, tracker.drain().size());
+    }
+
+    /**
+     * Test range queries follow adds, setters, adjustments and removals
+     */
+    public void testRangeQueries() {
+        Inventory local = new Inventory();
+        local.addProduct("Laptop", 5, 999.99);
+        local.addProduct("Mouse", 2, 25.5);
+        local.addProduct("Monitor", 8, 199.99);
+
+        assertEquals(Arrays.asList("Mouse", "Laptop"), names(local.findLowStock(6)));
+        assertEquals(Arrays.asList("Monitor", "Laptop"), names(local.findByPrice(100, 999.99)));
+
+        local.findByName("Mouse").get().setQuantity(20);
+        local.findByName("Monitor").get().setPrice(450.0);
+        local.adjustQuantity("Laptop", -4);
+        local.addProducts(new ProductBatch().add("Cable", 0, 0.0).add("Dock", 3, 120.0));
+        local.upsert("Keyboard", 1, 45.0);
+        local.removeProduct("Keyboard");
+
+        assertEquals(Arrays.asList("Cable", "Laptop", "Dock"), names(local.findLowStock(5)));
+        assertEquals(Arrays.asList("Dock", "Monitor"), names(local.findByPrice(100, 500)));
+        assertEquals(Arrays.asList("Mouse"), names(local.findByQuantity(20, 20)));
+        assertTrue(local.findByQuantity(10, 1).isEmpty());
+        assertEquals(Arrays.asList("Cable"), names(local.findByPrice(-0.0, 0.0)));
+
+        InventoryReader scan = new InventoryReader() {
+            @Override
+            public List<Product> getProducts() {
+                return local.getProducts();
+            }
+        };
+        assertEquals(names(scan.findLowStock(5)), names(local.findLowStock(5)));
+        assertEquals(names(scan.findByPrice(100, 500)), names(local.findByPrice(100, 500)));
+    }
+
+    /**
+     * Test prefix search with pagination, case folding and removals
+     */
+    public void testSearchByPrefix() {
+        Inventory local = new Inventory();
+        local.addProduct("Monitor", 8, 199.99);
+        local.addProduct("mouse", 2, 25.5);
+        local.addProduct("Laptop", 5, 999.99);
+
+        SearchPage first = local.searchByPrefix("MO", 1);
+        assertEquals(Arrays.asList("Monitor"), names(first.getProducts()));
+        assertTrue(first.hasMore());
+        SearchPage second = local.searchByPrefix("MO", 1, first.getNextCursor());
+        assertEquals(Arrays.asList("mouse"), names(second.getProducts()));
+        assertFalse(second.hasMore());
+
+        local.addProducts(new ProductBatch().add("Modem", 1, 80.0).add("Cable", 0, 0.0));
+        local.upsert("Motherboard", 3, 150.0);
+        local.removeProduct("Monitor");
+        assertEquals(Arrays.asList("Modem", "Motherboard", "mouse"),
+            names(local.searchByPrefix("mo", 10).getProducts()));
+        assertEquals(5, local.searchByPrefix("", 10).getProducts().size());
+        assertTrue(local.searchByPrefix("Z", 10).getProducts().isEmpty());
+        try {
+            local.searchByPrefix("M", 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("limit must be >= 1", e.getMessage());
+        }
+    }
+
+    /**
+     * Test substring search through the trigram index and the short scan
+     */
+    public void testSearchBySubstring() {
+        Inventory local = new Inventory();
+        for (int i = 0; i < 25; i++) {
+            local.addProduct("Cable USB " + i, i, 5.0);
+        }
+        local.addProduct("Hub usb-c", 1, 30.0);
+        local.addProduct("Monitor", 8, 199.99);
+
+        List<String> found = new ArrayList<String>();
+        SearchPage page = local.searchBySubstring("USB", 10);
+        found.addAll(names(page.getProducts()));
+        while (page.hasMore()) {
+            page = local.searchBySubstring("USB", 10, page.getNextCursor());
+            found.addAll(names(page.getProducts()));
+        }
+        assertEquals(26, found.size());
+        assertEquals("Cable USB 0", found.get(0));
+        assertEquals("Hub usb-c", found.get(25));
+
+        local.removeProduct("Cable USB 3");
+        local.addProducts(new ProductBatch().add("Dock usb", 2, 90.0));
+        assertEquals(Arrays.asList("Hub usb-c", "Dock usb"),
+            names(local.searchBySubstring("usb", 30).getProducts()).subList(24, 26));
+        assertEquals(Arrays.asList("Cable USB 13", "Cable USB 23"),
+            names(local.searchBySubstring("3", 10).getProducts()));
+        assertEquals(Arrays.asList("Monitor"),
+            names(local.searchBySubstring("nit", 10).getProducts()));
+        assertTrue(local.searchBySubstring("xyz", 10).getProducts().isEmpty());
+        assertEquals(7, local.getMetrics().snapshot().getOperations()
+            .get("SEARCH_NAME").getCount());
+    }
+
+    /**
+     * Test that name search survives churn that rebuilds the substring index
+     */
+    public void testSearchAfterChurn() {
+        Inventory local = new Inventory();
+        for (int i = 0; i < 10; i++) {
+            local.addProduct("Keep " + i, i, 1.0);
+        }
+        SearchPage substring = local.searchBySubstring("keep", 3);
+        SearchPage prefix = local.searchByPrefix("keep", 3);
+        churn(local, NameIndex.MIN_DEAD + 1);
+
+        List<String> found = new ArrayList<String>(names(substring.getProducts()));
+        SearchPage page = local.searchBySubstring("keep", 3, substring.getNextCursor());
+        found.addAll(names(page.getProducts()));
+        while (page.hasMore()) {
+            page = local.searchBySubstring("keep", 3, page.getNextCursor());
+            found.addAll(names(page.getProducts()));
+        }
+        assertEquals(names(local.searchBySubstring("keep", 20).getProducts()), found);
+        assertEquals(10, found.size());
+        assertEquals(Arrays.asList("Keep 3", "Keep 4", "Keep 5"), names(
+            local.searchByPrefix("keep", 3, prefix.getNextCursor()).getProducts()));
+        assertTrue(local.searchBySubstring("temp", 10).getProducts().isEmpty());
+
+        churn(local, NameIndex.MIN_DEAD + 1);
+        try {
+            local.searchBySubstring("keep", 3, substring.getNextCursor());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Expired search cursor"));
+        }
+        try {
+            local.searchBySubstring("keep", 3, "nope");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid search cursor: nope", e.getMessage());
+        }
+        assertEquals(10, local.searchBySubstring("keep", 20).getProducts().size());
+    }
+
+    private static void churn(Inventory inventory, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            inventory.addProduct("Temp", 1, 1.0);
+            inventory.removeProduct("Temp");
+        }
+    }
+
+    /**
+     * Test that operations and catalog size show up in the metrics
+     */
+    public void testMetrics() {
+        Inventory local = new Inventory();
+        local.addProduct("Laptop", 5, 999.99);
+        local.addProduct("Laptop", 1, 999.99);
+        local.upsert("Mouse", 10, 25.5);
+        local.findByName("Mouse");
+        local.snapshot().close();
+
+        MetricsSnapshot metrics = local.getMetrics().snapshot();
+        assertEquals(2, metrics.getOperations().get("ADD_PRODUCT").getCount());
+        assertEquals(1, metrics.getOperations().get("UPSERT").getCount());
+        assertEquals(1, metrics.getOperations().get("FIND_BY_NAME").getCount());
+        assertEquals(1, metrics.getOperations().get("SNAPSHOT").getCount());
+        assertEquals(2, metrics.getProductCount());
+        assertTrue(metrics.getApproximateHeapBytes() > "LaptopMouse".length());
+    }
+
+    private static List<String> names(List<Product> products) {
+        List<String> names = new ArrayList<String>();
+        for (Product p : products) {
+            names.add(p.getName());
+        }
+        return names;
+    }
+
+    private static ProductChange find(List<ProductChange> changes, String name) {
+        for (ProductChange change : changes) {
+            if (change.getName().equals(name)) {
+                return change;
+            }
+        }
+        throw new AssertionError("No change for " + name);
+    }
+}
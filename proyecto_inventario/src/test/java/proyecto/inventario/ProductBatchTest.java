@@ -0,0 +1,73 @@
+package proyecto.inventario;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.util.Arrays;
+
+/**
+ * Unit tests for ProductBatch class.
+ */
+public class ProductBatchTest extends TestCase {
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public ProductBatchTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ProductBatchTest.class);
+    }
+
+    /**
+     * Test that the batch grows and keeps rows in order
+     */
+    public void testAddGrowsAndKeepsOrder() {
+        ProductBatch batch = new ProductBatch(0);
+        for (int i = 0; i < 100; i++) {
+            batch.add("Item " + i, i, i / 10.0);
+        }
+
+        assertEquals(100, batch.size());
+        assertEquals("Item 42", batch.getName(42));
+        assertEquals(42, batch.getQuantity(42));
+        assertEquals(4.2, batch.getPrice(42), 0.0);
+    }
+
+    /**
+     * Test that clear empties the batch for reuse
+     */
+    public void testClear() {
+        ProductBatch batch = new ProductBatch().add("Laptop", 5, 999.99);
+        batch.clear();
+        assertEquals(0, batch.size());
+        try {
+            batch.getName(0);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected behavior
+        }
+        batch.add("Mouse", 10, 25.5);
+        assertEquals("Mouse", batch.getName(0));
+    }
+
+    /**
+     * Test that of copies the current values of the products
+     */
+    public void testOf() {
+        Product laptop = new Product("Laptop", 5, 999.99);
+        ProductBatch batch = ProductBatch.of(Arrays.asList(laptop, new Product("Mouse", 10, 25.5)));
+        laptop.setQuantity(1);
+
+        assertEquals(2, batch.size());
+        assertEquals(5, batch.getQuantity(0));
+        assertEquals("Mouse", batch.getName(1));
+    }
+}
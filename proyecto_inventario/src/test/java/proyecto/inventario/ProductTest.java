@@ -139,4 +139,62 @@ public class ProductTest extends TestCase {
         // Name should remain the same as there's no setter
         assertEquals("Laptop", product.getName());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test addQuantity returns the new quantity
+     */
+    public void testAddQuantity() {
+        assertEquals(15, product.addQuantity(5));
+        assertEquals(12, product.addQuantity(-3));
+        assertEquals(12, product.getQuantity());
+    }
+    
+    /**
+     * Test addQuantity with a new price
+     */
+    public void testAddQuantityWithPrice() {
+        assertEquals(12, product.addQuantity(2, 899.99));
+        assertEquals(899.99, product.getPrice(), 0.01);
+    }
+    
+    /**
+     * Test addQuantity rejects overflow
+     */
+    public void testAddQuantityOverflow() {
+        try {
+            product.addQuantity(Integer.MAX_VALUE);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            // Expected behavior
+        }
+        assertEquals(10, product.getQuantity());
+    }
+    
+    /**
+     * Test update replaces quantity and price together
+     */
+    public void testUpdate() {
+        product.update(3, 10.0);
+        assertEquals(3, product.getQuantity());
+        assertEquals(10.0, product.getPrice(), 0.01);
+    }
+
+    /**
+     * Test that a view without its own state cannot join an inventory
+     */
+    public void testViewCannotBeAttached() {
+        Product view = new Product() {
+            @Override
+            public String getName() {
+                return "View";
+            }
+        };
+        try {
+            view.attach(new VersionClock(), new RunningTotals(), new ChangeTrackers(),
+                new ProductIndexes(() -> null));
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("View"));
+        }
+    }
+}
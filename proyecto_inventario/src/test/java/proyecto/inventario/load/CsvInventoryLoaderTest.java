@@ -0,0 +1,150 @@
+package proyecto.inventario.load;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import proyecto.inventario.report.CsvInventoryReport;
+import proyecto.inventario.repository.ConcurrentInventoryRepository;
+import proyecto.inventario.repository.InventoryRepository;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for CsvInventoryLoader class.
+ */
+public class CsvInventoryLoaderTest extends TestCase {
+
+    private String testFilePath;
+    private InventoryRepository repository;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public CsvInventoryLoaderTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(CsvInventoryLoaderTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        testFilePath = "test_loader.csv";
+        repository = new ConcurrentInventoryRepository();
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(testFilePath));
+        repository = null;
+    }
+
+    /**
+     * Test loading a file written by CsvInventoryReport
+     */
+    public void testLoadsReportOutput() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Laptop", 5, 999.99));
+        products.add(new Product("Mouse", 10, 25.50));
+        products.add(new Product("Keyboard", 8, 75.00));
+        new CsvInventoryReport(testFilePath).generateReport(products);
+
+        long rows = new CsvInventoryLoader(testFilePath).load(repository);
+
+        assertEquals(3, rows);
+        assertProducts(products, repository.findAll());
+    }
+
+    /**
+     * Test that many small chunks parsed in parallel give the same result
+     */
+    public void testParallelChunksKeepFileOrder() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 5000; i++) {
+            String name = i % 7 == 0 ? "Item \"" + i + "\", large\nline" : "Item" + i;
+            products.add(new Product(name, i, i / 100.0));
+        }
+        new CsvInventoryReport(testFilePath).generateReport(products);
+
+        long rows = new CsvInventoryLoader(testFilePath, 4, 997).load(repository);
+
+        assertEquals(5000, rows);
+        assertProducts(products, repository.findAll());
+    }
+
+    /**
+     * Test that a repeated name keeps the values of its last row
+     */
+    public void testLastRowWins() throws IOException {
+        write("Name,Quantity,Price\nMouse,1,1.00\nMouse,2,2.50\n");
+
+        new CsvInventoryLoader(testFilePath).load(repository);
+
+        assertEquals(1, repository.findAll().size());
+        assertEquals(2, repository.findByName("Mouse").get().getQuantity());
+        assertEquals(2.50, repository.findByName("Mouse").get().getPrice(), 0.001);
+    }
+
+    /**
+     * Test Windows line endings, no header and no trailing newline
+     */
+    public void testToleratesLineEndingVariants() throws IOException {
+        write("Mouse,1,1.5\r\nCable,3,-0.25");
+
+        assertEquals(2, new CsvInventoryLoader(testFilePath).load(repository));
+        assertEquals(1.5, repository.findByName("Mouse").get().getPrice(), 0.001);
+        assertEquals(-0.25, repository.findByName("Cable").get().getPrice(), 0.001);
+    }
+
+    /**
+     * Test that an empty file loads nothing
+     */
+    public void testEmptyFile() throws IOException {
+        write("Name,Quantity,Price\n");
+        assertEquals(0, new CsvInventoryLoader(testFilePath).load(repository));
+        assertEquals(0, repository.findAll().size());
+    }
+
+    /**
+     * Test that a malformed row is reported
+     */
+    public void testMalformedRow() throws IOException {
+        write("Name,Quantity,Price\nManzana,10,0,50\n");
+        try {
+            new CsvInventoryLoader(testFilePath).load(repository);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("byte 20"));
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(Paths.get(testFilePath), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertProducts(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPrice(), actual.get(i).getPrice(), 0.001);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package proyecto.inventario.load;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import proyecto.inventario.report.CsvInventoryReport;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for MappedCsvReader class.
+ */
+public class MappedCsvReaderTest extends TestCase {
+
+    private String testFilePath;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public MappedCsvReaderTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(MappedCsvReaderTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        testFilePath = "test_mapped.csv";
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(testFilePath));
+    }
+
+    /**
+     * Test that rows can be aggregated without decoding names
+     */
+    public void testScansQuantitiesAndPrices() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        long expectedUnits = 0;
+        for (int i = 0; i < 3000; i++) {
+            products.add(new Product("Item" + i, i, 1.25));
+            expectedUnits += i;
+        }
+        new CsvInventoryReport(testFilePath).generateReport(products);
+
+        final long[] units = {0};
+        long rows;
+        // A small window forces rows to be remapped across window ends
+        try (MappedCsvReader reader = new MappedCsvReader(testFilePath, 100)) {
+            rows = reader.forEach(row -> units[0] += row.quantity());
+        }
+        assertEquals(3000, rows);
+        assertEquals(expectedUnits, units[0]);
+    }
+
+    /**
+     * Test that materialized rows match the exported products
+     */
+    public void testMaterializesProducts() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Laptop", 5, 999.99));
+        products.add(new Product("Cable, \"USB\"", 10, 2.5));
+        products.add(new Product("Cañón", 1, 0.0));
+        new CsvInventoryReport(testFilePath).generateReport(products);
+
+        final List<Product> read = new ArrayList<Product>();
+        try (MappedCsvReader reader = new MappedCsvReader(testFilePath, 7)) {
+            reader.forEach(row -> read.add(row.toProduct()));
+        }
+        assertEquals(3, read.size());
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(products.get(i).getName(), read.get(i).getName());
+            assertEquals(products.get(i).getQuantity(), read.get(i).getQuantity());
+            assertEquals(products.get(i).getPrice(), read.get(i).getPrice(), 0.001);
+        }
+    }
+
+    /**
+     * Test that a malformed row is reported
+     */
+    public void testMalformedRow() throws IOException {
+        Files.write(Paths.get(testFilePath),
+            "Name,Quantity,Price\nPera,x,1.0\n".getBytes(StandardCharsets.UTF_8));
+        try (MappedCsvReader reader = new MappedCsvReader(testFilePath)) {
+            reader.forEach(row -> { });
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("byte 20"));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package proyecto.inventario.metrics;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+/**
+ * Unit tests for InventoryMetrics class.
+ */
+public class InventoryMetricsTest extends TestCase {
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public InventoryMetricsTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(InventoryMetricsTest.class);
+    }
+
+    /**
+     * Test the snapshot API
+     */
+    public void testSnapshot() {
+        InventoryMetrics metrics = new InventoryMetrics(() -> 3, () -> 600);
+        metrics.record(InventoryMetrics.Operation.ADD_PRODUCT, 100);
+        metrics.record(InventoryMetrics.Operation.ADD_PRODUCT, 200);
+        metrics.report("csv").recordRun(1000, 20000, 2000000000L, false);
+        metrics.report("csv").recordRun(0, 0, 1, true);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.getProductCount());
+        assertEquals(600, snapshot.getApproximateHeapBytes());
+        assertEquals(2, snapshot.getOperations().get("ADD_PRODUCT").getCount());
+        assertEquals(0, snapshot.getOperations().get("SNAPSHOT").getCount());
+        ReportStats csv = snapshot.getReports().get("csv");
+        assertEquals(2, csv.getRuns());
+        assertEquals(1, csv.getFailures());
+        assertEquals(1000, csv.getRows());
+        assertEquals(20000, csv.getBytesWritten());
+        assertEquals(500.0, csv.getRowsPerSecond(), 0.001);
+    }
+
+    /**
+     * Test that the metrics are readable through JMX
+     */
+    public void testRegisterMBean() throws Exception {
+        InventoryMetrics metrics = new InventoryMetrics(() -> 7, () -> 1400);
+        metrics.record(InventoryMetrics.Operation.FIND_BY_NAME, 50);
+        metrics.report("console").recordRun(7, 300, 1000, false);
+
+        ObjectName name = metrics.registerMBean("metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(name, metrics.registerMBean("metrics-test"));
+            assertEquals(7L, server.getAttribute(name, "ProductCount"));
+            assertEquals(1400L, server.getAttribute(name, "ApproximateHeapBytes"));
+
+            TabularData operations = (TabularData) server.getAttribute(name, "Operations");
+            CompositeData find = operations.get(new Object[] {"FIND_BY_NAME"});
+            assertEquals(1L, ((CompositeData) find.get("value")).get("count"));
+
+            TabularData reports = (TabularData) server.getAttribute(name, "Reports");
+            CompositeData console = (CompositeData) reports.get(new Object[] {"console"})
+                .get("value");
+            assertEquals(300L, console.get("bytesWritten"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+        Map<String, ReportStats> reports = metrics.getReports();
+        assertEquals(7, reports.get("console").getRows());
+    }
+}
@@ -0,0 +1,81 @@
+package proyecto.inventario.metrics;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for LatencyHistogram class.
+ */
+public class LatencyHistogramTest extends TestCase {
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public LatencyHistogramTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(LatencyHistogramTest.class);
+    }
+
+    /**
+     * Test that every value falls in a bucket whose bound is within 12.5%
+     */
+    public void testBucketsBoundValues() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKETS);
+            long upper = LatencyHistogram.upperBound(index);
+            assertTrue(value + " <= " + upper, value <= upper);
+            assertTrue(value + " ~ " + upper, upper - value <= value / 8);
+        }
+    }
+
+    /**
+     * Test counts, mean, max and percentiles
+     */
+    public void testSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMaxNanos());
+        assertEquals(500500000L, snapshot.getTotalNanos());
+        assertEquals(500000, snapshot.getP50Nanos(), 500000 / 8);
+        assertEquals(990000, snapshot.getP99Nanos(), 990000 / 8);
+        assertEquals(1000000, snapshot.percentile(1.0));
+        assertEquals(0, new LatencyHistogram().snapshot().getP99Nanos());
+    }
+
+    /**
+     * Test concurrent recording loses no measurements
+     */
+    public void testConcurrentRecording() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, histogram.snapshot().getCount());
+    }
+}
@@ -0,0 +1,499 @@
+package proyecto.inventario.persistence;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.InventoryReader;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.ProductBatch;
+import proyecto.inventario.repository.ConcurrentInventoryRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for DurableInventoryWriter and WriteAheadLog classes.
+ */
+public class DurableInventoryWriterTest extends TestCase {
+
+    private String logPath;
+    private String checkpointPath;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public DurableInventoryWriterTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(DurableInventoryWriterTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        logPath = "test_inventory.wal";
+        checkpointPath = "test_inventory.wal.ckpt";
+        Files.deleteIfExists(Paths.get(logPath));
+        Files.deleteIfExists(Paths.get(checkpointPath));
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(logPath));
+        Files.deleteIfExists(Paths.get(logPath + ".compact"));
+        Files.deleteIfExists(Paths.get(checkpointPath));
+    }
+
+    /**
+     * Test that every kind of write survives a restart
+     */
+    public void testReplayRestoresWrites() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.addProduct("Laptop", 5, 999.99);
+            writer.addProduct("Laptop", 2, 949.99);
+            writer.upsert("Mouse", 10, 25.50);
+            writer.adjustQuantity("Mouse", -4);
+            try {
+                writer.adjustQuantity("Missing", 1);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                // Expected behavior: not logged
+            }
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(2, restored.getProducts().size());
+        assertEquals(7, restored.findByName("Laptop").get().getQuantity());
+        assertEquals(949.99, restored.findByName("Laptop").get().getPrice(), 0.0);
+        assertEquals(6, restored.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test that a batch is logged row by row and replays exactly
+     */
+    public void testBatchSurvivesRestart() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            ProductBatch batch = new ProductBatch(2);
+            for (int i = 0; i < 500; i++) {
+                batch.add("Item " + (i % 200), 1, i / 10.0);
+            }
+            writer.addProducts(batch);
+            writer.addProducts(new ProductBatch());
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(200, restored.getProducts().size());
+        assertEquals(3, restored.findByName("Item 0").get().getQuantity());
+        assertEquals(2, restored.findByName("Item 199").get().getQuantity());
+        assertEquals(49.9, restored.findByName("Item 99").get().getPrice(), 0.0);
+    }
+
+    /**
+     * Test that removals are logged and stay removed after a restart
+     */
+    public void testRemovalSurvivesRestart() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.upsert("Mouse", 10, 25.50);
+            writer.upsert("Cable", 3, 2.00);
+            writer.upsert("Laptop", 5, 999.99);
+            assertTrue(writer.removeProduct("Mouse"));
+            assertFalse(writer.removeProduct("Missing"));
+            writer.compact();
+            assertTrue(writer.removeProduct("Cable"));
+            writer.addProduct("Mouse", 1, 20.00);
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(2, restored.getProducts().size());
+        assertFalse(restored.findByName("Cable").isPresent());
+        assertEquals(1, restored.findByName("Mouse").get().getQuantity());
+        assertEquals(20.00, restored.findByName("Mouse").get().getPrice(), 0.0);
+    }
+
+    /**
+     * Test that a checkpoint plus the log applies each write exactly once
+     */
+    public void testCheckpointReplaysOnlyLaterWrites() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.addProduct("Laptop", 5, 999.99);
+            writer.upsert("Mouse", 10, 25.50);
+            writer.checkpoint(checkpointPath);
+            writer.addProduct("Laptop", 2, 949.99);
+            writer.adjustQuantity("Mouse", -4);
+            writer.removeProduct("Mouse");
+            writer.addProduct("Mouse", 1, 20.00);
+        }
+
+        MemoryInventory restored = new MemoryInventory();
+        try (WriteAheadLog log = new WriteAheadLog(logPath)) {
+            assertEquals(4, DurableInventoryWriter.recover(log, checkpointPath, restored));
+        }
+        assertEquals(7, restored.findByName("Laptop").get().getQuantity());
+        assertEquals(949.99, restored.findByName("Laptop").get().getPrice(), 0.0);
+        assertEquals(1, restored.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test that a checkpoint older than a compaction is ignored
+     */
+    public void testCheckpointBeforeCompactionIsIgnored() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.addProduct("Laptop", 5, 999.99);
+            writer.checkpoint(checkpointPath);
+            writer.removeProduct("Laptop");
+            writer.upsert("Mouse", 10, 25.50);
+            writer.compact();
+            writer.adjustQuantity("Mouse", 1);
+        }
+
+        MemoryInventory restored = new MemoryInventory();
+        try (WriteAheadLog log = new WriteAheadLog(logPath)) {
+            DurableInventoryWriter.recover(log, checkpointPath, restored);
+            try {
+                log.replay(new MemoryInventory(),
+                    InventoryCheckpoint.logPosition(checkpointPath));
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("older than the compacted log base"));
+            }
+        }
+        assertEquals(1, restored.getProducts().size());
+        assertEquals(11, restored.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test that positions survive compaction and reopening
+     */
+    public void testCheckpointAfterCompactionAndRestart() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.addProduct("Laptop", 5, 999.99);
+            writer.compact();
+            writer.addProduct("Laptop", 1, 999.99);
+        }
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.addProduct("Laptop", 1, 999.99);
+            writer.checkpoint(checkpointPath);
+            writer.addProduct("Laptop", 3, 999.99);
+        }
+
+        MemoryInventory restored = new MemoryInventory();
+        try (WriteAheadLog log = new WriteAheadLog(logPath)) {
+            assertEquals(1, DurableInventoryWriter.recover(log, checkpointPath, restored));
+        }
+        assertEquals(10, restored.findByName("Laptop").get().getQuantity());
+    }
+
+    /**
+     * Test that a checkpoint ahead of its log is rejected
+     */
+    public void testCheckpointAheadOfLogIsRejected() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.upsert("Mouse", 10, 25.50);
+            writer.checkpoint(checkpointPath);
+        }
+        Files.delete(Paths.get(logPath));
+        try (WriteAheadLog log = new WriteAheadLog(logPath)) {
+            DurableInventoryWriter.recover(log, checkpointPath, new MemoryInventory());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("ahead of the write-ahead log"));
+        }
+    }
+
+    /**
+     * Test that a torn final record is discarded and the log stays usable
+     */
+    public void testTornTailIsDiscarded() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.upsert("Mouse", 10, 25.50);
+            writer.upsert("Cable", 3, 2.00);
+        }
+        Path path = Paths.get(logPath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        MemoryInventory restored = new MemoryInventory();
+        try (DurableInventoryWriter writer = open(restored)) {
+            assertEquals(1, restored.getProducts().size());
+            writer.upsert("Keyboard", 1, 75.00);
+        }
+        MemoryInventory again = restore();
+        assertEquals(2, again.getProducts().size());
+        assertTrue(again.findByName("Keyboard").isPresent());
+    }
+
+    /**
+     * Test that appends fail fast once the log could not be written
+     */
+    public void testAppendFailsAfterWriteError() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(logPath);
+        log.awaitDurable(log.appendUpsert("Mouse", 10, 25.50));
+        log.fail(new IOException("disk full"));
+        try {
+            log.awaitDurable(log.position());
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+        long position = log.position();
+        try {
+            log.appendAdjust("Mouse", 1);
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+        assertEquals(position, log.position());
+        try {
+            log.close();
+        } catch (IOException e) {
+            // Expected behavior: the failure is reported again on close
+        }
+    }
+
+    /**
+     * Test that writes after a log failure are rejected before being applied
+     */
+    public void testRejectedWriteIsNotApplied() throws IOException {
+        MemoryInventory inventory = new MemoryInventory();
+        WriteAheadLog log = new WriteAheadLog(logPath);
+        log.replay(inventory);
+        DurableInventoryWriter writer = new DurableInventoryWriter(inventory, inventory, log);
+        writer.upsert("Mouse", 10, 25.50);
+        log.fail(new IOException("disk full"));
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                writer.addProduct("Mouse", 5, 20.00);
+                fail("Expected UncheckedIOException");
+            } catch (UncheckedIOException e) {
+                assertEquals("disk full", e.getCause().getMessage());
+            }
+        }
+        try {
+            writer.removeProduct("Mouse");
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+        assertEquals(10, inventory.findByName("Mouse").get().getQuantity());
+        assertEquals(25.50, inventory.findByName("Mouse").get().getPrice(), 0.0);
+        closeFailed(writer);
+    }
+
+    /**
+     * Test that a write whose append fails is undone
+     */
+    public void testFailedAppendUndoesWrite() throws IOException {
+        MemoryInventory inventory = new MemoryInventory();
+        WriteAheadLog log = new WriteAheadLog(logPath);
+        log.replay(inventory);
+        InventoryWriter failing = new InventoryWriter() {
+            @Override
+            public void addProduct(String name, int quantity, double price) {
+                inventory.addProduct(name, quantity, price);
+            }
+
+            @Override
+            public void addProducts(ProductBatch batch) {
+                inventory.addProducts(batch);
+                log.fail(new IOException("disk full"));
+            }
+
+            @Override
+            public Product upsert(String name, int quantity, double price) {
+                return inventory.upsert(name, quantity, price);
+            }
+
+            @Override
+            public int adjustQuantity(String name, int delta) {
+                return inventory.adjustQuantity(name, delta);
+            }
+
+            @Override
+            public boolean removeProduct(String name) {
+                return inventory.removeProduct(name);
+            }
+        };
+        DurableInventoryWriter writer = new DurableInventoryWriter(failing, inventory, log);
+        writer.upsert("Mouse", 10, 25.50);
+        try {
+            writer.addProducts(new ProductBatch().add("Mouse", 5, 20.00).add("Cable", 3, 2.00));
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+        assertEquals(1, inventory.getProducts().size());
+        assertEquals(10, inventory.findByName("Mouse").get().getQuantity());
+        assertEquals(25.50, inventory.findByName("Mouse").get().getPrice(), 0.0);
+        closeFailed(writer);
+    }
+
+    /**
+     * Test that compaction shrinks the log and keeps later writes
+     */
+    public void testCompactionKeepsState() throws IOException {
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.upsert("Mouse", 0, 25.50);
+            for (int i = 0; i < 500; i++) {
+                writer.adjustQuantity("Mouse", 1);
+            }
+            long before = Files.size(Paths.get(logPath));
+            writer.compact();
+            assertTrue(Files.size(Paths.get(logPath)) < before / 10);
+            writer.adjustQuantity("Mouse", 1);
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(501, restored.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test that compactions running at once never corrupt the log
+     */
+    public void testConcurrentCompactionsKeepState() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (DurableInventoryWriter writer = open(new MemoryInventory())) {
+            writer.upsert("Mouse", 0, 25.50);
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        writer.adjustQuantity("Mouse", 1);
+                        writer.compact();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(1, restored.getProducts().size());
+        assertEquals(80, restored.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test that concurrent writers share group commits and replay exactly
+     */
+    public void testConcurrentWritersReplayExactly() throws Exception {
+        MemoryInventory inventory = new MemoryInventory();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (DurableInventoryWriter writer = open(inventory)) {
+            writer.upsert("Shared", 0, 1.0);
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        writer.adjustQuantity("Shared", 1);
+                        writer.addProduct("T" + thread, 1, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MemoryInventory restored = restore();
+        assertEquals(1600, restored.findByName("Shared").get().getQuantity());
+        for (Product p : inventory.getProducts()) {
+            Product copy = restored.findByName(p.getName()).get();
+            assertEquals(p.getQuantity(), copy.getQuantity());
+            assertEquals(p.getPrice(), copy.getPrice(), 0.0);
+        }
+    }
+
+    private static void closeFailed(DurableInventoryWriter writer) {
+        try {
+            writer.close();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // Expected behavior: the failure is reported again on close
+        }
+    }
+
+    /**
+     * Replays the log into a fresh inventory and closes it again
+     */
+    private MemoryInventory restore() throws IOException {
+        MemoryInventory restored = new MemoryInventory();
+        open(restored).close();
+        return restored;
+    }
+
+    private DurableInventoryWriter open(MemoryInventory inventory) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(logPath);
+        log.replay(inventory);
+        return new DurableInventoryWriter(inventory, inventory, log);
+    }
+
+    /**
+     * Minimal inventory over a repository, without console output
+     */
+    private static final class MemoryInventory implements InventoryReader, InventoryWriter {
+        private final ConcurrentInventoryRepository repository =
+            new ConcurrentInventoryRepository();
+
+        @Override
+        public List<Product> getProducts() {
+            return repository.findAll();
+        }
+
+        @Override
+        public Optional<Product> findByName(String name) {
+            return repository.findByName(name);
+        }
+
+        @Override
+        public void addProduct(String name, int quantity, double price) {
+            repository.add(new Product(name, quantity, price));
+        }
+
+        @Override
+        public Product upsert(String name, int quantity, double price) {
+            return repository.upsert(new Product(name, quantity, price));
+        }
+
+        @Override
+        public int adjustQuantity(String name, int delta) {
+            return repository.adjustQuantity(name, delta);
+        }
+
+        @Override
+        public boolean removeProduct(String name) {
+            return repository.remove(name) != null;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package proyecto.inventario.persistence;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.InventoryWriter;
+import proyecto.inventario.Product;
+import proyecto.inventario.ProductBatch;
+import proyecto.inventario.repository.ColumnarInventoryRepository;
+import proyecto.inventario.repository.ConcurrentInventoryRepository;
+import proyecto.inventario.repository.InventoryRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+
+/**
+ * Unit tests for InventoryCheckpoint and MappedCheckpoint classes.
+ */
+public class InventoryCheckpointTest extends TestCase {
+
+    private String checkpointPath;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public InventoryCheckpointTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(InventoryCheckpointTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        checkpointPath = "test_inventory.ckpt";
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(checkpointPath));
+    }
+
+    /**
+     * Test a round trip larger than one read block
+     */
+    public void testWriteAndLoad() throws IOException {
+        List<Product> products = catalog(200000);
+        InventoryCheckpoint.write(products, checkpointPath);
+        assertFalse(Files.exists(Paths.get(checkpointPath + ".tmp")));
+
+        InventoryRepository repository = new ColumnarInventoryRepository();
+        assertEquals(200000, InventoryCheckpoint.load(checkpointPath, repository));
+        assertProducts(products, repository.findAll());
+    }
+
+    /**
+     * Test that a writer receives the whole checkpoint as one batch
+     */
+    public void testLoadIntoWriterUsesOneBatch() throws IOException {
+        List<Product> products = catalog(5000);
+        InventoryCheckpoint.write(products, checkpointPath);
+
+        RepositoryWriter writer = new RepositoryWriter();
+        assertEquals(5000, InventoryCheckpoint.load(checkpointPath, writer));
+        assertEquals(1, writer.batches);
+        assertProducts(products, writer.repository.findAll());
+    }
+
+    /**
+     * Test that a damaged checkpoint is rejected
+     */
+    public void testCorruptCheckpoint() throws IOException {
+        InventoryCheckpoint.write(catalog(100), checkpointPath);
+        try (FileChannel channel = FileChannel.open(Paths.get(checkpointPath),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 40);
+        }
+        try {
+            InventoryCheckpoint.load(checkpointPath, new ConcurrentInventoryRepository());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Corrupt"));
+        }
+    }
+
+    /**
+     * Test that a checkpoint with one flipped body byte changes nothing
+     */
+    public void testCorruptCheckpointLeavesInventoryUnchanged() throws IOException {
+        InventoryCheckpoint.write(catalog(100), checkpointPath);
+        long size = Files.size(Paths.get(checkpointPath));
+        try (FileChannel channel = FileChannel.open(Paths.get(checkpointPath),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            long at = size - InventoryCheckpoint.FOOTER_BYTES - 100 * Long.BYTES - 1;
+            channel.read(value, at);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) (value.get(0) ^ 1)}), at);
+        }
+        InventoryRepository repository = new ConcurrentInventoryRepository();
+        repository.add(new Product("Ítem 5", 999, 1.5));
+        try {
+            InventoryCheckpoint.load(checkpointPath, repository);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Corrupt"));
+        }
+        assertEquals(1, repository.findAll().size());
+        assertEquals(999, repository.findByName("Ítem 5").get().getQuantity());
+    }
+
+    /**
+     * Test that a huge name length is reported as corruption, not allocated
+     */
+    public void testOversizedNameLengthIsCorrupt() throws IOException {
+        InventoryCheckpoint.write(catalog(10), checkpointPath);
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(Paths.get(checkpointPath)));
+        data.putInt(InventoryCheckpoint.HEADER_BYTES, Integer.MAX_VALUE - 2);
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.limit() - InventoryCheckpoint.FOOTER_BYTES);
+        data.putInt(data.limit() - Integer.BYTES, (int) crc.getValue());
+        Files.write(Paths.get(checkpointPath), data.array());
+        try {
+            InventoryCheckpoint.load(checkpointPath, new ConcurrentInventoryRepository());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Corrupt"));
+        }
+    }
+
+    /**
+     * Test that a file that is not a checkpoint is rejected
+     */
+    public void testNotACheckpoint() throws IOException {
+        Files.write(Paths.get(checkpointPath), "Name,Quantity,Price\n".getBytes("UTF-8"));
+        try {
+            InventoryCheckpoint.map(checkpointPath);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Not an inventory checkpoint"));
+        }
+    }
+
+    /**
+     * Test reads from the mapping while it loads into a repository
+     */
+    public void testMappedCheckpointServesReads() throws Exception {
+        List<Product> products = catalog(1000);
+        InventoryCheckpoint.write(products, checkpointPath);
+
+        MappedCheckpoint checkpoint = InventoryCheckpoint.map(checkpointPath);
+        assertProducts(products, checkpoint.getProducts());
+        assertEquals(17, checkpoint.findByName("Ítem 17").get().getQuantity());
+        assertFalse(checkpoint.findByName("Ítem 1000").isPresent());
+
+        RepositoryWriter writer = new RepositoryWriter();
+        long loaded = checkpoint.loadInto(writer, Runnable::run).get();
+        assertEquals(1000, loaded);
+        assertEquals(1, writer.batches);
+        assertProducts(products, writer.repository.findAll());
+    }
+
+    /**
+     * Test that a corrupt mapping is not loaded
+     */
+    public void testMappedCheckpointRejectsCorruption() throws Exception {
+        InventoryCheckpoint.write(catalog(100), checkpointPath);
+        try (FileChannel channel = FileChannel.open(Paths.get(checkpointPath),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 40);
+        }
+        RepositoryWriter writer = new RepositoryWriter();
+        try {
+            InventoryCheckpoint.map(checkpointPath).loadInto(writer, Runnable::run).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UncheckedIOException);
+        }
+        assertTrue(writer.repository.findAll().isEmpty());
+    }
+
+    private static List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < size; i++) {
+            products.add(new Product("Ítem " + i, i, i / 100.0));
+        }
+        return products;
+    }
+
+    private static void assertProducts(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPrice(), actual.get(i).getPrice(), 0.0);
+        }
+    }
+
+    /**
+     * Writer that only supports the batch issued by a checkpoint load.
+     */
+    private static final class RepositoryWriter implements InventoryWriter {
+        private final ConcurrentInventoryRepository repository =
+            new ConcurrentInventoryRepository();
+        private int batches;
+
+        @Override
+        public void addProduct(String name, int quantity, double price) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addProducts(ProductBatch batch) {
+            batches++;
+            List<Product> products = new ArrayList<Product>();
+            for (int i = 0; i < batch.size(); i++) {
+                products.add(new Product(batch.getName(i), batch.getQuantity(i),
+                    batch.getPrice(i)));
+            }
+            repository.addAll(products);
+        }
+
+        @Override
+        public Product upsert(String name, int quantity, double price) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int adjustQuantity(String name, int delta) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeProduct(String name) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package proyecto.inventario.report;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ColumnarInventoryReport and ColumnarReportReader classes.
+ */
+public class ColumnarInventoryReportTest extends TestCase {
+
+    private String testFilePath;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public ColumnarInventoryReportTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ColumnarInventoryReportTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        testFilePath = "test_inventory.cols";
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(testFilePath));
+        Files.deleteIfExists(Paths.get("test_inventory.csv"));
+    }
+
+    /**
+     * Test a round trip with unusual names, quantities and prices
+     */
+    public void testRoundTrip() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Laptop", 5, 999.99));
+        products.add(new Product("Cable, USB-C", -3, 9.99));
+        products.add(new Product("Cañón 4K", Integer.MAX_VALUE, 0.0));
+        products.add(new Product("", Integer.MIN_VALUE, 25.5));
+        products.add(new Product("Laptop bag", 0, 1e12));
+
+        new ColumnarInventoryReport(testFilePath).generateReport(products);
+        ColumnarReportReader reader = ColumnarReportReader.open(testFilePath);
+
+        assertEquals(5, reader.getRowCount());
+        assertProducts(products, reader.readProducts());
+        assertEquals("", reader.getMinName());
+        assertEquals("Laptop bag", reader.getMaxName());
+        assertEquals(Integer.MIN_VALUE, reader.getMinQuantity());
+        assertEquals(Integer.MAX_VALUE, reader.getMaxQuantity());
+        assertEquals(0.0, reader.getMinPrice(), 0.0);
+        assertEquals(1e12, reader.getMaxPrice(), 0.0);
+    }
+
+    /**
+     * Test that prices without exact cents keep every bit
+     */
+    public void testRawPrices() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("A", 1, 0.1 + 0.2));
+        products.add(new Product("B", 2, -0.0));
+        products.add(new Product("C", 3, Double.NaN));
+        products.add(new Product("D", 4, 1e300));
+
+        new ColumnarInventoryReport(testFilePath).generateReport(products);
+        ColumnarReportReader reader = ColumnarReportReader.open(testFilePath);
+
+        double[] prices = reader.readPrices();
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(Double.doubleToRawLongBits(products.get(i).getPrice()),
+                Double.doubleToRawLongBits(prices[i]));
+        }
+        assertEquals(-0.0, reader.getMinPrice(), 0.0);
+        assertEquals(1e300, reader.getMaxPrice(), 0.0);
+    }
+
+    /**
+     * Test an empty report
+     */
+    public void testEmptyReport() throws IOException {
+        new ColumnarInventoryReport(testFilePath).generateReport(new ArrayList<Product>());
+        ColumnarReportReader reader = ColumnarReportReader.open(testFilePath);
+
+        assertEquals(0, reader.getRowCount());
+        assertTrue(reader.readProducts().isEmpty());
+        assertTrue(Double.isNaN(reader.getMinPrice()));
+    }
+
+    /**
+     * Test that the report is much smaller than the CSV
+     */
+    public void testSmallerThanCsv() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 10000; i++) {
+            products.add(new Product("Product " + i, i % 50, 10 + (i % 20) * 0.25));
+        }
+        new ColumnarInventoryReport(testFilePath).generateReport(products);
+        new CsvInventoryReport("test_inventory.csv").generateReport(products);
+
+        long columnar = Files.size(Paths.get(testFilePath));
+        long csv = Files.size(Paths.get("test_inventory.csv"));
+        assertTrue(columnar + " vs " + csv, columnar * 3 < csv);
+
+        ColumnarReportReader reader = ColumnarReportReader.open(testFilePath);
+        int[] quantities = reader.readQuantities();
+        for (int i = 0; i < quantities.length; i++) {
+            assertEquals(i % 50, quantities[i]);
+        }
+        assertProducts(products, reader.readProducts());
+    }
+
+    /**
+     * Test that other files are rejected
+     */
+    public void testRejectsOtherFiles() throws IOException {
+        Files.write(Paths.get(testFilePath), "Name,Quantity,Price\n".getBytes("UTF-8"));
+        try {
+            ColumnarReportReader.open(testFilePath);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Not a columnar inventory report"));
+        }
+    }
+
+    private static void assertProducts(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPrice(), actual.get(i).getPrice(), 0.0);
+        }
+    }
+}
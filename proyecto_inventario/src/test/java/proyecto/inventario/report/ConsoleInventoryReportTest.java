@@ -167,4 +167,70 @@ public class ConsoleInventoryReportTest extends TestCase {
         // This should not throw any exception
         report.generateReport(products);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test that lines match getDetails exactly, including unusual values
+     */
+    public void testLinesMatchGetDetails() {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Cable, USB-C", -3, 1e7));
+        products.add(new Product("Odd", Integer.MAX_VALUE, Double.NaN));
+        products.add(new Product("Tiny", 1, 0.001));
+        
+        report.generateReport(products);
+        
+        String separator = System.lineSeparator();
+        StringBuilder expected = new StringBuilder();
+        for (Product p : products) {
+            expected.append(p.getDetails()).append(separator);
+        }
+        assertEquals(expected.toString(), outputStream.toString());
+    }
+    
+    /**
+     * Test that output is written in batches of the configured size
+     */
+    public void testFlushesInBatches() {
+        final int[] flushes = {0};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream counting = new PrintStream(bytes) {
+            @Override
+            public void flush() {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 250; i++) {
+            products.add(new Product("Item " + i, i, i));
+        }
+        
+        new ConsoleInventoryReport(counting, 1 << 20, 100).generateReport(products);
+        
+        assertEquals(3, flushes[0]);
+        assertEquals(250, bytes.toString().split(System.lineSeparator()).length);
+        assertEquals("", outputStream.toString());
+    }
+    
+    /**
+     * Test that a small buffer forces a write before the batch is full
+     */
+    public void testBufferSizeLimitsBatch() {
+        final int[] flushes = {0};
+        PrintStream counting = new PrintStream(new ByteArrayOutputStream()) {
+            @Override
+            public void flush() {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 10; i++) {
+            products.add(new Product("Item " + i, i, i));
+        }
+        
+        new ConsoleInventoryReport(counting, 1, 1000).generateReport(products);
+        
+        assertEquals(10, flushes[0]);
+    }
+}
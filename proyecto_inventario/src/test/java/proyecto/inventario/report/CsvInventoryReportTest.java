@@ -3,13 +3,25 @@ package proyecto.inventario.report;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import proyecto.inventario.ChangeTracker;
+import proyecto.inventario.Inventory;
 import proyecto.inventario.Product;
 import java.util.List;
 import java.util.ArrayList;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Unit tests for CsvInventoryReport class.
@@ -236,4 +248,199 @@ public class CsvInventoryReportTest extends TestCase {
         assertTrue(Files.isRegularFile(path));
         assertTrue(Files.size(path) > 0);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test that names with commas or quotes are quoted
+     */
+    public void testGenerateReportQuotesNames() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        products.add(new Product("Cable, USB-C", 4, 9.99));
+        products.add(new Product("Monitor 27\"", 2, 199.5));
+        
+        report.generateReport(products);
+        
+        List<String> lines = Files.readAllLines(Paths.get(testFilePath));
+        assertEquals(3, lines.size());
+        assertEquals("\"Cable, USB-C\",4,9.99", lines.get(1));
+        assertEquals("\"Monitor 27\"\"\",2,199.50", lines.get(2));
+    }
+
+    /**
+     * Test the delta report writes only changes and tombstones
+     */
+    public void testGenerateDelta() throws IOException {
+        Inventory inventory = Inventory.getInstance();
+        inventory.upsert("Delta Laptop", 5, 999.99);
+        inventory.upsert("Delta Mouse", 10, 25.5);
+        ChangeTracker tracker = inventory.trackChanges();
+        try {
+            inventory.adjustQuantity("Delta Laptop", -1);
+            inventory.removeProduct("Delta Mouse");
+
+            assertTrue(report.generateDelta(tracker));
+
+            List<String> lines = Files.readAllLines(Paths.get(testFilePath));
+            assertEquals(3, lines.size());
+            assertEquals("Op,Name,Quantity,Price", lines.get(0));
+            assertTrue(lines.contains("U,Delta Laptop,4,999.99"));
+            assertTrue(lines.contains("D,Delta Mouse,,"));
+
+            assertTrue(report.generateDelta(tracker));
+            assertEquals(1, Files.readAllLines(Paths.get(testFilePath)).size());
+        } finally {
+            tracker.close();
+            inventory.removeProduct("Delta Laptop");
+        }
+    }
+
+    /**
+     * Test that a failed delta keeps the changes for the next export
+     */
+    public void testGenerateDeltaFailureKeepsChanges() throws IOException {
+        Inventory inventory = Inventory.getInstance();
+        ChangeTracker tracker = inventory.trackChanges();
+        Path directory = Files.createTempDirectory("delta");
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            inventory.upsert("Delta Keyboard", 3, 45.0);
+            assertFalse(new CsvInventoryReport(directory.toString()).generateDelta(tracker));
+            assertEquals(1, tracker.pending());
+
+            assertTrue(report.generateDelta(tracker));
+            List<String> lines = Files.readAllLines(Paths.get(testFilePath));
+            assertEquals("U,Delta Keyboard,3,45.00", lines.get(1));
+        } finally {
+            System.setErr(originalErr);
+            tracker.close();
+            inventory.removeProduct("Delta Keyboard");
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Test that an unexpected exception also keeps the changes
+     */
+    public void testGenerateDeltaRuntimeFailureKeepsChanges() throws IOException {
+        Inventory inventory = Inventory.getInstance();
+        ChangeTracker tracker = inventory.trackChanges();
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("rejected");
+        };
+        try {
+            inventory.upsert("Delta Cable", 2, 5.0);
+            try {
+                CsvInventoryReport.gzip(testFilePath + ".gz", rejecting, 16, 1)
+                    .generateDelta(tracker);
+                fail("Expected RejectedExecutionException");
+            } catch (RejectedExecutionException e) {
+                assertEquals("rejected", e.getMessage());
+            }
+            assertEquals(1, tracker.pending());
+        } finally {
+            tracker.close();
+            inventory.removeProduct("Delta Cable");
+            Files.deleteIfExists(Paths.get(testFilePath + ".gz"));
+        }
+    }
+
+    /**
+     * Test that the gzip report decompresses to the plain CSV
+     */
+    public void testGzipReportMatchesPlainCsv() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 20000; i++) {
+            products.add(new Product("Item, " + i, i % 1000, i / 100.0));
+        }
+        Path gzipPath = Paths.get(testFilePath + ".gz");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            report.generateReport(products);
+            InventoryReport gzip =
+                CsvInventoryReport.gzip(gzipPath.toString(), executor, 8192, 4);
+            ReportSink sink = gzip.open();
+            for (Product p : products) {
+                sink.accept(p);
+            }
+            sink.close();
+            assertEquals(Files.size(gzipPath), sink.bytesWritten());
+
+            byte[] plain = Files.readAllBytes(Paths.get(testFilePath));
+            assertTrue(Files.size(gzipPath) < plain.length);
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipPath))) {
+                assertTrue(Arrays.equals(plain, in.readAllBytes()));
+            }
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(gzipPath);
+        }
+    }
+
+    /**
+     * Test that the partitioned report is byte-identical to the sequential one
+     */
+    public void testPartitionedReportMatchesSequential() throws IOException {
+        Path partitionedPath = Paths.get(testFilePath + ".parallel");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int size : new int[] {0, 1, 1000, 10007}) {
+                List<Product> products = new ArrayList<Product>();
+                for (int i = 0; i < size; i++) {
+                    products.add(new Product(i % 3 == 0 ? "Item, " + i : "Item " + i,
+                        i % 1000, i / 100.0));
+                }
+                report.generateReport(products);
+                byte[] expected = Files.readAllBytes(Paths.get(testFilePath));
+                for (int rangeSize : new int[] {1, 7, 4096}) {
+                    CsvInventoryReport.partitioned(partitionedPath.toString(), pool, rangeSize)
+                        .generateReport(products);
+                    assertTrue("size " + size + ", range " + rangeSize,
+                        Arrays.equals(expected, Files.readAllBytes(partitionedPath)));
+                }
+                ReportSink sink = CsvInventoryReport.partitioned(partitionedPath.toString()).open();
+                for (Product p : products) {
+                    sink.accept(p);
+                }
+                sink.close();
+                assertEquals(expected.length, sink.bytesWritten());
+                assertTrue(Arrays.equals(expected, Files.readAllBytes(partitionedPath)));
+            }
+        } finally {
+            pool.shutdownNow();
+            Files.deleteIfExists(partitionedPath);
+        }
+    }
+
+    /**
+     * Test that shard files hold the sequential rows in order
+     */
+    public void testShardedReport() throws IOException {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < 1001; i++) {
+            products.add(new Product("Item " + i, i, i / 10.0));
+        }
+        report.generateReport(products);
+        List<String> expected = Files.readAllLines(Paths.get(testFilePath));
+        String base = "test_shards.csv";
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            CsvInventoryReport.sharded(base, pool, 4).generateReport(products);
+
+            assertEquals("test_shards-2.csv", CsvInventoryReport.shardPath(base, 2));
+            List<String> rows = new ArrayList<String>();
+            for (int shard = 0; shard < 4; shard++) {
+                List<String> lines =
+                    Files.readAllLines(Paths.get(CsvInventoryReport.shardPath(base, shard)));
+                assertEquals("Name,Quantity,Price", lines.get(0));
+                assertTrue(lines.size() > 240);
+                rows.addAll(lines.subList(1, lines.size()));
+            }
+            assertEquals(expected.subList(1, expected.size()), rows);
+        } finally {
+            pool.shutdownNow();
+            for (int shard = 0; shard < 4; shard++) {
+                Files.deleteIfExists(Paths.get(CsvInventoryReport.shardPath(base, shard)));
+            }
+        }
+    }
+}
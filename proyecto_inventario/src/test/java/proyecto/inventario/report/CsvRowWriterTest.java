@@ -0,0 +1,126 @@
+package proyecto.inventario.report;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Unit tests for CsvRowWriter class.
+ */
+public class CsvRowWriterTest extends TestCase {
+
+    private ByteArrayOutputStream bytes;
+    private CsvRowWriter writer;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public CsvRowWriterTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(CsvRowWriterTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        bytes = new ByteArrayOutputStream();
+        // A tiny buffer forces every flush path to be exercised
+        writer = new CsvRowWriter(bytes, 64);
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        bytes = null;
+        writer = null;
+    }
+
+    /**
+     * Test that numbers match String.format("%.2f") for many values
+     */
+    public void testMatchesStringFormat() throws IOException {
+        double[] prices = {0.0, -0.0, 0.005, 0.015, 0.125, 1.005, 2.675, 999.99,
+            123.456, 25.5, -3.14159, 0.994999, 0.995, 1e9 - 0.005, 5e12, 1e300,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE};
+        StringBuilder expected = new StringBuilder();
+        for (double price : prices) {
+            writer.writeRow("P", 7, price);
+            expected.append(String.format(Locale.ROOT, "%s,%d,%.2f%n", "P", 7, price));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            double price = Math.round(random.nextDouble() * 1e7) / 1000.0;
+            int quantity = random.nextInt() >> random.nextInt(32);
+            writer.writeRow("P", quantity, price);
+            expected.append(String.format(Locale.ROOT, "%s,%d,%.2f%n", "P", quantity, price));
+        }
+        writer.writeRow("P", Integer.MIN_VALUE, 1.0);
+        expected.append(String.format(Locale.ROOT, "%s,%d,%.2f%n", "P", Integer.MIN_VALUE, 1.0));
+        writer.flush();
+        assertEquals(expected.toString(), written());
+    }
+
+    /**
+     * Test that names needing it are quoted
+     */
+    public void testQuotesSpecialNames() throws IOException {
+        writer.writeRow("Cable, USB", 1, 1.0);
+        writer.writeRow("Monitor 27\"", 2, 2.0);
+        writer.writeRow("Line\nBreak", 3, 3.0);
+        writer.flush();
+
+        String nl = System.lineSeparator();
+        assertEquals("\"Cable, USB\",1,1.00" + nl
+            + "\"Monitor 27\"\"\",2,2.00" + nl
+            + "\"Line\nBreak\",3,3.00" + nl, written());
+    }
+
+    /**
+     * Test that non-ASCII names are written as UTF-8
+     */
+    public void testWritesUtf8Names() throws IOException {
+        writer.writeRow("Cañón, grande", 1, 1.5);
+        writer.writeRow("Café", 2, 2.5);
+        writer.flush();
+
+        String nl = System.lineSeparator();
+        assertEquals("\"Cañón, grande\",1,1.50" + nl + "Café,2,2.50" + nl, written());
+    }
+
+    /**
+     * Test names longer than the buffer
+     */
+    public void testLongNames() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            name.append(i % 2 == 0 ? 'a' : 'é');
+        }
+        writer.writeHeader();
+        writer.writeRow(name.toString(), 1, 1.0);
+        writer.flush();
+
+        String nl = System.lineSeparator();
+        assertEquals("Name,Quantity,Price" + nl + name + ",1,1.00" + nl, written());
+    }
+
+    private String written() {
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+package proyecto.inventario.report;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import proyecto.inventario.metrics.InventoryMetrics;
+import proyecto.inventario.metrics.ReportStats;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for FanOutInventoryReport class.
+ */
+public class FanOutInventoryReportTest extends TestCase {
+
+    private String testFilePath;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public FanOutInventoryReportTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(FanOutInventoryReportTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        testFilePath = "test_fanout.csv";
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(Paths.get(testFilePath));
+    }
+
+    /**
+     * Test that every report gets every product from a single scan
+     */
+    public void testSequentialFanOutScansOnce() throws IOException {
+        CountingList products = new CountingList(catalog(5000));
+        RecordingReport first = new RecordingReport();
+        RecordingReport second = new RecordingReport();
+
+        new FanOutInventoryReport(first, second, new CsvInventoryReport(testFilePath))
+            .generateReport(products);
+
+        assertEquals(5000, products.reads.get());
+        assertRecorded(products.products, first);
+        assertRecorded(products.products, second);
+        List<String> lines = Files.readAllLines(Paths.get(testFilePath));
+        assertEquals(5001, lines.size());
+        assertEquals("Item 4999,4999,49.99", lines.get(5000));
+    }
+
+    /**
+     * Test the parallel fan-out with reports on their own threads
+     */
+    public void testParallelFanOut() throws IOException {
+        CountingList products = new CountingList(catalog(10000));
+        RecordingReport first = new RecordingReport();
+        RecordingReport second = new RecordingReport();
+
+        FanOutInventoryReport.parallel(2, first, second, new CsvInventoryReport(testFilePath))
+            .generateReport(products);
+
+        assertEquals(10000, products.reads.get());
+        assertRecorded(products.products, first);
+        assertRecorded(products.products, second);
+        assertNotSame(Thread.currentThread(), first.thread);
+        assertNotSame(first.thread, second.thread);
+        assertEquals(10001, Files.readAllLines(Paths.get(testFilePath)).size());
+    }
+
+    /**
+     * Test that a failing report does not stop the others
+     */
+    public void testParallelFailureIsRethrown() {
+        List<Product> products = catalog(5000);
+        RecordingReport healthy = new RecordingReport();
+        InventoryReport failing = list -> {
+            throw new IllegalStateException("boom");
+        };
+        try {
+            FanOutInventoryReport.parallel(1, failing, healthy).generateReport(products);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertRecorded(products, healthy);
+    }
+
+    /**
+     * Test that the default sink hands the buffered list to generateReport
+     */
+    public void testDefaultSinkBuffersProducts() {
+        RecordingReport report = new RecordingReport();
+        try (ReportSink sink = report.open()) {
+            sink.accept(new Product("Laptop", 5, 999.99));
+            assertTrue(report.received.isEmpty());
+        }
+        assertEquals(1, report.received.size());
+    }
+
+    /**
+     * Test that metered reports record rows, bytes and failures
+     */
+    public void testMeteredReports() throws IOException {
+        InventoryMetrics metrics = new InventoryMetrics(() -> 0, () -> 0);
+        List<Product> products = catalog(100);
+        InventoryReport failing = list -> {
+            throw new IllegalStateException("boom");
+        };
+        try {
+            new FanOutInventoryReport(
+                new MeteredInventoryReport(new CsvInventoryReport(testFilePath),
+                    metrics.report("csv")),
+                new MeteredInventoryReport(failing, metrics.report("failing")))
+                .generateReport(products);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+
+        ReportStats csv = metrics.report("csv").snapshot();
+        assertEquals(1, csv.getRuns());
+        assertEquals(0, csv.getFailures());
+        assertEquals(100, csv.getRows());
+        assertEquals(Files.size(Paths.get(testFilePath)), csv.getBytesWritten());
+        assertTrue(csv.getRowsPerSecond() > 0);
+        assertEquals(1, metrics.report("failing").snapshot().getFailures());
+    }
+
+    private static List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < size; i++) {
+            products.add(new Product("Item " + i, i, i / 100.0));
+        }
+        return products;
+    }
+
+    private static void assertRecorded(List<Product> expected, RecordingReport report) {
+        assertEquals(expected.size(), report.received.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), report.received.get(i));
+        }
+    }
+
+    /**
+     * Report that keeps what it receives, relying on the default sink.
+     */
+    private static final class RecordingReport implements InventoryReport {
+        final List<Product> received = new ArrayList<Product>();
+        volatile Thread thread;
+
+        @Override
+        public void generateReport(List<Product> products) {
+            thread = Thread.currentThread();
+            received.addAll(products);
+        }
+    }
+
+    /**
+     * List that counts how many times its elements are read.
+     */
+    private static final class CountingList extends AbstractList<Product> {
+        final List<Product> products;
+        final AtomicInteger reads = new AtomicInteger();
+
+        CountingList(List<Product> products) {
+            this.products = products;
+        }
+
+        @Override
+        public Product get(int index) {
+            reads.incrementAndGet();
+            return products.get(index);
+        }
+
+        @Override
+        public int size() {
+            return products.size();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package proyecto.inventario.report;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Unit tests for ParallelGzipOutputStream class.
+ */
+public class ParallelGzipOutputStreamTest extends TestCase {
+
+    private ExecutorService executor;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public ParallelGzipOutputStreamTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ParallelGzipOutputStreamTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Test that many members decompress back to the original bytes
+     */
+    public void testRoundTripAcrossManyMembers() throws IOException {
+        byte[] data = new byte[100000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(4));
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        ParallelGzipOutputStream gzip =
+            new ParallelGzipOutputStream(compressed, executor, 4096, 3);
+        gzip.write(data, 0, 5000);
+        for (int i = 5000; i < 5100; i++) {
+            gzip.write(data[i]);
+        }
+        gzip.flush();
+        gzip.write(data, 5100, data.length - 5100);
+        gzip.close();
+        gzip.close();
+
+        assertEquals(compressed.size(), gzip.written());
+        assertTrue(countMembers(compressed.toByteArray()) >= 25);
+        assertTrue(Arrays.equals(data, gunzip(compressed.toByteArray())));
+    }
+
+    /**
+     * Test that an empty stream produces an empty file
+     */
+    public void testEmptyStream() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed, executor, 4096, 3).close();
+        assertEquals(0, compressed.size());
+    }
+
+    /**
+     * Test that a rejecting executor fails the write
+     */
+    public void testRejectedBlockFailsWrite() {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(compressed,
+            task -> {
+                throw new IllegalStateException("rejected");
+            }, 16, 1);
+        try {
+            gzip.write(new byte[64], 0, 64);
+            gzip.close();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("rejected", e.getMessage());
+        } catch (IOException e) {
+            fail("Unexpected IOException " + e);
+        }
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static int countMembers(byte[] compressed) {
+        int members = 0;
+        for (int i = 0; i + 2 < compressed.length; i++) {
+            if ((compressed[i] & 0xff) == 0x1f && (compressed[i + 1] & 0xff) == 0x8b
+                && compressed[i + 2] == 8) {
+                members++;
+            }
+        }
+        return members;
+    }
+}
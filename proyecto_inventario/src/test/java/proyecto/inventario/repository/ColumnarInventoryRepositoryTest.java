@@ -0,0 +1,173 @@
+package proyecto.inventario.repository;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import java.util.List;
+
+/**
+ * Unit tests for ColumnarInventoryRepository class.
+ */
+public class ColumnarInventoryRepositoryTest extends TestCase {
+
+    private ColumnarInventoryRepository repository;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public ColumnarInventoryRepositoryTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ColumnarInventoryRepositoryTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        repository = new ColumnarInventoryRepository();
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        repository = null;
+    }
+
+    /**
+     * Test add keeps insertion order and merges duplicates
+     */
+    public void testAddMergesDuplicates() {
+        Product first = repository.add(new Product("Laptop", 5, 999.99));
+        repository.add(new Product("Mouse", 10, 25.50));
+        Product merged = repository.add(new Product("Laptop", 2, 949.99));
+
+        assertEquals(first, merged);
+        List<Product> products = repository.findAll();
+        assertEquals(2, products.size());
+        assertEquals("Laptop", products.get(0).getName());
+        assertEquals("Mouse", products.get(1).getName());
+        assertEquals(7, merged.getQuantity());
+        assertEquals(949.99, merged.getPrice(), 0.01);
+    }
+
+    /**
+     * Test that the returned products write through to the columns
+     */
+    public void testProductsAreViewsOverColumns() {
+        Product mouse = repository.upsert(new Product("Mouse", 10, 25.50));
+        mouse.setQuantity(3);
+        mouse.setPrice(20.00);
+        assertEquals(6, mouse.addQuantity(3));
+
+        Product found = repository.findByName("Mouse").get();
+        assertEquals(6, found.getQuantity());
+        assertEquals(20.00, found.getPrice(), 0.01);
+        assertEquals("Product: Mouse, Quantity: 6, Price: $20.0", found.getDetails());
+        assertEquals(1, repository.adjustQuantity("Mouse", -5));
+        assertEquals(1, mouse.getQuantity());
+    }
+
+    /**
+     * Test growth of the columns, the name arena and the index
+     */
+    public void testManyProducts() {
+        for (int i = 0; i < 10000; i++) {
+            repository.upsert(new Product("Artículo " + i, i, 0.5));
+        }
+        assertEquals(10000, repository.findAll().size());
+        assertEquals("Artículo 1234", repository.findAll().get(1234).getName());
+        assertEquals(9999, repository.findByName("Artículo 9999").get().getQuantity());
+        assertFalse(repository.findByName("Artículo 10000").isPresent());
+        assertEquals(49995000L, repository.totalUnits());
+        assertEquals(24997500.0, repository.totalValue(), 0.001);
+    }
+
+    /**
+     * Test remove drops the product but not from earlier views
+     */
+    public void testRemove() {
+        repository.add(new Product("Laptop", 5, 999.99));
+        Product mouse = repository.add(new Product("Mouse", 10, 25.50));
+        repository.add(new Product("Monitor", 2, 199.99));
+        List<Product> before = repository.findAll();
+
+        assertEquals(mouse, repository.remove("Mouse"));
+        assertNull(repository.remove("Mouse"));
+        assertFalse(repository.findByName("Mouse").isPresent());
+        assertEquals(3, before.size());
+        assertEquals("Mouse", before.get(1).getName());
+        List<Product> after = repository.findAll();
+        assertEquals(2, after.size());
+        assertEquals("Monitor", after.get(1).getName());
+        assertEquals(7, repository.totalUnits());
+
+        repository.add(new Product("Mouse", 1, 20.00));
+        assertEquals(3, repository.findAll().size());
+        assertEquals("Mouse", repository.findAll().get(2).getName());
+        assertEquals(1, repository.findByName("Mouse").get().getQuantity());
+        assertEquals(10, mouse.getQuantity());
+    }
+
+    /**
+     * Test that removals keep the name index and the totals consistent
+     */
+    public void testRemoveMany() {
+        for (int i = 0; i < 10000; i++) {
+            repository.upsert(new Product("Artículo " + i, i, 0.5));
+        }
+        for (int i = 0; i < 10000; i += 3) {
+            assertNotNull(repository.remove("Artículo " + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 3 != 0, repository.findByName("Artículo " + i).isPresent());
+        }
+        List<Product> products = repository.findAll();
+        assertEquals(6666, products.size());
+        assertEquals("Artículo 1", products.get(0).getName());
+        assertEquals("Artículo 9998", products.get(products.size() - 1).getName());
+        assertEquals(33326667L, repository.totalUnits());
+        assertEquals(16663333.5, repository.totalValue(), 0.001);
+
+        for (int i = 0; i < 10000; i += 3) {
+            repository.add(new Product("Artículo " + i, 0, 0.5));
+        }
+        assertEquals(10000, repository.findAll().size());
+        assertEquals(0, repository.findByName("Artículo 0").get().getQuantity());
+    }
+
+    /**
+     * Test adjustQuantity on a missing product
+     */
+    public void testAdjustQuantityUnknownProduct() {
+        try {
+            repository.adjustQuantity("Mouse", 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior
+        }
+    }
+
+    /**
+     * Test findAll returns unmodifiable list
+     */
+    public void testFindAllIsUnmodifiable() {
+        try {
+            repository.findAll().add(new Product("Test", 1, 1.0));
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected behavior
+        }
+    }
+}
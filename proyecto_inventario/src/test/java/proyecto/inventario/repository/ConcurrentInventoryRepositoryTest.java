@@ -0,0 +1,177 @@
+package proyecto.inventario.repository;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ConcurrentInventoryRepository class.
+ */
+public class ConcurrentInventoryRepositoryTest extends TestCase {
+
+    private ConcurrentInventoryRepository repository;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public ConcurrentInventoryRepositoryTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ConcurrentInventoryRepositoryTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        repository = new ConcurrentInventoryRepository();
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        repository = null;
+    }
+
+    /**
+     * Test add keeps insertion order
+     */
+    public void testAddKeepsInsertionOrder() {
+        repository.add(new Product("Laptop", 5, 999.99));
+        repository.add(new Product("Mouse", 10, 25.50));
+
+        List<Product> products = repository.findAll();
+        assertEquals(2, products.size());
+        assertEquals("Laptop", products.get(0).getName());
+        assertEquals("Mouse", products.get(1).getName());
+    }
+
+    /**
+     * Test add merges products with the same name
+     */
+    public void testAddMergesDuplicates() {
+        Product first = repository.add(new Product("Laptop", 5, 999.99));
+        Product merged = repository.add(new Product("Laptop", 2, 949.99));
+
+        assertSame(first, merged);
+        assertEquals(1, repository.findAll().size());
+        assertEquals(7, merged.getQuantity());
+        assertEquals(949.99, merged.getPrice(), 0.01);
+    }
+
+    /**
+     * Test addAll inserts new names and merges existing or repeated ones
+     */
+    public void testAddAll() {
+        Product laptop = repository.add(new Product("Laptop", 5, 999.99));
+        List<Product> batch = new ArrayList<Product>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Product("Item " + i, i, 1.0));
+        }
+        batch.add(new Product("Laptop", 1, 899.99));
+        batch.add(new Product("Item 7", 3, 2.0));
+
+        List<Product> stored = repository.addAll(batch);
+
+        assertEquals(102, stored.size());
+        assertSame(batch.get(0), stored.get(0));
+        assertSame(laptop, stored.get(100));
+        assertSame(batch.get(7), stored.get(101));
+        assertEquals(101, repository.findAll().size());
+        assertEquals("Item 99", repository.findAll().get(100).getName());
+        assertEquals(6, laptop.getQuantity());
+        assertEquals(10, repository.findByName("Item 7").get().getQuantity());
+        assertEquals(2.0, repository.findByName("Item 7").get().getPrice(), 0.0);
+    }
+
+    /**
+     * Test findByName uses the index
+     */
+    public void testFindByName() {
+        Product mouse = repository.add(new Product("Mouse", 10, 25.50));
+        assertSame(mouse, repository.findByName("Mouse").get());
+        assertFalse(repository.findByName("Keyboard").isPresent());
+    }
+
+    /**
+     * Test upsert replaces quantity and price
+     */
+    public void testUpsertReplacesValues() {
+        repository.upsert(new Product("Mouse", 10, 25.50));
+        Product updated = repository.upsert(new Product("Mouse", 3, 20.00));
+
+        assertEquals(1, repository.findAll().size());
+        assertEquals(3, updated.getQuantity());
+        assertEquals(20.00, updated.getPrice(), 0.01);
+    }
+
+    /**
+     * Test adjustQuantity returns the new quantity
+     */
+    public void testAdjustQuantity() {
+        repository.add(new Product("Mouse", 10, 25.50));
+        assertEquals(4, repository.adjustQuantity("Mouse", -6));
+        assertEquals(4, repository.findByName("Mouse").get().getQuantity());
+    }
+
+    /**
+     * Test adjustQuantity on a missing product
+     */
+    public void testAdjustQuantityUnknownProduct() {
+        try {
+            repository.adjustQuantity("Mouse", 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior
+        }
+    }
+
+    /**
+     * Test remove drops the product but not from earlier views
+     */
+    public void testRemove() {
+        repository.add(new Product("Laptop", 5, 999.99));
+        Product mouse = repository.add(new Product("Mouse", 10, 25.50));
+        repository.add(new Product("Monitor", 2, 199.99));
+        List<Product> before = repository.findAll();
+
+        assertSame(mouse, repository.remove("Mouse"));
+        assertNull(repository.remove("Mouse"));
+        assertFalse(repository.findByName("Mouse").isPresent());
+        assertEquals(3, before.size());
+        List<Product> after = repository.findAll();
+        assertEquals(2, after.size());
+        assertEquals("Monitor", after.get(1).getName());
+
+        repository.add(new Product("Mouse", 1, 20.00));
+        assertEquals(3, repository.findAll().size());
+        assertEquals("Mouse", repository.findAll().get(2).getName());
+        assertEquals(3, before.size());
+        assertSame(mouse, before.get(1));
+    }
+
+    /**
+     * Test findAll returns unmodifiable list
+     */
+    public void testFindAllIsUnmodifiable() {
+        try {
+            repository.findAll().add(new Product("Test", 1, 1.0));
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected behavior
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package proyecto.inventario.repository;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import proyecto.inventario.Product;
+import java.util.List;
+
+/**
+ * Unit tests for OffHeapInventoryRepository class.
+ */
+public class OffHeapInventoryRepositoryTest extends TestCase {
+
+    private OffHeapInventoryRepository repository;
+
+    /**
+     * Create the test case
+     *
+     * @param testName name of the test case
+     */
+    public OffHeapInventoryRepositoryTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(OffHeapInventoryRepositoryTest.class);
+    }
+
+    /**
+     * Set up test fixtures, run before every test method.
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        repository = new OffHeapInventoryRepository();
+    }
+
+    /**
+     * Tear down test fixtures, run after every test method.
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        repository = null;
+    }
+
+    /**
+     * Test add keeps insertion order and merges duplicates
+     */
+    public void testAddMergesDuplicates() {
+        Product first = repository.add(new Product("Laptop", 5, 999.99));
+        repository.add(new Product("Mouse", 10, 25.50));
+        Product merged = repository.add(new Product("Laptop", 2, 949.99));
+
+        assertEquals(first, merged);
+        List<Product> products = repository.findAll();
+        assertEquals(2, products.size());
+        assertEquals("Laptop", products.get(0).getName());
+        assertEquals("Mouse", products.get(1).getName());
+        assertEquals(7, merged.getQuantity());
+        assertEquals(949.99, merged.getPrice(), 0.01);
+    }
+
+    /**
+     * Test that the returned products write through to the records
+     */
+    public void testProductsAreViewsOverRecords() {
+        Product mouse = repository.upsert(new Product("Mouse", 10, 25.50));
+        mouse.update(3, 20.00);
+        assertEquals(6, mouse.addQuantity(3));
+
+        Product found = repository.findByName("Mouse").get();
+        assertEquals(6, found.getQuantity());
+        assertEquals(20.00, found.getPrice(), 0.01);
+        assertEquals("Product: Mouse, Quantity: 6, Price: $20.0", found.getDetails());
+        assertEquals(1, repository.adjustQuantity("Mouse", -5));
+        assertEquals(1, mouse.getQuantity());
+    }
+
+    /**
+     * Test that a failed merge leaves the record unchanged
+     */
+    public void testOverflowKeepsRecord() {
+        Product mouse = repository.upsert(new Product("Mouse", Integer.MAX_VALUE, 1.0));
+        try {
+            mouse.addQuantity(1, 2.0);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            // Expected behavior
+        }
+        assertEquals(Integer.MAX_VALUE, mouse.getQuantity());
+        assertEquals(1.0, mouse.getPrice(), 0.0);
+    }
+
+    /**
+     * Test records spanning several pages and names larger than a page
+     */
+    public void testManyProducts() {
+        for (int i = 0; i < 70000; i++) {
+            repository.upsert(new Product("Artículo " + i, i, 0.5));
+        }
+        StringBuilder longName = new StringBuilder();
+        while (longName.length() <= OffHeapInventoryRepository.NAME_PAGE_SIZE) {
+            longName.append("ñandú ");
+        }
+        repository.upsert(new Product(longName.toString(), 1, 0.5));
+
+        assertEquals(70001, repository.findAll().size());
+        assertEquals("Artículo 66000", repository.findAll().get(66000).getName());
+        assertEquals(69999, repository.findByName("Artículo 69999").get().getQuantity());
+        assertEquals(longName.toString(), repository.findAll().get(70000).getName());
+        assertFalse(repository.findByName("Artículo 70000").isPresent());
+        assertEquals(2449965001L, repository.totalUnits());
+        assertEquals(1224982500.5, repository.totalValue(), 0.001);
+    }
+
+    /**
+     * Test remove drops the product but not from earlier views
+     */
+    public void testRemove() {
+        repository.add(new Product("Laptop", 5, 999.99));
+        Product mouse = repository.add(new Product("Mouse", 10, 25.50));
+        repository.add(new Product("Monitor", 2, 199.99));
+        List<Product> before = repository.findAll();
+
+        assertEquals(mouse, repository.remove("Mouse"));
+        assertNull(repository.remove("Mouse"));
+        assertFalse(repository.findByName("Mouse").isPresent());
+        assertEquals(3, before.size());
+        assertEquals("Mouse", before.get(1).getName());
+        List<Product> after = repository.findAll();
+        assertEquals(2, after.size());
+        assertEquals("Monitor", after.get(1).getName());
+        assertEquals(7, repository.totalUnits());
+
+        repository.add(new Product("Mouse", 1, 20.00));
+        assertEquals(3, repository.findAll().size());
+        assertEquals("Mouse", repository.findAll().get(2).getName());
+        assertEquals(1, repository.findByName("Mouse").get().getQuantity());
+        assertEquals(10, mouse.getQuantity());
+    }
+
+    /**
+     * Test that removals keep the name index and the totals consistent
+     */
+    public void testRemoveMany() {
+        for (int i = 0; i < 70000; i++) {
+            repository.upsert(new Product("Artículo " + i, i, 0.5));
+        }
+        for (int i = 0; i < 70000; i += 3) {
+            assertNotNull(repository.remove("Artículo " + i));
+        }
+        for (int i = 0; i < 70000; i++) {
+            assertEquals(i % 3 != 0, repository.findByName("Artículo " + i).isPresent());
+        }
+        List<Product> products = repository.findAll();
+        assertEquals(46666, products.size());
+        assertEquals("Artículo 1", products.get(0).getName());
+        assertEquals("Artículo 69998", products.get(products.size() - 1).getName());
+        assertEquals(1633286667L, repository.totalUnits());
+        assertEquals(816643333.5, repository.totalValue(), 0.001);
+
+        for (int i = 0; i < 70000; i += 3) {
+            repository.add(new Product("Artículo " + i, 0, 0.5));
+        }
+        assertEquals(70000, repository.findAll().size());
+        assertEquals(0, repository.findByName("Artículo 0").get().getQuantity());
+    }
+
+    /**
+     * Test adjustQuantity on a missing product
+     */
+    public void testAdjustQuantityUnknownProduct() {
+        try {
+            repository.adjustQuantity("Mouse", 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior
+        }
+    }
+}